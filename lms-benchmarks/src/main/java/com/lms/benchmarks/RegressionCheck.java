@@ -0,0 +1,89 @@
+package com.lms.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files ({@code -rf json}) and exits non-zero if
+ * any benchmark present in both got worse by more than the tolerance and by
+ * more than the two runs' combined error. Throughput counts as worse when it
+ * drops; every other mode when the score rises.
+ *
+ * <p>
+ * Usage: {@code RegressionCheck <baseline.json> <current.json> [tolerancePercent]},
+ * tolerance defaulting to 10.
+ */
+public final class RegressionCheck {
+
+  private static final double DEFAULT_TOLERANCE_PERCENT = 10;
+
+  private RegressionCheck() {
+  }
+
+  record Result(String mode, double score, double error, String unit) {
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("Usage: RegressionCheck <baseline.json> <current.json> [tolerancePercent]");
+      System.exit(2);
+    }
+    double tolerance = (args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_TOLERANCE_PERCENT) / 100;
+    Map<String, Result> baseline = read(new File(args[0]));
+    Map<String, Result> current = read(new File(args[1]));
+
+    int regressions = 0;
+    for (Map.Entry<String, Result> entry : current.entrySet()) {
+      Result before = baseline.get(entry.getKey());
+      if (before == null) {
+        System.out.printf("NEW        %s: %.3f %s%n", entry.getKey(), entry.getValue().score(),
+            entry.getValue().unit());
+        continue;
+      }
+      Result after = entry.getValue();
+      double change = (after.score() - before.score()) / before.score();
+      double worse = "thrpt".equals(after.mode()) ? -change : change;
+      boolean beyondNoise = Math.abs(after.score() - before.score()) > before.error() + after.error();
+      boolean regressed = worse > tolerance && beyondNoise;
+      if (regressed) {
+        regressions++;
+      }
+      System.out.printf("%-10s %s: %.3f -> %.3f %s (%+.1f%%)%n", regressed ? "REGRESSED" : "ok",
+          entry.getKey(), before.score(), after.score(), after.unit(), change * 100);
+    }
+
+    if (regressions > 0) {
+      System.out.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, tolerance * 100);
+      System.exit(1);
+    }
+  }
+
+  /** Results keyed by benchmark name plus its parameters. */
+  static Map<String, Result> read(File file) throws IOException {
+    Map<String, Result> results = new LinkedHashMap<>();
+    for (JsonNode run : new ObjectMapper().readTree(file)) {
+      StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+      JsonNode params = run.path("params");
+      if (params.isObject()) {
+        Map<String, String> sorted = new TreeMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext();) {
+          Map.Entry<String, JsonNode> param = it.next();
+          sorted.put(param.getKey(), param.getValue().asText());
+        }
+        key.append(sorted);
+      }
+      JsonNode metric = run.path("primaryMetric");
+      double error = metric.path("scoreError").asDouble(0);
+      results.put(key.toString(), new Result(run.path("mode").asText(), metric.path("score").asDouble(),
+          Double.isNaN(error) ? 0 : error, metric.path("scoreUnit").asText()));
+    }
+    return results;
+  }
+}
@@ -0,0 +1,253 @@
+package com.lms.benchmarks.course;
+
+import com.lms.common.audit.AuditLogger;
+import com.lms.common.features.FeatureFlagService;
+import com.lms.course.api.BulkReorderRequest;
+import com.lms.course.application.CourseAccessService;
+import com.lms.course.application.CourseApplicationService;
+import com.lms.course.application.CourseCacheService;
+import com.lms.course.application.CourseCatalogSnapshot;
+import com.lms.course.application.CourseContentVersions;
+import com.lms.course.application.CourseCounter;
+import com.lms.course.application.CourseDetailAssembler;
+import com.lms.course.application.CourseSlugAllocator;
+import com.lms.course.application.CurriculumSyncEngine;
+import com.lms.course.domain.Course;
+import com.lms.course.domain.CourseInstructor;
+import com.lms.course.domain.CourseModule;
+import com.lms.course.domain.CourseModuleRepository;
+import com.lms.course.domain.CourseRepository;
+import com.lms.course.domain.CourseStatus;
+import com.lms.course.infrastructure.CourseEventPublisher;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of course moderation and module reordering at 10/100/1000 items,
+ * comparing the per-item find/save loop these operations used to run with the
+ * set-based and JDBC-batched paths in {@link CourseApplicationService}.
+ *
+ * <p>
+ * Runs against in-memory H2 with the Hibernate batching settings from
+ * {@code application.yml} and the Kafka/audit collaborators stubbed out, so the
+ * numbers isolate statement count. Against Postgres each saved statement is
+ * also a network round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseBulkOperationsBenchmark {
+
+  private static final Set<String> ADMIN = Set.of("ADMIN");
+
+  @Param({ "10", "100", "1000" })
+  public int items;
+
+  private ConfigurableApplicationContext context;
+  private CourseApplicationService courseService;
+  private CourseRepository courseRepository;
+  private CourseModuleRepository moduleRepository;
+  private TransactionTemplate transactionTemplate;
+
+  private List<UUID> courseIds;
+  private UUID curriculumCourseId;
+  private List<UUID> moduleIds;
+  private boolean published;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = new SpringApplicationBuilder(BenchmarkConfig.class)
+        .web(WebApplicationType.NONE)
+        // Arguments rather than default properties so they override application.yml
+        .run("--spring.datasource.url=jdbc:h2:mem:bulk-" + items + ";DB_CLOSE_DELAY=-1",
+            "--spring.jpa.hibernate.ddl-auto=create-drop",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "--spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+            "--logging.level.root=WARN");
+    courseService = context.getBean(CourseApplicationService.class);
+    courseRepository = context.getBean(CourseRepository.class);
+    moduleRepository = context.getBean(CourseModuleRepository.class);
+    transactionTemplate = context.getBean(TransactionTemplate.class);
+
+    courseIds = new ArrayList<>(items);
+    moduleIds = new ArrayList<>(items);
+    transactionTemplate.executeWithoutResult(tx -> {
+      for (int i = 0; i < items; i++) {
+        courseIds.add(courseRepository.save(course("Course " + i)).getId());
+      }
+      Course curriculum = courseRepository.save(course("Curriculum"));
+      curriculumCourseId = curriculum.getId();
+      for (int i = 0; i < items; i++) {
+        moduleIds.add(moduleRepository.save(new CourseModule(UUID.randomUUID(), curriculum, "Module " + i, i))
+            .getId());
+      }
+    });
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public void bulkUpdateStatus() {
+    courseService.bulkUpdateStatus(courseIds, nextStatus(), UUID.randomUUID());
+  }
+
+  /**
+   * The old loop: one SELECT per item, and without JDBC batching configured
+   * one UPDATE round trip per item, reproduced here by flushing each save.
+   */
+  @Benchmark
+  public void bulkUpdateStatusPerItem() {
+    CourseStatus status = nextStatus();
+    transactionTemplate.executeWithoutResult(tx -> {
+      for (UUID courseId : courseIds) {
+        Course course = courseRepository.findById(courseId).orElseThrow();
+        course.setStatus(status);
+        courseRepository.save(course);
+        courseRepository.flush();
+      }
+    });
+  }
+
+  @Benchmark
+  public void reorderModules() {
+    courseService.reorderModules(curriculumCourseId, shuffledOrder(), null, ADMIN);
+  }
+
+  @Benchmark
+  public void reorderModulesPerItem() {
+    BulkReorderRequest request = shuffledOrder();
+    transactionTemplate.executeWithoutResult(tx -> {
+      for (BulkReorderRequest.ReorderItem item : request.items()) {
+        CourseModule module = moduleRepository.findById(item.id()).orElseThrow();
+        module.setSortOrder(item.sortOrder());
+        moduleRepository.save(module);
+        moduleRepository.flush();
+      }
+    });
+  }
+
+  private CourseStatus nextStatus() {
+    published = !published;
+    return published ? CourseStatus.PUBLISHED : CourseStatus.ARCHIVED;
+  }
+
+  private BulkReorderRequest shuffledOrder() {
+    List<Integer> order = new ArrayList<>(items);
+    for (int i = 0; i < items; i++) {
+      order.add(i);
+    }
+    Collections.shuffle(order);
+    List<BulkReorderRequest.ReorderItem> reorder = new ArrayList<>(items);
+    for (int i = 0; i < items; i++) {
+      reorder.add(new BulkReorderRequest.ReorderItem(moduleIds.get(i), order.get(i)));
+    }
+    return new BulkReorderRequest(reorder);
+  }
+
+  private static Course course(String title) {
+    UUID id = UUID.randomUUID();
+    Course course = new Course(id, title, "bench-" + id, "Benchmark course", CourseStatus.DRAFT);
+    course.getInstructors().add(new CourseInstructor(course, UUID.randomUUID(), "INSTRUCTOR"));
+    return course;
+  }
+
+  @SpringBootConfiguration
+  @ImportAutoConfiguration({ DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+      TransactionAutoConfiguration.class })
+  @EntityScan(basePackageClasses = Course.class)
+  @EnableJpaRepositories(basePackageClasses = Course.class)
+  @EnableJpaAuditing
+  @Import({ CourseApplicationService.class, CourseCacheService.class, CourseContentVersions.class })
+  static class BenchmarkConfig {
+
+    @Bean
+    CourseEventPublisher courseEventPublisher() {
+      return Mockito.mock(CourseEventPublisher.class);
+    }
+
+    @Bean
+    AuditLogger auditLogger() {
+      return Mockito.mock(AuditLogger.class);
+    }
+
+    @Bean
+    FeatureFlagService featureFlagService() {
+      return Mockito.mock(FeatureFlagService.class);
+    }
+
+    @Bean
+    CourseAccessService courseAccessService() {
+      return Mockito.mock(CourseAccessService.class);
+    }
+
+    @Bean
+    StringRedisTemplate stringRedisTemplate() {
+      return Mockito.mock(StringRedisTemplate.class);
+    }
+
+    @Bean
+    CourseCatalogSnapshot courseCatalogSnapshot() {
+      return Mockito.mock(CourseCatalogSnapshot.class);
+    }
+
+    @Bean
+    CurriculumSyncEngine curriculumSyncEngine() {
+      return Mockito.mock(CurriculumSyncEngine.class);
+    }
+
+    @Bean
+    CourseDetailAssembler courseDetailAssembler() {
+      return Mockito.mock(CourseDetailAssembler.class);
+    }
+
+    @Bean
+    CourseCounter courseCounter() {
+      return Mockito.mock(CourseCounter.class);
+    }
+
+    @Bean
+    CourseSlugAllocator courseSlugAllocator() {
+      return Mockito.mock(CourseSlugAllocator.class);
+    }
+  }
+}
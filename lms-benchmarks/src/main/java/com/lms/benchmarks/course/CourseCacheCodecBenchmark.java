@@ -0,0 +1,99 @@
+package com.lms.benchmarks.course;
+
+import com.lms.course.api.CourseDetailResponse;
+import com.lms.course.api.LessonResponse;
+import com.lms.course.api.ModuleResponse;
+import com.lms.course.infrastructure.CacheConfig;
+import com.lms.course.infrastructure.CourseDetailRedisSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the legacy polymorphic JSON cache serializer with the binary course
+ * codec. Payload sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CourseCacheCodecBenchmark {
+
+  @Param({ "3x5", "30x20" })
+  public String shape;
+
+  private GenericJackson2JsonRedisSerializer json;
+  private CourseDetailRedisSerializer binary;
+  private CourseDetailResponse course;
+  private byte[] jsonBytes;
+  private byte[] binaryBytes;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    String[] dims = shape.split("x");
+    course = syntheticCourse(Integer.parseInt(dims[0]), Integer.parseInt(dims[1]));
+    json = CacheConfig.jsonCacheSerializer();
+    binary = new CourseDetailRedisSerializer(json);
+    jsonBytes = json.serialize(course);
+    binaryBytes = binary.serialize(course);
+    System.out.printf("%n[%s] payload bytes: json=%d binary=%d%n", shape, jsonBytes.length, binaryBytes.length);
+  }
+
+  @Benchmark
+  public byte[] jsonEncode() {
+    return json.serialize(course);
+  }
+
+  @Benchmark
+  public Object jsonDecode() {
+    return json.deserialize(jsonBytes);
+  }
+
+  @Benchmark
+  public byte[] binaryEncode() {
+    return binary.serialize(course);
+  }
+
+  @Benchmark
+  public Object binaryDecode() {
+    return binary.deserialize(binaryBytes);
+  }
+
+  static CourseDetailResponse syntheticCourse(int moduleCount, int lessonsPerModule) {
+    Instant now = Instant.now();
+    List<ModuleResponse> modules = new ArrayList<>(moduleCount);
+    for (int m = 0; m < moduleCount; m++) {
+      List<LessonResponse> lessons = new ArrayList<>(lessonsPerModule);
+      for (int l = 0; l < lessonsPerModule; l++) {
+        lessons.add(new LessonResponse(UUID.randomUUID(), "Lesson " + m + "." + l, "VIDEO", 12, l,
+            l == 0, l == 0, "PUBLISHED", null, now, now));
+      }
+      modules.add(new ModuleResponse(UUID.randomUUID(), "Module " + m, m, lessons, now, now));
+    }
+    return new CourseDetailResponse(UUID.randomUUID(), "Distributed Systems in Practice",
+        "distributed-systems-in-practice", "A hands-on course on building reliable services.", "ENGINEERING",
+        "ADVANCED", new BigDecimal("49.99"), "USD", false, "https://cdn.example.com/thumb.jpg", "PUBLISHED",
+        true, false, new BigDecimal("100.00"), false, new HashSet<>(List.of("java", "kafka", "postgres")), modules,
+        new ArrayList<>(List.of(UUID.randomUUID())), now, now);
+  }
+}
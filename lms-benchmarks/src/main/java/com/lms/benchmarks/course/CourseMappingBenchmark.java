@@ -0,0 +1,80 @@
+package com.lms.benchmarks.course;
+
+import com.lms.course.api.CourseDetailResponse;
+import com.lms.course.api.CourseResponse;
+import com.lms.course.application.CourseCacheService;
+import com.lms.course.domain.Course;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-response mapping for course detail and course listings. Listing
+ * pages go through {@link CourseCacheService#mapToCourseResponse}, which
+ * {@code CourseApplicationService} delegates to.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CourseMappingBenchmark {
+
+  // Mapping never touches the repository
+  private static final CourseCacheService MAPPER = new CourseCacheService(null, null);
+
+  @State(Scope.Benchmark)
+  public static class Detail {
+
+    @Param({ "3x5", "10x10", "30x20" })
+    public String shape;
+
+    Course course;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      course = SyntheticCourses.course(shape);
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Listing {
+
+    @Param({ "20", "100" })
+    public int pageSize;
+
+    List<Course> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      page = SyntheticCourses.page(pageSize);
+    }
+  }
+
+  @Benchmark
+  public CourseDetailResponse mapToCourseDetailResponse(Detail state) {
+    return MAPPER.mapToCourseDetailResponse(state.course, false);
+  }
+
+  @Benchmark
+  public List<CourseResponse> mapListingPage(Listing state) {
+    List<CourseResponse> responses = new ArrayList<>(state.page.size());
+    for (Course entry : state.page) {
+      responses.add(MAPPER.mapToCourseResponse(entry));
+    }
+    return responses;
+  }
+}
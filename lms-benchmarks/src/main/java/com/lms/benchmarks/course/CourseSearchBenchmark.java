@@ -0,0 +1,159 @@
+package com.lms.benchmarks.course;
+
+import com.lms.course.infrastructure.CourseSearchFunctions;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a first page of published courses matching {@code search} over
+ * 100k seeded courses: the {@code LIKE '%term%'} filter course listings used
+ * to run, against the ranked full-text match on {@code idx_courses_search}.
+ * Each invocation runs the page query and its count, as a listing does.
+ *
+ * <p>
+ * Needs Docker: the schema comes from the Flyway migrations applied to a
+ * throwaway {@code postgres:16-alpine}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseSearchBenchmark {
+
+  private static final int COURSES = 100_000;
+  private static final int PAGE_SIZE = 20;
+
+  private static final String WORDS = "ARRAY['java','python','kubernetes','data','science','machine','learning',"
+      + "'design','patterns','cloud','security','networking','databases','postgres','spring','react',"
+      + "'testing','devops','statistics','finance','marketing','photography','music','writing']";
+
+  // What the Specification rendered before V12
+  private static final String LIKE_WHERE = "status = 'PUBLISHED'"
+      + " AND (lower(title) LIKE ? OR lower(description) LIKE ?)";
+  private static final String LIKE_PAGE = "SELECT id, title FROM lms_course.courses WHERE " + LIKE_WHERE
+      + " ORDER BY created_at DESC, id LIMIT " + PAGE_SIZE;
+  private static final String LIKE_COUNT = "SELECT count(*) FROM lms_course.courses WHERE " + LIKE_WHERE;
+
+  // What CourseSearchFunctions renders now
+  private static final String DOCUMENT = "setweight(to_tsvector('english', coalesce(title, '')), 'A')"
+      + " || setweight(to_tsvector('english', coalesce(description, '')), 'B')";
+  private static final String FTS_WHERE = "status = 'PUBLISHED'"
+      + " AND (" + DOCUMENT + ") @@ to_tsquery('english', ?)";
+  private static final String FTS_PAGE = "SELECT id, title FROM lms_course.courses WHERE " + FTS_WHERE
+      + " ORDER BY ts_rank(" + DOCUMENT + ", to_tsquery('english', ?)) DESC, id LIMIT " + PAGE_SIZE;
+  private static final String FTS_COUNT = "SELECT count(*) FROM lms_course.courses WHERE " + FTS_WHERE;
+
+  @Param({ "kubernetes", "machine learn", "photo" })
+  public String search;
+
+  private PostgreSQLContainer<?> postgres;
+  private Connection connection;
+  private String likePattern;
+  private String tsQuery;
+
+  @Setup(Level.Trial)
+  public void setUp() throws SQLException {
+    postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+    postgres.start();
+    Flyway.configure()
+        .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+        .schemas("lms_course")
+        .locations("classpath:db/migration")
+        .load()
+        .migrate();
+
+    connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("INSERT INTO lms_course.courses (id, title, slug, description, status, created_at, updated_at) "
+          + "SELECT gen_random_uuid(), t.title, 'bench-' || i, d.description, "
+          + "CASE WHEN i % 5 = 0 THEN 'DRAFT' ELSE 'PUBLISHED' END, "
+          + "now() - i * interval '1 minute', now() "
+          + "FROM generate_series(1, " + COURSES + ") i "
+          + "CROSS JOIN LATERAL (SELECT string_agg((" + WORDS + ")[1 + floor(random() * 24)::int], ' ') AS title "
+          + "FROM generate_series(1, 3 + i % 3)) t "
+          + "CROSS JOIN LATERAL (SELECT string_agg((" + WORDS + ")[1 + floor(random() * 24)::int], ' ') AS description "
+          + "FROM generate_series(1, 40 + i % 20)) d");
+      statement.execute("ANALYZE lms_course.courses");
+    }
+
+    likePattern = "%" + search.toLowerCase() + "%";
+    tsQuery = CourseSearchFunctions.prefixQuery(search);
+    System.out.printf("%n[%s] published matches: like=%d fts=%d%n", search,
+        count(LIKE_COUNT, likePattern, likePattern), count(FTS_COUNT, tsQuery));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws SQLException {
+    if (connection != null) {
+      connection.close();
+    }
+    if (postgres != null) {
+      postgres.stop();
+    }
+  }
+
+  @Benchmark
+  public List<UUID> like() throws SQLException {
+    List<UUID> page = page(LIKE_PAGE, likePattern, likePattern);
+    count(LIKE_COUNT, likePattern, likePattern);
+    return page;
+  }
+
+  @Benchmark
+  public List<UUID> fullText() throws SQLException {
+    List<UUID> page = page(FTS_PAGE, tsQuery, tsQuery);
+    count(FTS_COUNT, tsQuery);
+    return page;
+  }
+
+  private List<UUID> page(String sql, String... args) throws SQLException {
+    try (PreparedStatement statement = prepare(sql, args); ResultSet rows = statement.executeQuery()) {
+      List<UUID> ids = new ArrayList<>(PAGE_SIZE);
+      while (rows.next()) {
+        ids.add(rows.getObject(1, UUID.class));
+      }
+      return ids;
+    }
+  }
+
+  private long count(String sql, String... args) throws SQLException {
+    try (PreparedStatement statement = prepare(sql, args); ResultSet rows = statement.executeQuery()) {
+      rows.next();
+      return rows.getLong(1);
+    }
+  }
+
+  private PreparedStatement prepare(String sql, String... args) throws SQLException {
+    PreparedStatement statement = connection.prepareStatement(sql);
+    for (int i = 0; i < args.length; i++) {
+      statement.setString(i + 1, args[i]);
+    }
+    return statement;
+  }
+}
@@ -0,0 +1,103 @@
+package com.lms.benchmarks.course;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.lms.common.api.SparseFieldFilter;
+import com.lms.course.api.CourseDetailResponse;
+import com.lms.course.api.CourseListResponse;
+import com.lms.course.api.CourseResponse;
+import com.lms.course.application.CourseCacheService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON response bodies as the course controllers write them: course detail,
+ * a listing page, and a listing page through {@link SparseFieldFilter} with
+ * and without a {@code fields} selection. The mapper is built the way Spring
+ * Boot builds the application's.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CourseSerializationBenchmark {
+
+  private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build();
+  private static final CourseCacheService RESPONSES = new CourseCacheService(null, null);
+
+  /** Listing entries are {@code @JsonFilter}ed, so every write needs a provider. */
+  private static final SimpleFilterProvider SERIALIZE_ALL = new SimpleFilterProvider()
+      .addFilter("sparseFilter", SimpleBeanPropertyFilter.serializeAll());
+
+  @State(Scope.Benchmark)
+  public static class Detail {
+
+    @Param({ "3x5", "10x10", "30x20" })
+    public String shape;
+
+    CourseDetailResponse course;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      course = RESPONSES.mapToCourseDetailResponse(SyntheticCourses.course(shape), false);
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Listing {
+
+    @Param({ "20", "100" })
+    public int pageSize;
+
+    CourseListResponse page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      List<CourseResponse> content = SyntheticCourses.page(pageSize).stream()
+          .map(RESPONSES::mapToCourseResponse)
+          .toList();
+      page = new CourseListResponse(content, "cursor", 10_000, 10_000 / pageSize, pageSize, 1);
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class SparseListing extends Listing {
+
+    @Param({ "", "id,title,slug,price,thumbnailUrl" })
+    public String fields;
+  }
+
+  @Benchmark
+  public byte[] serializeCourseDetail(Detail state) throws JsonProcessingException {
+    return MAPPER.writeValueAsBytes(state.course);
+  }
+
+  @Benchmark
+  public byte[] serializeCourseList(Listing state) throws JsonProcessingException {
+    return MAPPER.writer(SERIALIZE_ALL).writeValueAsBytes(state.page);
+  }
+
+  @Benchmark
+  public byte[] sparseFieldFilter(SparseListing state) throws JsonProcessingException {
+    MappingJacksonValue filtered = SparseFieldFilter.filter(state.page, state.fields);
+    return MAPPER.writer(filtered.getFilters()).writeValueAsBytes(filtered.getValue());
+  }
+}
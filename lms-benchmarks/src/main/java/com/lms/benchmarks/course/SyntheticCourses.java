@@ -0,0 +1,69 @@
+package com.lms.benchmarks.course;
+
+import com.lms.course.domain.Course;
+import com.lms.course.domain.CourseInstructor;
+import com.lms.course.domain.CourseModule;
+import com.lms.course.domain.CourseStatus;
+import com.lms.course.domain.Lesson;
+import com.lms.course.domain.LessonType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Detached course entities shaped like real catalog entries, built without a
+ * database. Shapes are {@code <modules>x<lessons per module>}.
+ */
+final class SyntheticCourses {
+
+  private SyntheticCourses() {
+  }
+
+  static Course course(String shape) {
+    String[] dims = shape.split("x");
+    return course(Integer.parseInt(dims[0]), Integer.parseInt(dims[1]));
+  }
+
+  static Course course(int moduleCount, int lessonsPerModule) {
+    Instant now = Instant.now();
+    UUID id = UUID.randomUUID();
+    Course course = new Course(id, "Distributed Systems in Practice", "distributed-systems-" + id,
+        "A hands-on course on building reliable services, from consensus to backpressure.",
+        CourseStatus.PUBLISHED);
+    course.setCategory("ENGINEERING");
+    course.setLevel("ADVANCED");
+    course.setPrice(new BigDecimal("49.99"));
+    course.setCurrency("USD");
+    course.setThumbnailUrl("https://cdn.example.com/thumbnails/" + id + ".jpg");
+    course.setTags(Set.of("java", "kafka", "postgres", "observability"));
+    course.setCreatedAt(now);
+    course.setUpdatedAt(now);
+    course.getInstructors().add(new CourseInstructor(course, UUID.randomUUID(), "OWNER"));
+    course.getInstructors().add(new CourseInstructor(course, UUID.randomUUID(), "INSTRUCTOR"));
+
+    for (int m = 0; m < moduleCount; m++) {
+      CourseModule module = new CourseModule(UUID.randomUUID(), course, "Module " + (m + 1), m);
+      for (int l = 0; l < lessonsPerModule; l++) {
+        Lesson lesson = new Lesson(UUID.randomUUID(), module, "Lesson " + (m + 1) + "." + (l + 1),
+            l % 4 == 3 ? LessonType.QUIZ : LessonType.VIDEO, 12, l);
+        lesson.setPreview(m == 0 && l == 0);
+        module.addLesson(lesson);
+      }
+      course.addModule(module);
+    }
+    return course;
+  }
+
+  /** A page of listing entries, each with a one-module curriculum. */
+  static List<Course> page(int size) {
+    List<Course> courses = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      courses.add(course(1, 1));
+    }
+    return courses;
+  }
+}
@@ -0,0 +1,102 @@
+package com.lms.common.config.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.WebUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which users committed a write in the last {@code window}, so
+ * their reads can be sent to the primary until the replica has caught up.
+ * Writes are recorded locally and in Redis, so the window holds when the
+ * user's next request lands on another instance. Without Redis it is
+ * per-instance only.
+ *
+ * <p>
+ * Redis is only asked on a local miss for requests carrying the
+ * {@value #HINT_COOKIE} cookie, which the response to a write sets for the
+ * length of the window. Every other read-only transaction is decided
+ * locally, without a round trip.
+ */
+public class ReadYourWritesTracker {
+
+  private static final Logger log = LoggerFactory.getLogger(ReadYourWritesTracker.class);
+  public static final String HINT_COOKIE = "lms_recent_write";
+  private static final String KEY_PREFIX = "lms:db:recent-write:";
+  private static final int SWEEP_THRESHOLD = 10_000;
+
+  private final StringRedisTemplate redisTemplate;
+  private final Duration window;
+  private final Map<String, Long> localWrites = new ConcurrentHashMap<>();
+
+  /**
+   * @param redisTemplate shared store for the window, or {@code null} to keep it local
+   */
+  public ReadYourWritesTracker(StringRedisTemplate redisTemplate, Duration window) {
+    this.redisTemplate = redisTemplate;
+    this.window = window;
+  }
+
+  public void recordWrite(String userId) {
+    long now = System.currentTimeMillis();
+    localWrites.put(userId, now + window.toMillis());
+    if (localWrites.size() > SWEEP_THRESHOLD) {
+      localWrites.values().removeIf(expiresAt -> expiresAt < now);
+    }
+    if (redisTemplate != null) {
+      try {
+        redisTemplate.opsForValue().set(KEY_PREFIX + userId, "1", window);
+      } catch (RuntimeException e) {
+        log.warn("Could not share write window for user {}", userId, e);
+      }
+      hintNextRequests();
+    }
+  }
+
+  public boolean wroteRecently(String userId) {
+    Long expiresAt = localWrites.get(userId);
+    if (expiresAt != null) {
+      if (expiresAt >= System.currentTimeMillis()) {
+        return true;
+      }
+      localWrites.remove(userId, expiresAt);
+    }
+    if (redisTemplate == null || !hinted()) {
+      return false;
+    }
+    try {
+      return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + userId));
+    } catch (RuntimeException e) {
+      // Cannot tell, so be safe: the primary always has the write
+      log.warn("Could not read write window for user {}", userId, e);
+      return true;
+    }
+  }
+
+  private static boolean hinted() {
+    return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+        && WebUtils.getCookie(attributes.getRequest(), HINT_COOKIE) != null;
+  }
+
+  // The write commits before the controller renders, so the response is normally still open
+  private void hintNextRequests() {
+    if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+        && attributes.getResponse() != null && !attributes.getResponse().isCommitted()) {
+      attributes.getResponse().addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(HINT_COOKIE, "1")
+          .maxAge(window)
+          .path("/")
+          .httpOnly(true)
+          .sameSite("Lax")
+          .build()
+          .toString());
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package com.lms.common.config.database;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Samples how far one read replica's replay trails the primary. Until the
+ * first sample, after a failed one, or once samples stop arriving, the lag is
+ * unknown and {@link #isWithin} answers {@code false}, so the replica gets no
+ * reads. {@link ReplicaPool} drives the sampling.
+ *
+ * <p>
+ * The data source should be one reserved for sampling rather than the
+ * replica's reader pool, so a busy pool does not delay the samples.
+ */
+public class ReplicaLagMonitor implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+  // A replica that has replayed everything it received is current, however old
+  // its last replayed transaction; otherwise lag is the age of that transaction.
+  // A primary (replica URL pointing at it) is never behind.
+  private static final String LAG_QUERY = "SELECT CASE "
+      + "WHEN NOT pg_is_in_recovery() THEN 0 "
+      + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+      + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+  private final String name;
+  private final DataSource dataSource;
+  private final JdbcTemplate replica;
+  private final long staleAfterMillis;
+
+  private volatile long lagMillis = -1;
+  private volatile long sampledAt;
+
+  public ReplicaLagMonitor(String name, DataSource replicaDataSource, Duration staleAfter,
+      MeterRegistry meterRegistry) {
+    this.name = name;
+    this.dataSource = replicaDataSource;
+    this.replica = new JdbcTemplate(replicaDataSource);
+    this.replica.setQueryTimeout(2);
+    this.staleAfterMillis = staleAfter.toMillis();
+    Gauge.builder("lms.datasource.replica.lag", this, m -> {
+      Duration lag = m.currentLag();
+      return lag == null ? Double.NaN : lag.toMillis() / 1000.0;
+    }).baseUnit("seconds")
+        .description("Replay lag of the read replica; NaN while unknown")
+        .tag("replica", name)
+        .register(meterRegistry);
+  }
+
+  public void measure() {
+    try {
+      Number lag = replica.queryForObject(LAG_QUERY, Number.class);
+      lagMillis = lag == null ? 0 : Math.max(0, lag.longValue());
+      sampledAt = System.currentTimeMillis();
+    } catch (RuntimeException e) {
+      if (lagMillis >= 0) {
+        log.warn("Lag check failed for replica {}, taking it out of rotation", name, e);
+      }
+      lagMillis = -1;
+    }
+  }
+
+  /**
+   * Treats the replica as lagging until the next successful sample.
+   */
+  public void markDown() {
+    lagMillis = -1;
+  }
+
+  /**
+   * @return the last sampled lag, or {@code null} if it is unknown
+   */
+  public Duration currentLag() {
+    long lag = lagMillis;
+    if (lag < 0 || System.currentTimeMillis() - sampledAt > staleAfterMillis) {
+      return null;
+    }
+    return Duration.ofMillis(lag);
+  }
+
+  public boolean isWithin(Duration maxLag) {
+    Duration lag = currentLag();
+    return lag != null && lag.compareTo(maxLag) <= 0;
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (dataSource instanceof AutoCloseable closeable) {
+      closeable.close();
+    }
+  }
+}
@@ -0,0 +1,270 @@
+package com.lms.common.config.database;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The read replicas behind {@link DataSourceType#REPLICA}, presented as one
+ * data source. Each connection goes to a healthy replica picked by the
+ * configured {@link ReplicaSelection}.
+ *
+ * <p>
+ * A replica is healthy while its last lag sample is recent and within
+ * {@code maxLag}. It is ejected when a sample fails, shows too much lag or a
+ * connection attempt fails, and re-admitted by the next good sample. With no
+ * healthy replica, connections come from the fallback (the primary). Each
+ * replica is sampled on its own thread, so one that hangs only goes stale
+ * itself instead of delaying the samples of the others.
+ */
+public class ReplicaPool extends AbstractDataSource implements InitializingBean, DisposableBean {
+
+  private static final Logger log = LoggerFactory.getLogger(ReplicaPool.class);
+
+  private final List<Replica> replicas;
+  private final DataSource fallback;
+  private final ReplicaSelection selection;
+  private final Duration maxLag;
+  private final Duration checkInterval;
+  private final Counter fallbacks;
+  private final AtomicInteger rotation = new AtomicInteger();
+  private ScheduledExecutorService healthChecker;
+
+  public ReplicaPool(List<Replica> replicas, DataSource fallback, ReplicaSelection selection,
+      Duration maxLag, Duration checkInterval, MeterRegistry meterRegistry) {
+    if (replicas.isEmpty()) {
+      throw new IllegalArgumentException("A replica pool needs at least one replica");
+    }
+    this.replicas = List.copyOf(replicas);
+    this.fallback = fallback;
+    this.selection = selection;
+    this.maxLag = maxLag;
+    this.checkInterval = checkInterval;
+    this.fallbacks = Counter.builder("lms.datasource.replica.fallback")
+        .description("Replica connections served by the primary because no replica was healthy")
+        .register(meterRegistry);
+    for (Replica replica : this.replicas) {
+      Gauge.builder("lms.datasource.replica.outstanding", replica.outstanding, AtomicInteger::get)
+          .description("Connections currently checked out from the replica")
+          .tag("replica", replica.name)
+          .register(meterRegistry);
+      Gauge.builder("lms.datasource.replica.healthy", replica, r -> isHealthy(r) ? 1 : 0)
+          .description("1 while the replica is in rotation")
+          .tag("replica", replica.name)
+          .register(meterRegistry);
+    }
+  }
+
+  /**
+   * One replica and its weight in the rotation.
+   */
+  public static final class Replica {
+    private final String name;
+    private final DataSource dataSource;
+    private final int weight;
+    private final ReplicaLagMonitor monitor;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private boolean healthy;
+    private int currentWeight;
+
+    public Replica(String name, DataSource dataSource, int weight, ReplicaLagMonitor monitor) {
+      if (weight < 1) {
+        throw new IllegalArgumentException("Replica " + name + " needs a positive weight");
+      }
+      this.name = name;
+      this.dataSource = dataSource;
+      this.weight = weight;
+      this.monitor = monitor;
+    }
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    AtomicInteger threads = new AtomicInteger();
+    healthChecker = Executors.newScheduledThreadPool(replicas.size(), r -> {
+      Thread thread = new Thread(r, "replica-health-" + threads.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    for (Replica replica : replicas) {
+      healthChecker.scheduleWithFixedDelay(() -> checkHealth(replica), 0, checkInterval.toMillis(),
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    if (healthChecker != null) {
+      healthChecker.shutdownNow();
+    }
+    for (Replica replica : replicas) {
+      if (replica.dataSource instanceof AutoCloseable closeable) {
+        closeable.close();
+      }
+      replica.monitor.close();
+    }
+  }
+
+  /**
+   * Whether a read-only transaction can be served by a replica right now.
+   */
+  public boolean hasHealthyReplica() {
+    for (Replica replica : replicas) {
+      if (isHealthy(replica)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return borrow(null, null);
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return borrow(username, password);
+  }
+
+  private Connection borrow(String username, String password) throws SQLException {
+    List<Replica> failed = null;
+    for (int attempt = 0; attempt < replicas.size(); attempt++) {
+      Replica replica = select(failed);
+      if (replica == null) {
+        break;
+      }
+      replica.outstanding.incrementAndGet();
+      try {
+        Connection connection = username == null
+            ? replica.dataSource.getConnection()
+            : replica.dataSource.getConnection(username, password);
+        return tracked(connection, replica);
+      } catch (SQLException e) {
+        replica.outstanding.decrementAndGet();
+        replica.monitor.markDown();
+        log.warn("Could not connect to replica {}, taking it out of rotation", replica.name, e);
+        if (failed == null) {
+          failed = new ArrayList<>(replicas.size());
+        }
+        failed.add(replica);
+      }
+    }
+    fallbacks.increment();
+    return username == null ? fallback.getConnection() : fallback.getConnection(username, password);
+  }
+
+  private Replica select(List<Replica> exclude) {
+    return selection == ReplicaSelection.WEIGHTED_ROUND_ROBIN
+        ? nextWeighted(exclude)
+        : leastOutstanding(exclude);
+  }
+
+  // Fewest checked-out connections per unit of weight; the rotating start
+  // spreads ties instead of always favouring the first replica
+  private Replica leastOutstanding(List<Replica> exclude) {
+    int size = replicas.size();
+    int start = Math.floorMod(rotation.getAndIncrement(), size);
+    Replica best = null;
+    double bestLoad = Double.MAX_VALUE;
+    for (int i = 0; i < size; i++) {
+      Replica replica = replicas.get((start + i) % size);
+      if (!isCandidate(replica, exclude)) {
+        continue;
+      }
+      double load = (replica.outstanding.get() + 1) / (double) replica.weight;
+      if (load < bestLoad) {
+        best = replica;
+        bestLoad = load;
+      }
+    }
+    return best;
+  }
+
+  // Smooth weighted round-robin: interleaves replicas in proportion to their
+  // weights rather than sending a heavy replica its whole share in a burst
+  private synchronized Replica nextWeighted(List<Replica> exclude) {
+    Replica best = null;
+    int total = 0;
+    for (Replica replica : replicas) {
+      if (!isCandidate(replica, exclude)) {
+        continue;
+      }
+      replica.currentWeight += replica.weight;
+      total += replica.weight;
+      if (best == null || replica.currentWeight > best.currentWeight) {
+        best = replica;
+      }
+    }
+    if (best != null) {
+      best.currentWeight -= total;
+    }
+    return best;
+  }
+
+  private boolean isCandidate(Replica replica, List<Replica> exclude) {
+    return isHealthy(replica) && (exclude == null || !exclude.contains(replica));
+  }
+
+  private boolean isHealthy(Replica replica) {
+    return replica.monitor.isWithin(maxLag);
+  }
+
+  private void checkHealth(Replica replica) {
+    replica.monitor.measure();
+    boolean healthy = isHealthy(replica);
+    if (healthy != replica.healthy) {
+      if (healthy) {
+        log.info("Replica {} is back in rotation", replica.name);
+      } else {
+        log.warn("Replica {} is out of rotation (lag {})", replica.name, replica.monitor.currentLag());
+      }
+      replica.healthy = healthy;
+    }
+  }
+
+  // Counts the connection as outstanding until the caller closes it
+  private static Connection tracked(Connection connection, Replica replica) {
+    AtomicBoolean closed = new AtomicBoolean();
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+        new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "equals":
+              return proxy == args[0];
+            case "hashCode":
+              return System.identityHashCode(proxy);
+            case "close":
+              if (closed.compareAndSet(false, true)) {
+                replica.outstanding.decrementAndGet();
+              }
+              break;
+            default:
+              break;
+          }
+          try {
+            return method.invoke(connection, args);
+          } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+          }
+        });
+  }
+}
@@ -0,0 +1,117 @@
+package com.lms.common.config.database;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the service's data source with one that routes read-only
+ * transactions over a pool of read replicas. Any service can opt in with
+ * {@code lms.datasource.replica.enabled=true} and a list of nodes; see
+ * {@link ReplicaRoutingProperties}.
+ */
+@AutoConfiguration(before = DataSourceAutoConfiguration.class)
+@ConditionalOnClass(HikariDataSource.class)
+@ConditionalOnProperty(prefix = "lms.datasource.replica", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties({ DataSourceProperties.class, ReplicaRoutingProperties.class })
+public class ReplicaRoutingAutoConfiguration {
+
+  private static final Duration PROBE_SOCKET_TIMEOUT = Duration.ofSeconds(2);
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  @Bean
+  public ReplicaPool replicaPool(ReplicaRoutingProperties properties, DataSourceProperties primaryProperties,
+      @Qualifier("primaryDataSource") DataSource primaryDataSource, MeterRegistry meterRegistry) {
+    List<ReplicaPool.Replica> replicas = new ArrayList<>();
+    for (ReplicaRoutingProperties.Node node : properties.getNodes()) {
+      if (!StringUtils.hasText(node.getName()) || !StringUtils.hasText(node.getUrl())) {
+        throw new IllegalStateException("Every lms.datasource.replica.nodes entry needs a name and url");
+      }
+      HikariDataSource dataSource = replicaDataSource("replica-" + node.getName(), node, primaryProperties,
+          properties, node.getMaximumPoolSize(), properties.getSocketTimeout());
+      // Lag is sampled over its own connection, so a replica with an exhausted
+      // or hanging reader pool is still measured, and measured promptly
+      HikariDataSource probe = replicaDataSource("replica-" + node.getName() + "-probe", node, primaryProperties,
+          properties, 1, PROBE_SOCKET_TIMEOUT);
+      ReplicaLagMonitor monitor = new ReplicaLagMonitor(node.getName(), probe,
+          properties.getLagStaleAfter(), meterRegistry);
+      replicas.add(new ReplicaPool.Replica(node.getName(), dataSource, node.getWeight(), monitor));
+    }
+    return new ReplicaPool(replicas, primaryDataSource, properties.getSelection(),
+        properties.getMaxLag(), properties.getLagCheckInterval(), meterRegistry);
+  }
+
+  private static HikariDataSource replicaDataSource(String poolName, ReplicaRoutingProperties.Node node,
+      DataSourceProperties primaryProperties, ReplicaRoutingProperties properties, int maximumPoolSize,
+      Duration socketTimeout) {
+    HikariDataSource dataSource = new HikariDataSource();
+    dataSource.setPoolName(poolName);
+    dataSource.setJdbcUrl(node.getUrl());
+    dataSource.setUsername(node.getUsername() != null ? node.getUsername() : primaryProperties.determineUsername());
+    dataSource.setPassword(node.getPassword() != null ? node.getPassword() : primaryProperties.determinePassword());
+    dataSource.setDriverClassName(primaryProperties.determineDriverClassName());
+    dataSource.setMaximumPoolSize(maximumPoolSize);
+    dataSource.setReadOnly(true);
+    dataSource.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+    dataSource.setValidationTimeout(properties.getValidationTimeout().toMillis());
+    // The driver's own timeouts are in whole seconds
+    dataSource.addDataSourceProperty("connectTimeout", seconds(properties.getConnectionTimeout()));
+    dataSource.addDataSourceProperty("socketTimeout", seconds(socketTimeout));
+    return dataSource;
+  }
+
+  private static long seconds(Duration duration) {
+    return Math.max(1, (duration.toMillis() + 999) / 1000);
+  }
+
+  @Bean
+  public ReadYourWritesTracker readYourWritesTracker(ReplicaRoutingProperties properties,
+      ObjectProvider<StringRedisTemplate> redisTemplate) {
+    return new ReadYourWritesTracker(redisTemplate.getIfAvailable(), properties.getReadYourWritesWindow());
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+      ReplicaPool replicaPool, ReadYourWritesTracker readYourWritesTracker, MeterRegistry meterRegistry) {
+    TransactionRoutingDataSource routingDataSource = new TransactionRoutingDataSource(
+        replicaPool, readYourWritesTracker, meterRegistry);
+
+    Map<Object, Object> dataSourceMap = new HashMap<>();
+    dataSourceMap.put(DataSourceType.PRIMARY, primaryDataSource);
+    dataSourceMap.put(DataSourceType.REPLICA, replicaPool);
+
+    routingDataSource.setTargetDataSources(dataSourceMap);
+    routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+    routingDataSource.afterPropertiesSet();
+
+    // Connections are only fetched at the first statement, by which time the
+    // transaction's read-only flag is known
+    return new LazyConnectionDataSourceProxy(routingDataSource);
+  }
+}
@@ -0,0 +1,70 @@
+package com.lms.common.config.database;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica routing. The primary is the regular {@code spring.datasource}.
+ * Example:
+ *
+ * <pre>
+ * lms.datasource.replica.enabled=true
+ * lms.datasource.replica.nodes[0].name=replica-a
+ * lms.datasource.replica.nodes[0].url=jdbc:postgresql://replica-a:5432/lms
+ * lms.datasource.replica.nodes[1].name=replica-b
+ * lms.datasource.replica.nodes[1].url=jdbc:postgresql://replica-b:5432/lms
+ * lms.datasource.replica.nodes[1].weight=2
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "lms.datasource.replica")
+public class ReplicaRoutingProperties {
+
+  private boolean enabled;
+
+  private ReplicaSelection selection = ReplicaSelection.LEAST_OUTSTANDING;
+
+  /** Replicas further behind than this are taken out of rotation. */
+  private Duration maxLag = Duration.ofSeconds(1);
+
+  private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+  /** A lag sample older than this counts as unknown. */
+  private Duration lagStaleAfter = Duration.ofSeconds(5);
+
+  /**
+   * How long borrowing a replica connection may wait before the replica is
+   * ejected and the read falls over to another node. Keep it short: it is
+   * added to every read while a replica is unreachable.
+   */
+  private Duration connectionTimeout = Duration.ofMillis(500);
+
+  private Duration validationTimeout = Duration.ofMillis(250);
+
+  /** Reads that get no reply from the replica for this long fail. */
+  private Duration socketTimeout = Duration.ofSeconds(30);
+
+  /** A user's reads go to the primary for this long after they write. */
+  private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+  private List<Node> nodes = new ArrayList<>();
+
+  @Getter
+  @Setter
+  public static class Node {
+    private String name;
+    private String url;
+    /** Defaults to the primary's. */
+    private String username;
+    /** Defaults to the primary's. */
+    private String password;
+    private int weight = 1;
+    private int maximumPoolSize = 10;
+  }
+}
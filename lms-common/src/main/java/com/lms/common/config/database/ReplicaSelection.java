@@ -0,0 +1,11 @@
+package com.lms.common.config.database;
+
+/**
+ * How {@link ReplicaPool} spreads connections over its healthy replicas.
+ */
+public enum ReplicaSelection {
+  /** The replica with the fewest connections currently checked out. */
+  LEAST_OUTSTANDING,
+  /** Smooth weighted round-robin over the configured weights. */
+  WEIGHTED_ROUND_ROBIN
+}
@@ -1,16 +1,105 @@
 package com.lms.common.config.database;
 
+import com.lms.common.security.UserContext;
+import com.lms.common.security.UserContextHolder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the
+ * primary. With a {@link ReplicaPool} and {@link ReadYourWritesTracker} a
+ * read-only transaction also goes to the primary when no replica is healthy,
+ * or when the current user committed a write within the tracker's window. An
+ * explicit {@link DataSourceContextHolder} setting overrides all of this.
+ */
 public class TransactionRoutingDataSource extends AbstractRoutingDataSource {
 
+  private enum Reason {
+    FORCED, WRITE, READ_YOUR_WRITES, REPLICA_UNHEALTHY, READ_ONLY
+  }
+
+  private final ReplicaPool replicas;
+  private final ReadYourWritesTracker writesTracker;
+  private final Map<Reason, Map<DataSourceType, Counter>> decisions;
+
+  public TransactionRoutingDataSource() {
+    this.replicas = null;
+    this.writesTracker = null;
+    this.decisions = null;
+  }
+
+  public TransactionRoutingDataSource(ReplicaPool replicas, ReadYourWritesTracker writesTracker,
+      MeterRegistry meterRegistry) {
+    this.replicas = replicas;
+    this.writesTracker = writesTracker;
+    this.decisions = new EnumMap<>(Reason.class);
+    for (Reason reason : Reason.values()) {
+      Map<DataSourceType, Counter> byTarget = new EnumMap<>(DataSourceType.class);
+      for (DataSourceType target : DataSourceType.values()) {
+        byTarget.put(target, Counter.builder("lms.datasource.routing")
+            .description("Connections routed, by target and the reason for it")
+            .tag("target", target.name().toLowerCase())
+            .tag("reason", reason.name().toLowerCase().replace('_', '-'))
+            .register(meterRegistry));
+      }
+      decisions.put(reason, byTarget);
+    }
+  }
+
   @Override
   protected Object determineCurrentLookupKey() {
-    if (TransactionSynchronizationManager.isActualTransactionActive() &&
-        TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
-      return DataSourceType.REPLICA;
+    DataSourceType forced = DataSourceContextHolder.getDataSourceType();
+    if (forced != null) {
+      return route(forced, Reason.FORCED);
+    }
+    if (!TransactionSynchronizationManager.isActualTransactionActive()
+        || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      rememberWriteAfterCommit();
+      return route(DataSourceType.PRIMARY, Reason.WRITE);
+    }
+    if (writesTracker != null) {
+      String userId = currentUserId();
+      if (userId != null && writesTracker.wroteRecently(userId)) {
+        return route(DataSourceType.PRIMARY, Reason.READ_YOUR_WRITES);
+      }
     }
-    return DataSourceType.PRIMARY;
+    if (replicas != null && !replicas.hasHealthyReplica()) {
+      return route(DataSourceType.PRIMARY, Reason.REPLICA_UNHEALTHY);
+    }
+    return route(DataSourceType.REPLICA, Reason.READ_ONLY);
+  }
+
+  private void rememberWriteAfterCommit() {
+    if (writesTracker == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    String userId = currentUserId();
+    if (userId == null) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        writesTracker.recordWrite(userId);
+      }
+    });
+  }
+
+  private DataSourceType route(DataSourceType target, Reason reason) {
+    if (decisions != null) {
+      decisions.get(reason).get(target).increment();
+    }
+    return target;
+  }
+
+  private static String currentUserId() {
+    UserContext context = UserContextHolder.getContext();
+    return context != null ? context.getUserId() : null;
   }
 }
@@ -0,0 +1,138 @@
+package com.lms.common.config.database;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplicaPoolTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final DataSource primary = dataSource("primary");
+
+  @Test
+  void weightedRoundRobinInterleavesReplicasByWeight() throws SQLException {
+    ReplicaPool pool = pool(ReplicaSelection.WEIGHTED_ROUND_ROBIN,
+        replica("a", 1, true), replica("b", 2, true));
+
+    List<String> served = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      try (Connection connection = pool.getConnection()) {
+        served.add(connection.getCatalog());
+      }
+    }
+
+    assertThat(served).containsExactly("b", "a", "b", "b", "a", "b");
+  }
+
+  @Test
+  void leastOutstandingAvoidsTheBusierReplica() throws SQLException {
+    ReplicaPool pool = pool(ReplicaSelection.LEAST_OUTSTANDING,
+        replica("a", 1, true), replica("b", 1, true));
+
+    Connection first = pool.getConnection();
+    List<String> served = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      try (Connection connection = pool.getConnection()) {
+        served.add(connection.getCatalog());
+      }
+    }
+
+    assertThat(served).doesNotContain(first.getCatalog());
+    first.close();
+  }
+
+  @Test
+  void unhealthyReplicasAreSkippedAndThePrimaryServesWhenNoneIsLeft() throws SQLException {
+    ReplicaPool.Replica lagging = replica("a", 1, false);
+    ReplicaPool pool = pool(ReplicaSelection.LEAST_OUTSTANDING, lagging, replica("b", 1, true));
+
+    assertThat(pool.getConnection().getCatalog()).isEqualTo("b");
+
+    ReplicaPool allLagging = pool(ReplicaSelection.LEAST_OUTSTANDING, replica("c", 1, false));
+    assertThat(allLagging.hasHealthyReplica()).isFalse();
+    assertThat(allLagging.getConnection().getCatalog()).isEqualTo("primary");
+    assertThat(meterRegistry.counter("lms.datasource.replica.fallback").count()).isEqualTo(1);
+  }
+
+  @Test
+  void aReplicaThatRefusesConnectionsIsEjectedAndTheReadFallsOver() throws SQLException {
+    ReplicaLagMonitor monitor = healthyMonitor();
+    DataSource unreachable = mock(DataSource.class);
+    when(unreachable.getConnection()).thenThrow(new SQLException("Connection is not available"));
+    ReplicaPool pool = pool(ReplicaSelection.WEIGHTED_ROUND_ROBIN,
+        new ReplicaPool.Replica("a", unreachable, 5, monitor), replica("b", 1, true));
+
+    assertThat(pool.getConnection().getCatalog()).isEqualTo("b");
+    verify(monitor).markDown();
+  }
+
+  @Test
+  void aHangingLagSampleDoesNotHoldUpTheOtherReplicas() throws Exception {
+    ReplicaLagMonitor hanging = healthyMonitor();
+    CountDownLatch release = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      release.await();
+      return null;
+    }).when(hanging).measure();
+    ReplicaLagMonitor responsive = healthyMonitor();
+    ReplicaPool pool = new ReplicaPool(
+        List.of(new ReplicaPool.Replica("a", dataSource("a"), 1, hanging),
+            new ReplicaPool.Replica("b", dataSource("b"), 1, responsive)),
+        primary, ReplicaSelection.LEAST_OUTSTANDING, Duration.ofSeconds(1), Duration.ofMillis(10), meterRegistry);
+
+    pool.afterPropertiesSet();
+    try {
+      verify(responsive, timeout(2000).atLeast(5)).measure();
+    } finally {
+      release.countDown();
+      pool.destroy();
+    }
+  }
+
+  private ReplicaPool pool(ReplicaSelection selection, ReplicaPool.Replica... replicas) {
+    return new ReplicaPool(List.of(replicas), primary, selection, Duration.ofSeconds(1), Duration.ofSeconds(1),
+        meterRegistry);
+  }
+
+  private ReplicaPool.Replica replica(String name, int weight, boolean healthy) {
+    ReplicaLagMonitor monitor = mock(ReplicaLagMonitor.class);
+    when(monitor.isWithin(any())).thenReturn(healthy);
+    return new ReplicaPool.Replica(name, dataSource(name), weight, monitor);
+  }
+
+  private static ReplicaLagMonitor healthyMonitor() {
+    ReplicaLagMonitor monitor = mock(ReplicaLagMonitor.class);
+    when(monitor.isWithin(any())).thenReturn(true);
+    return monitor;
+  }
+
+  // Connections report the name of the node they came from as their catalog
+  private DataSource dataSource(String name) {
+    DataSource dataSource = mock(DataSource.class);
+    try {
+      when(dataSource.getConnection()).thenAnswer(invocation -> {
+        Connection connection = mock(Connection.class);
+        when(connection.getCatalog()).thenReturn(name);
+        return connection;
+      });
+    } catch (SQLException e) {
+      throw new IllegalStateException(e);
+    }
+    return dataSource;
+  }
+}
@@ -0,0 +1,142 @@
+package com.lms.common.config.database;
+
+import com.lms.common.security.UserContext;
+import com.lms.common.security.UserContextHolder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransactionRoutingDataSourceTest {
+
+  private static final Duration WINDOW = Duration.ofSeconds(5);
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final ReplicaPool replicas = mock(ReplicaPool.class);
+  private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    when(replicas.hasHealthyReplica()).thenReturn(true);
+    when(redisTemplate.opsForValue()).thenReturn(mock(ValueOperations.class));
+    UserContextHolder.setContext(UserContext.builder().userId("user-1").build());
+  }
+
+  @AfterEach
+  void tearDown() {
+    DataSourceContextHolder.clear();
+    UserContextHolder.clearContext();
+    RequestContextHolder.resetRequestAttributes();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    TransactionSynchronizationManager.setActualTransactionActive(false);
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+  }
+
+  @Test
+  void anExplicitSettingWins() {
+    TransactionRoutingDataSource routing = routing(new ReadYourWritesTracker(null, WINDOW));
+    DataSourceContextHolder.setDataSourceType(DataSourceType.REPLICA);
+
+    assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceType.REPLICA);
+    assertThat(decisions("forced", "replica")).isEqualTo(1);
+  }
+
+  @Test
+  void writesGoToThePrimaryAndTheWritersNextReadsFollow() {
+    TransactionRoutingDataSource routing = routing(new ReadYourWritesTracker(null, WINDOW));
+
+    TransactionSynchronizationManager.initSynchronization();
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+    assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceType.PRIMARY);
+    commit();
+
+    readOnlyTransaction();
+    assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceType.PRIMARY);
+
+    UserContextHolder.setContext(UserContext.builder().userId("user-2").build());
+    assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceType.REPLICA);
+
+    assertThat(decisions("write", "primary")).isEqualTo(1);
+    assertThat(decisions("read-your-writes", "primary")).isEqualTo(1);
+    assertThat(decisions("read-only", "replica")).isEqualTo(1);
+  }
+
+  @Test
+  void readsFallBackToThePrimaryWithoutAHealthyReplica() {
+    TransactionRoutingDataSource routing = routing(new ReadYourWritesTracker(null, WINDOW));
+    when(replicas.hasHealthyReplica()).thenReturn(false);
+    readOnlyTransaction();
+
+    assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceType.PRIMARY);
+    assertThat(decisions("replica-unhealthy", "primary")).isEqualTo(1);
+  }
+
+  @Test
+  void aWriteHintsTheUsersNextRequestsToAskRedis() {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    RequestContextHolder.setRequestAttributes(
+        new ServletRequestAttributes(new MockHttpServletRequest(), response));
+    new ReadYourWritesTracker(redisTemplate, WINDOW).recordWrite("user-1");
+
+    Cookie hint = response.getCookie(ReadYourWritesTracker.HINT_COOKIE);
+    assertThat(hint).isNotNull();
+    assertThat(hint.getMaxAge()).isEqualTo(5);
+  }
+
+  @Test
+  void onlyHintedRequestsAskRedisAfterALocalMiss() {
+    // Another instance took the write, so this one has nothing locally
+    TransactionRoutingDataSource routing = routing(new ReadYourWritesTracker(redisTemplate, WINDOW));
+    when(redisTemplate.hasKey(anyString())).thenReturn(true);
+    readOnlyTransaction();
+
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceType.REPLICA);
+    verify(redisTemplate, never()).hasKey(anyString());
+
+    MockHttpServletRequest hinted = new MockHttpServletRequest();
+    hinted.setCookies(new Cookie(ReadYourWritesTracker.HINT_COOKIE, "1"));
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(hinted));
+    assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceType.PRIMARY);
+    verify(redisTemplate).hasKey("lms:db:recent-write:user-1");
+  }
+
+  private TransactionRoutingDataSource routing(ReadYourWritesTracker tracker) {
+    return new TransactionRoutingDataSource(replicas, tracker, meterRegistry);
+  }
+
+  private static void readOnlyTransaction() {
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+  }
+
+  private static void commit() {
+    TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    TransactionSynchronizationManager.clearSynchronization();
+  }
+
+  private double decisions(String reason, String target) {
+    return meterRegistry.get("lms.datasource.routing").tag("reason", reason).tag("target", target).counter().count();
+  }
+}
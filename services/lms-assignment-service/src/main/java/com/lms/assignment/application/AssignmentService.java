@@ -63,7 +63,8 @@ public class AssignmentService {
         saved.getId().toString(),
         Map.of(
             "courseId", saved.getCourseId(),
-            "title", saved.getTitle()),
+            "title", saved.getTitle(),
+            "isMandatory", saved.isMandatory()),
         null));
 
     auditLogger.logSuccess("ASSIGNMENT_CREATE", "ASSIGNMENT", saved.getId().toString(),
@@ -101,7 +102,8 @@ public class AssignmentService {
         saved.getId().toString(),
         Map.of(
             "courseId", saved.getCourseId(),
-            "title", saved.getTitle()),
+            "title", saved.getTitle(),
+            "isMandatory", saved.isMandatory()),
         null));
 
     auditLogger.logSuccess("ASSIGNMENT_UPDATE", "ASSIGNMENT", saved.getId().toString(),
@@ -2,6 +2,7 @@ package com.lms.assignment.infrastructure;
 
 import com.lms.assignment.domain.Assignment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.Collection;
 import java.util.UUID;
 import java.util.List;
 
@@ -14,5 +15,7 @@ public interface AssignmentRepository extends JpaRepository<Assignment, UUID> {
 
   List<Assignment> findByLessonId(UUID lessonId);
 
+  List<Assignment> findByModuleIdInOrLessonIdIn(Collection<UUID> moduleIds, Collection<UUID> lessonIds);
+
   List<Assignment> findByDueDateBetween(OffsetDateTime start, OffsetDateTime end);
 }
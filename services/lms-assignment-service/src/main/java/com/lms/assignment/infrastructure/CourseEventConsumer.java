@@ -34,6 +34,9 @@ public class CourseEventConsumer {
       case "LessonDeleted":
         handleLessonDeleted(event.payload());
         break;
+      case "CurriculumChanged":
+        handleCurriculumChanged(event.payload());
+        break;
       default:
         log.debug("Ignoring event type: {}", eventType);
     }
@@ -65,4 +68,30 @@ public class CourseEventConsumer {
       assignmentRepository.save(assignment);
     }
   }
+
+  private void handleCurriculumChanged(Map<String, Object> payload) {
+    List<UUID> moduleIds = uuids(payload.get("removedModuleIds"));
+    List<UUID> lessonIds = uuids(payload.get("removedLessonIds"));
+    if (moduleIds.isEmpty() && lessonIds.isEmpty()) {
+      return;
+    }
+    log.info("Cleaning up assignments for {} removed modules and {} removed lessons", moduleIds.size(),
+        lessonIds.size());
+    for (Assignment assignment : assignmentRepository.findByModuleIdInOrLessonIdIn(moduleIds, lessonIds)) {
+      if (moduleIds.contains(assignment.getModuleId())) {
+        assignment.setModuleId(null);
+      }
+      if (lessonIds.contains(assignment.getLessonId())) {
+        assignment.setLessonId(null);
+      }
+      assignmentRepository.save(assignment);
+    }
+  }
+
+  private static List<UUID> uuids(Object value) {
+    if (!(value instanceof List<?> list)) {
+      return List.of();
+    }
+    return list.stream().map(id -> UUID.fromString(id.toString())).toList();
+  }
 }
@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @Component
@@ -13,80 +14,44 @@ public class CourseServiceClient {
 
   private static final Logger log = LoggerFactory.getLogger(CourseServiceClient.class);
   private final RestClient restClient;
-  private final RestClient enrollmentClient;
 
-  public CourseServiceClient(
-      @Value("${lms.course-service.url}") String courseServiceUrl,
-      @Value("${lms.enrollment-service.url}") String enrollmentServiceUrl) {
+  public CourseServiceClient(@Value("${lms.course-service.url}") String courseServiceUrl) {
     this.restClient = RestClient.builder()
         .baseUrl(courseServiceUrl)
         .build();
-    this.enrollmentClient = RestClient.builder()
-        .baseUrl(enrollmentServiceUrl)
-        .build();
-  }
-
-  public boolean isUserInstructor(UUID courseId, UUID userId) {
-    try {
-      return Boolean.TRUE.equals(restClient.get()
-          .uri("/api/v1/courses/{courseId}/validate-instructor/{userId}", courseId, userId)
-          .retrieve()
-          .body(Boolean.class));
-    } catch (Exception e) {
-      log.error("Error validating instructor for course {}: {}", courseId, e.getMessage());
-      return false;
-    }
   }
 
-  public boolean isUserEnrolled(UUID courseId, UUID userId) {
+  /**
+   * A user's access to a course, and whether {@code lessonId} is a preview,
+   * in one call answered from the course service's caches.
+   *
+   * @return the verdict, or {@code null} if it could not be fetched
+   */
+  public CourseAccess getCourseAccess(UUID courseId, UUID userId, UUID lessonId) {
     try {
-      return Boolean.TRUE.equals(enrollmentClient.get()
+      return restClient.get()
           .uri(uriBuilder -> uriBuilder
-              .path("/api/v1/enrollments/validate")
+              .path("/api/v1/internal/courses/{courseId}/access")
               .queryParam("userId", userId)
-              .queryParam("courseId", courseId)
-              .build())
+              .queryParamIfPresent("lessonId", Optional.ofNullable(lessonId))
+              .build(courseId))
           .retrieve()
-          .body(Boolean.class));
+          .body(CourseAccess.class);
     } catch (Exception e) {
-      log.error("Error validating enrollment for course {} and user {}: {}", courseId, userId, e.getMessage());
-      return false;
+      log.error("Error fetching access to course {} for user {}: {}", courseId, userId, e.getMessage());
+      return null;
     }
   }
 
-  public boolean isLessonPreview(UUID courseId, UUID lessonId) {
-    try {
-      return Boolean.TRUE.equals(restClient.get()
-          .uri("/api/v1/courses/{courseId}/lessons/{lessonId}/validate-preview", courseId, lessonId)
-          .retrieve()
-          .body(Boolean.class));
-    } catch (Exception e) {
-      log.error("Error validating preview for course {} and lesson {}: {}", courseId, lessonId, e.getMessage());
-      return false;
-    }
-  }
-
-  public boolean isCourseFree(UUID courseId) {
-    try {
-      return Boolean.TRUE.equals(restClient.get()
-          .uri("/api/v1/courses/{courseId}/is-free", courseId)
-          .retrieve()
-          .body(Boolean.class));
-    } catch (Exception e) {
-      log.error("Error checking if course {} is free: {}", courseId, e.getMessage());
-      return false;
-    }
-  }
-
-  public boolean isCoursePublished(UUID courseId) {
-    try {
-      return Boolean.TRUE.equals(restClient.get()
-          .uri("/api/v1/courses/{courseId}/is-published", courseId)
-          .retrieve()
-          .body(Boolean.class));
-    } catch (Exception e) {
-      log.error("Error checking if course {} is published: {}", courseId, e.getMessage());
-      return false;
-    }
+  /**
+   * @param access one of ADMIN, INSTRUCTOR, FREE, ENROLLED or NONE
+   */
+  public record CourseAccess(
+      UUID courseId,
+      UUID userId,
+      String access,
+      boolean fullAccess,
+      boolean published,
+      Boolean lessonPreview) {
   }
 }
@@ -46,10 +46,7 @@ public class ContentApplicationService {
   public ContentItem createContent(UUID courseId, UUID lessonId, ContentType type, String title, UUID userId,
       Set<String> roles) {
     log.info("Creating content: {} for course: {} by user: {}", title, courseId, userId);
-    if (!roles.contains("ADMIN")
-        && !(roles.contains("INSTRUCTOR") && courseServiceClient.isUserInstructor(courseId, userId))) {
-      throw new ForbiddenException("Not authorized to create content for this course");
-    }
+    requireAuthor(courseId, userId, roles, "Not authorized to create content for this course");
 
     ContentItem contentItem = new ContentItem(UUID.randomUUID(), courseId, lessonId, type, title, ContentStatus.DRAFT);
     ContentItem saved = contentItemRepository.save(contentItem);
@@ -67,10 +64,7 @@ public class ContentApplicationService {
     log.info("Adding version: {} to content item: {}", version, contentItemId);
     ContentItem contentItem = getById(contentItemId);
 
-    if (!roles.contains("ADMIN")
-        && !(roles.contains("INSTRUCTOR") && courseServiceClient.isUserInstructor(contentItem.getCourseId(), userId))) {
-      throw new ForbiddenException("Not authorized to add content versions for this course");
-    }
+    requireAuthor(contentItem.getCourseId(), userId, roles, "Not authorized to add content versions for this course");
 
     ContentVersion contentVersion = new ContentVersion(UUID.randomUUID(), contentItem, version, storagePath, checksum);
     return contentVersionRepository.save(contentVersion);
@@ -82,10 +76,7 @@ public class ContentApplicationService {
     log.info("Requesting upload URL for content: {} (Type: {})", contentId, contentType);
     ContentItem contentItem = getById(contentId);
 
-    if (!roles.contains("ADMIN")
-        && !(roles.contains("INSTRUCTOR") && courseServiceClient.isUserInstructor(contentItem.getCourseId(), userId))) {
-      throw new ForbiddenException("Not authorized to upload content for this course");
-    }
+    requireAuthor(contentItem.getCourseId(), userId, roles, "Not authorized to upload content for this course");
 
     // Basic content type validation
     if (contentType == null || (!contentType.startsWith("video/") && !contentType.equals("application/pdf"))) {
@@ -118,10 +109,7 @@ public class ContentApplicationService {
     log.info("Completing upload for content: {} with storage path: {}", contentId, storagePath);
     ContentItem contentItem = getById(contentId);
 
-    if (!roles.contains("ADMIN")
-        && !(roles.contains("INSTRUCTOR") && courseServiceClient.isUserInstructor(contentItem.getCourseId(), userId))) {
-      throw new ForbiddenException("Not authorized to complete upload for this course");
-    }
+    requireAuthor(contentItem.getCourseId(), userId, roles, "Not authorized to complete upload for this course");
 
     contentItem.setStatus(ContentStatus.PROCESSING);
 
@@ -142,10 +130,7 @@ public class ContentApplicationService {
       Integer order, UUID userId, Set<String> roles) {
     ContentItem contentItem = getById(contentItemId);
 
-    if (!roles.contains("ADMIN")
-        && !(roles.contains("INSTRUCTOR") && courseServiceClient.isUserInstructor(contentItem.getCourseId(), userId))) {
-      throw new ForbiddenException("Not authorized to add quiz questions for this course");
-    }
+    requireAuthor(contentItem.getCourseId(), userId, roles, "Not authorized to add quiz questions for this course");
 
     QuizQuestion question = new QuizQuestion(UUID.randomUUID(), contentItem, text, options, correctId, order);
     return quizQuestionRepository.save(question);
@@ -163,10 +148,7 @@ public class ContentApplicationService {
   public void addQuizQuestions(UUID contentItemId, List<QuizQuestion> questions, UUID userId, Set<String> roles) {
     ContentItem contentItem = getById(contentItemId);
 
-    if (!roles.contains("ADMIN")
-        && !(roles.contains("INSTRUCTOR") && courseServiceClient.isUserInstructor(contentItem.getCourseId(), userId))) {
-      throw new ForbiddenException("Not authorized to manage quiz questions for this course");
-    }
+    requireAuthor(contentItem.getCourseId(), userId, roles, "Not authorized to manage quiz questions for this course");
 
     if (contentItem.getType() != ContentType.QUIZ) {
       throw new IllegalArgumentException("Content item is not a quiz");
@@ -184,6 +166,22 @@ public class ContentApplicationService {
     auditLogger.logSuccess("QUIZ_UPDATE", "CONTENT", contentItemId.toString());
   }
 
+  /**
+   * Lets admins and the course's instructors through. The instructor check
+   * uses the same cached access verdict as playback.
+   */
+  private void requireAuthor(UUID courseId, UUID userId, Set<String> roles, String message) {
+    if (roles.contains("ADMIN")) {
+      return;
+    }
+    CourseServiceClient.CourseAccess access = roles.contains("INSTRUCTOR")
+        ? courseServiceClient.getCourseAccess(courseId, userId, null)
+        : null;
+    if (access == null || !("INSTRUCTOR".equals(access.access()) || "ADMIN".equals(access.access()))) {
+      throw new ForbiddenException(message);
+    }
+  }
+
   public ContentItem getById(UUID id) {
     return contentItemRepository.findById(id)
         .orElseThrow(() -> new ResourceNotFoundException("Content not found: " + id));
@@ -193,13 +191,15 @@ public class ContentApplicationService {
   public PlaybackTokenResponse getPlaybackToken(UUID contentItemId, UUID userId, Set<String> roles) {
     ContentItem contentItem = getById(contentItemId);
 
+    // One cached verdict covers instructor, free, enrollment, preview and publication checks
+    CourseServiceClient.CourseAccess access = courseServiceClient.getCourseAccess(
+        contentItem.getCourseId(), userId, contentItem.getLessonId());
     boolean isInstructorOrAdmin = roles.contains("ADMIN")
-        || (roles.contains("INSTRUCTOR") && courseServiceClient.isUserInstructor(contentItem.getCourseId(), userId));
-    boolean isEnrolled = courseServiceClient.isUserEnrolled(contentItem.getCourseId(), userId);
-    boolean isPreview = courseServiceClient.isLessonPreview(contentItem.getCourseId(), contentItem.getLessonId());
-    boolean isFree = courseServiceClient.isCourseFree(contentItem.getCourseId());
+        || (access != null && "INSTRUCTOR".equals(access.access()));
+    boolean isPreview = access != null && Boolean.TRUE.equals(access.lessonPreview());
+    boolean isEnrolled = access != null && "ENROLLED".equals(access.access());
 
-    boolean isAuthorized = isInstructorOrAdmin || isEnrolled || isPreview || isFree;
+    boolean isAuthorized = isInstructorOrAdmin || (access != null && access.fullAccess()) || isPreview;
 
     if (!isAuthorized) {
       auditLogger.log(
@@ -212,7 +212,7 @@ public class ContentApplicationService {
       throw new ForbiddenException("Not authorized to access this content. Enrollment or purchase required.");
     }
 
-    if (!isInstructorOrAdmin && !courseServiceClient.isCoursePublished(contentItem.getCourseId())) {
+    if (!isInstructorOrAdmin && !access.published()) {
       auditLogger.log(
           "PLAYBACK_TOKEN_DENIED",
           "CONTENT",
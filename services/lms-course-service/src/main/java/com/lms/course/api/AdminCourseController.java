@@ -2,12 +2,16 @@ package com.lms.course.api;
 
 import com.lms.common.security.RBACEnforcer;
 import com.lms.course.application.CourseApplicationService;
+import com.lms.course.application.CourseCatalogExporter;
 import com.lms.course.domain.CourseStatus;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.UUID;
 
 @RestController
@@ -17,6 +21,7 @@ import java.util.UUID;
 public class AdminCourseController {
 
   private final CourseApplicationService courseService;
+  private final CourseCatalogExporter catalogExporter;
   private final RBACEnforcer rbacEnforcer;
 
   @PatchMapping("/{courseId}/status")
@@ -29,4 +34,26 @@ public class AdminCourseController {
 
     return courseService.updateCourseStatus(courseId, status);
   }
+
+  /**
+   * Streams the catalog with curricula as it is read, so it is safe to call
+   * on a catalog of any size. Runs on the request thread to avoid async
+   * request timeouts on long exports.
+   */
+  @GetMapping("/export")
+  @Operation(summary = "Export every course with its modules and lessons as NDJSON or CSV")
+  public void exportCatalog(
+      @RequestParam(defaultValue = "ndjson") String format,
+      @RequestParam(required = false) CourseStatus status,
+      HttpServletResponse response) throws IOException {
+
+    rbacEnforcer.checkRole("ADMIN");
+    CourseCatalogExporter.Format exportFormat = CourseCatalogExporter.Format.parse(format);
+
+    response.setContentType(exportFormat.contentType());
+    response.setCharacterEncoding("UTF-8");
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+        "attachment; filename=\"courses." + exportFormat.extension() + "\"");
+    catalogExporter.export(response.getOutputStream(), exportFormat, status);
+  }
 }
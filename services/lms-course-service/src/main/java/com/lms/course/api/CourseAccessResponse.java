@@ -0,0 +1,18 @@
+package com.lms.course.api;
+
+import java.util.UUID;
+
+/**
+ * @param access        why the user has (or lacks) full access, one of
+ *                      {@code CourseAccess}
+ * @param lessonPreview whether the requested lesson is a preview; {@code null}
+ *                      if no lesson was asked about
+ */
+public record CourseAccessResponse(
+    UUID courseId,
+    UUID userId,
+    String access,
+    boolean fullAccess,
+    boolean published,
+    Boolean lessonPreview) {
+}
@@ -1,6 +1,7 @@
 package com.lms.course.api;
 
 import com.lms.course.application.CourseApplicationService;
+import com.lms.course.application.CourseDuplicationService;
 import com.lms.course.domain.CourseStatus;
 import com.lms.common.api.SparseFieldFilter;
 import io.swagger.v3.oas.annotations.Operation;
@@ -15,8 +16,8 @@ import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.context.request.WebRequest;
 
+import java.net.URI;
 import java.time.Duration;
-import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -34,13 +35,17 @@ public class CourseController {
   private static final String HEADER_ROLES = "X-Roles";
 
   private final CourseApplicationService courseService;
+  private final CourseDuplicationService duplicationService;
 
-  public CourseController(CourseApplicationService courseService) {
+  public CourseController(CourseApplicationService courseService, CourseDuplicationService duplicationService) {
     this.courseService = courseService;
+    this.duplicationService = duplicationService;
   }
 
   @GetMapping
-  @Operation(summary = "List courses", description = "Retrieves a paginated list of courses")
+  @Operation(summary = "List courses", description = "Retrieves a paginated list of courses. Pass the returned "
+      + "nextCursor as cursor for keyset pagination; includeTotal=false skips the (cached, approximate) total. "
+      + "Results for a search are ranked by relevance unless a sort is given.")
   public ResponseEntity<?> listCourses(
       @RequestParam(required = false) String status,
       @RequestParam(required = false) String category,
@@ -55,6 +60,7 @@ public class CourseController {
       @RequestParam(required = false) Integer limit,
       @RequestParam(required = false) Integer size,
       @RequestParam(required = false, defaultValue = "1") Integer page,
+      @RequestParam(required = false, defaultValue = "true") boolean includeTotal,
       @RequestParam(required = false) String fields,
       @RequestHeader(value = HEADER_USER_ID, required = false) String currentUserId,
       @RequestHeader(value = HEADER_ROLES, required = false) String currentRolesHeader) {
@@ -74,7 +80,7 @@ public class CourseController {
     Integer effectiveLimit = limit != null ? limit : size;
     CourseListResponse response = courseService.listCourses(
         courseStatus, category, level, search, isFeatured, isTrending, tags,
-        sort, order, cursor, effectiveLimit, page, userId, roles);
+        sort, order, cursor, effectiveLimit, page, includeTotal, userId, roles);
 
     MappingJacksonValue filteredResponse = SparseFieldFilter.filter(response, fields);
 
@@ -112,7 +118,34 @@ public class CourseController {
       @RequestHeader(HEADER_ROLES) String currentRolesHeader) {
     UUID userId = UUID.fromString(currentUserId);
     Set<String> roles = parseRoles(currentRolesHeader);
-    return ResponseEntity.ok(courseService.duplicateCourse(courseId, userId, roles));
+    return ResponseEntity.ok(duplicationService.duplicateCourse(courseId, userId, roles));
+  }
+
+  @PostMapping("/{courseId}/duplicate-jobs")
+  @Operation(summary = "Duplicate a large course in the background",
+      description = "Creates the copy immediately and copies its curriculum asynchronously. "
+          + "Poll the returned job for progress.")
+  public ResponseEntity<DuplicateCourseJobResponse> startDuplicateJob(
+      @PathVariable UUID courseId,
+      @RequestHeader(HEADER_USER_ID) String currentUserId,
+      @RequestHeader(HEADER_ROLES) String currentRolesHeader) {
+    UUID userId = UUID.fromString(currentUserId);
+    Set<String> roles = parseRoles(currentRolesHeader);
+    DuplicateCourseJobResponse job = duplicationService.startDuplicateJob(courseId, userId, roles);
+    return ResponseEntity.accepted()
+        .location(URI.create("/api/v1/courses/duplicate-jobs/" + job.jobId()))
+        .body(job);
+  }
+
+  @GetMapping("/duplicate-jobs/{jobId}")
+  @Operation(summary = "Get the progress of a background course duplication")
+  public ResponseEntity<DuplicateCourseJobResponse> getDuplicateJob(
+      @PathVariable UUID jobId,
+      @RequestHeader(HEADER_USER_ID) String currentUserId,
+      @RequestHeader(HEADER_ROLES) String currentRolesHeader) {
+    UUID userId = UUID.fromString(currentUserId);
+    Set<String> roles = parseRoles(currentRolesHeader);
+    return ResponseEntity.ok(duplicationService.getJob(jobId, userId, roles));
   }
 
   @GetMapping("/{courseId}/validate-instructor/{userId}")
@@ -123,26 +156,6 @@ public class CourseController {
     return ResponseEntity.ok(isInstructor);
   }
 
-  @GetMapping("/{courseId}/lessons/{lessonId}/validate-preview")
-  public ResponseEntity<Boolean> validatePreview(
-      @PathVariable UUID courseId,
-      @PathVariable UUID lessonId) {
-    boolean isPreview = courseService.isLessonPreview(courseId, lessonId);
-    return ResponseEntity.ok(isPreview);
-  }
-
-  @GetMapping("/{courseId}/is-free")
-  public ResponseEntity<Boolean> isFree(@PathVariable UUID courseId) {
-    boolean isFree = courseService.isFree(courseId);
-    return ResponseEntity.ok(isFree);
-  }
-
-  @GetMapping("/{courseId}/is-published")
-  public ResponseEntity<Boolean> isPublished(@PathVariable UUID courseId) {
-    boolean isPublished = courseService.getCourseStatus(courseId) == CourseStatus.PUBLISHED;
-    return ResponseEntity.ok(isPublished);
-  }
-
   @GetMapping("/{courseId}")
   public ResponseEntity<CourseDetailResponse> getCourse(
       @PathVariable UUID courseId,
@@ -153,23 +166,34 @@ public class CourseController {
     UUID userId = (currentUserId != null && !currentUserId.isBlank()) ? UUID.fromString(currentUserId) : null;
     Set<String> roles = parseRoles(currentRolesHeader);
 
-    // Day 17: Conditional GET optimization
-    Instant lastUpdate = courseService.getUpdatedAt(courseId);
-    if (lastUpdate != null) {
-      String etag = String.format("\"%s-%d\"", courseId, lastUpdate.toEpochMilli());
+    // Day 17: Conditional GET optimization. The content version lives in Redis,
+    // so a 304 is answered without touching the database. Anonymous viewers all
+    // get the same body; signed-in viewers' lesson access depends on who they
+    // are, so theirs is built first and its access folded into the ETag.
+    Long contentVersion = courseService.getContentVersion(courseId);
+    String etag = contentVersion != null ? String.format("\"%s-v%d\"", courseId, contentVersion) : null;
+    boolean anonymous = userId == null && roles.isEmpty();
+    if (anonymous && etag != null && webRequest.checkNotModified(etag)) {
+      return null;
+    }
+
+    CourseDetailResponse response = courseService.getCourseById(courseId, contentVersion, userId, roles);
+
+    if (!anonymous) {
+      etag = String.format("\"%s-v%d-%s\"", courseId, contentVersion, hasFullAccess(response) ? "full" : "preview");
       if (webRequest.checkNotModified(etag)) {
         return null;
       }
     }
 
-    CourseDetailResponse response = courseService.getCourseById(courseId, userId, roles);
-
-    CacheControl cacheControl = CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic();
-    String etag = String.format("\"%s-%d\"", courseId, response.updatedAt().toEpochMilli());
+    CacheControl cacheControl = anonymous
+        ? CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic()
+        : CacheControl.noCache().cachePrivate();
 
     return ResponseEntity.ok()
         .cacheControl(cacheControl)
         .eTag(etag)
+        .varyBy(HEADER_USER_ID, HEADER_ROLES)
         .header("Deprecation", "true")
         .header("Sunset", "2025-12-31")
         .body(response);
@@ -463,4 +487,10 @@ public class CourseController {
         .map(String::toUpperCase)
         .collect(Collectors.toSet());
   }
+
+  private static boolean hasFullAccess(CourseDetailResponse course) {
+    return course.modules().stream()
+        .flatMap(m -> m.lessons().stream())
+        .allMatch(l -> Boolean.TRUE.equals(l.canWatch()));
+  }
 }
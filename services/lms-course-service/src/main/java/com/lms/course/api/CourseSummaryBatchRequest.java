@@ -0,0 +1,9 @@
+package com.lms.course.api;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+
+public record CourseSummaryBatchRequest(@NotNull List<UUID> ids) {
+}
@@ -0,0 +1,17 @@
+package com.lms.course.api;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record CourseSummaryResponse(
+    UUID id,
+    String title,
+    String thumbnailUrl,
+    String status,
+    Boolean isFree,
+    BigDecimal price,
+    String currency,
+    long lessonCount,
+    BigDecimal completionThreshold,
+    Boolean requireAllAssignments) {
+}
@@ -0,0 +1,15 @@
+package com.lms.course.api;
+
+import java.util.UUID;
+
+public record DuplicateCourseJobResponse(
+    UUID jobId,
+    String status,
+    UUID sourceCourseId,
+    UUID courseId,
+    int totalModules,
+    int copiedModules,
+    int totalLessons,
+    int copiedLessons,
+    String error) {
+}
@@ -0,0 +1,35 @@
+package com.lms.course.api;
+
+import com.lms.course.application.CourseApplicationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/internal/courses")
+@RequiredArgsConstructor
+@Tag(name = "Internal Courses", description = "Service-to-service course lookups")
+public class InternalCourseController {
+
+  private final CourseApplicationService courseService;
+
+  @PostMapping("/summaries")
+  @Operation(summary = "Get slim summaries for a batch of courses")
+  public List<CourseSummaryResponse> getSummaries(@Valid @RequestBody CourseSummaryBatchRequest request) {
+    return courseService.getCourseSummaries(request.ids());
+  }
+
+  @GetMapping("/{courseId}/access")
+  @Operation(summary = "Decide a user's access to a course and, optionally, one of its lessons")
+  public CourseAccessResponse getAccess(
+      @PathVariable UUID courseId,
+      @RequestParam UUID userId,
+      @RequestParam(required = false) UUID lessonId) {
+    return courseService.getCourseAccess(courseId, userId, lessonId);
+  }
+}
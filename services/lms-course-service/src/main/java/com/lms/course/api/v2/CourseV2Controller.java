@@ -27,7 +27,8 @@ public class CourseV2Controller {
   }
 
   @GetMapping
-  @Operation(summary = "List courses V2", description = "Retrieves a paginated list of courses with consistent metadata and extra fields")
+  @Operation(summary = "List courses V2", description = "Retrieves a paginated list of courses with consistent metadata and extra fields. "
+      + "Pass metadata.nextCursor as cursor for keyset pagination; includeTotal=false skips the (cached, approximate) total.")
   public ResponseEntity<CourseListResponseV2> listCourses(
       @RequestParam(required = false) String status,
       @RequestParam(required = false) String category,
@@ -41,6 +42,7 @@ public class CourseV2Controller {
       @RequestParam(required = false) String cursor,
       @RequestParam(required = false) Integer limit,
       @RequestParam(required = false, defaultValue = "1") Integer page,
+      @RequestParam(required = false, defaultValue = "true") boolean includeTotal,
       @RequestHeader(value = "X-User-Id", required = false) String currentUserId,
       @RequestHeader(value = "X-Roles", required = false) String currentRolesHeader) {
 
@@ -69,6 +71,7 @@ public class CourseV2Controller {
         cursor,
         limit,
         page,
+        includeTotal,
         userId,
         roles);
 
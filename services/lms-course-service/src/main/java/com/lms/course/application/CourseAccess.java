@@ -0,0 +1,17 @@
+package com.lms.course.application;
+
+/**
+ * Why a user may or may not watch a course's lessons, in the order the
+ * checks are made: each grant is decided from cheaper data than the next.
+ */
+public enum CourseAccess {
+  ADMIN,
+  INSTRUCTOR,
+  FREE,
+  ENROLLED,
+  NONE;
+
+  public boolean isFull() {
+    return this != NONE;
+  }
+}
@@ -0,0 +1,145 @@
+package com.lms.course.application;
+
+import com.lms.course.api.CourseDetailResponse;
+import com.lms.course.infrastructure.EnrollmentServiceClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Decides a user's {@link CourseAccess} to a course. Role, instructor and
+ * free checks read the cached course detail, which the content version keeps
+ * current. Enrollment is the only remote check. Its answers, positive and
+ * negative, are cached per user in one Redis hash with a field per course,
+ * refreshed by enrollment events and dropped in one go when the user is
+ * deleted.
+ */
+@Component
+public class CourseAccessService {
+
+  private static final Logger log = LoggerFactory.getLogger(CourseAccessService.class);
+  private static final String KEY_PREFIX = "lms:course:access:";
+
+  private final EnrollmentServiceClient enrollmentServiceClient;
+  private final StringRedisTemplate redisTemplate;
+  private final Duration enrolledTtl;
+  private final Duration notEnrolledTtl;
+  private final Counter cacheHits;
+  private final Counter remoteLookups;
+
+  public CourseAccessService(EnrollmentServiceClient enrollmentServiceClient,
+      StringRedisTemplate redisTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${lms.course.access.enrolled-ttl:PT10M}") Duration enrolledTtl,
+      @Value("${lms.course.access.not-enrolled-ttl:PT1M}") Duration notEnrolledTtl) {
+    this.enrollmentServiceClient = enrollmentServiceClient;
+    this.redisTemplate = redisTemplate;
+    this.enrolledTtl = enrolledTtl;
+    this.notEnrolledTtl = notEnrolledTtl;
+    this.cacheHits = Counter.builder("lms.course.access.enrollment.lookups")
+        .tag("source", "cache").register(meterRegistry);
+    this.remoteLookups = Counter.builder("lms.course.access.enrollment.lookups")
+        .tag("source", "enrollment-service").register(meterRegistry);
+  }
+
+  public CourseAccess decide(CourseDetailResponse course, UUID userId, Set<String> roles) {
+    return decide(course, userId, roles, () -> isEnrolled(userId, course.id()));
+  }
+
+  /**
+   * @param enrolled asked only if no cheaper grant applies, so a caller can
+   *                 start the lookup early and abandon it
+   */
+  public CourseAccess decide(CourseDetailResponse course, UUID userId, Set<String> roles,
+      BooleanSupplier enrolled) {
+    if (roles.contains("ADMIN")) {
+      return CourseAccess.ADMIN;
+    }
+    if (userId != null && course.instructorIds().contains(userId)) {
+      return CourseAccess.INSTRUCTOR;
+    }
+    if (Boolean.TRUE.equals(course.isFree())) {
+      return CourseAccess.FREE;
+    }
+    if (userId != null && enrolled.getAsBoolean()) {
+      return CourseAccess.ENROLLED;
+    }
+    return CourseAccess.NONE;
+  }
+
+  public boolean isEnrolled(UUID userId, UUID courseId) {
+    HashOperations<String, String, String> hash = redisTemplate.opsForHash();
+    String key = key(userId);
+    try {
+      String cached = hash.get(key, courseId.toString());
+      if (cached != null) {
+        int separator = cached.indexOf(':');
+        if (Long.parseLong(cached.substring(separator + 1)) > System.currentTimeMillis()) {
+          cacheHits.increment();
+          return cached.charAt(0) == '1';
+        }
+      }
+    } catch (RuntimeException e) {
+      log.warn("Access cache lookup failed for user {} on course {}", userId, courseId, e);
+    }
+
+    remoteLookups.increment();
+    Boolean enrolled = enrollmentServiceClient.isUserEnrolled(userId, courseId);
+    if (enrolled == null) {
+      // The enrollment service could not answer; deny without caching it
+      return false;
+    }
+    remember(userId, courseId, enrolled);
+    return enrolled;
+  }
+
+  /**
+   * Records an enrollment change reported by the enrollment service.
+   */
+  public void enrollmentChanged(UUID userId, UUID courseId, boolean enrolled) {
+    if (enrolled) {
+      remember(userId, courseId, true);
+    } else {
+      try {
+        redisTemplate.opsForHash().delete(key(userId), courseId.toString());
+      } catch (RuntimeException e) {
+        log.warn("Could not drop cached access for user {} on course {}", userId, courseId, e);
+      }
+    }
+  }
+
+  public void forgetUser(UUID userId) {
+    try {
+      redisTemplate.delete(key(userId));
+    } catch (RuntimeException e) {
+      log.warn("Could not drop cached access for user {}", userId, e);
+    }
+  }
+
+  private void remember(UUID userId, UUID courseId, boolean enrolled) {
+    Duration ttl = enrolled ? enrolledTtl : notEnrolledTtl;
+    String key = key(userId);
+    try {
+      // Fields carry their own expiry; the key outlives the longest of them
+      redisTemplate.opsForHash().put(key, courseId.toString(),
+          (enrolled ? "1:" : "0:") + (System.currentTimeMillis() + ttl.toMillis()));
+      redisTemplate.expire(key, enrolledTtl);
+    } catch (RuntimeException e) {
+      log.warn("Could not cache access for user {} on course {}", userId, courseId, e);
+    }
+  }
+
+  private static String key(UUID userId) {
+    return KEY_PREFIX + userId;
+  }
+}
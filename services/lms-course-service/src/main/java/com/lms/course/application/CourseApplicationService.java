@@ -3,28 +3,34 @@ package com.lms.course.application;
 import com.lms.course.api.*;
 import com.lms.course.domain.*;
 import com.lms.course.infrastructure.CourseEventPublisher;
+import com.lms.course.infrastructure.CourseSearchFunctions;
 import com.lms.common.exception.BadRequestException;
 import com.lms.common.exception.ForbiddenException;
 import com.lms.common.exception.ResourceNotFoundException;
 import com.lms.common.audit.AuditLogger;
 import com.lms.common.features.FeatureFlagService;
-import com.lms.course.infrastructure.EnrollmentServiceClient;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -38,6 +44,8 @@ public class CourseApplicationService {
   private static final Logger log = LoggerFactory.getLogger(CourseApplicationService.class);
   private static final int DEFAULT_PAGE_SIZE = 20;
   private static final int MAX_PAGE_SIZE = 100;
+  /** Sort key for search results ordered by full-text rank; the default when searching. */
+  private static final String RELEVANCE_SORT = "relevance";
 
   private final CourseRepository courseRepository;
   private final CourseModuleRepository moduleRepository;
@@ -47,11 +55,20 @@ public class CourseApplicationService {
   private final CourseEventPublisher courseEventPublisher;
   private final AuditLogger auditLogger;
   private final FeatureFlagService featureFlagService;
-  private final EnrollmentServiceClient enrollmentServiceClient;
+  private final CourseAccessService courseAccessService;
+  private final CourseCatalogSnapshot catalogSnapshot;
+  private final CourseContentVersions contentVersions;
+  private final CurriculumSyncEngine curriculumSyncEngine;
+  private final CourseCounter courseCounter;
+  private final CourseSlugAllocator slugAllocator;
+  private final CourseDetailAssembler detailAssembler;
 
   @Value("${lms.course.max-total:100}")
   private int maxTotalCourses;
 
+  @Value("${lms.course.batch.max-ids:100}")
+  private int maxBatchIds;
+
   public CourseApplicationService(CourseRepository courseRepository,
       CourseModuleRepository moduleRepository,
       LessonRepository lessonRepository,
@@ -60,7 +77,13 @@ public class CourseApplicationService {
       CourseEventPublisher courseEventPublisher,
       AuditLogger auditLogger,
       FeatureFlagService featureFlagService,
-      EnrollmentServiceClient enrollmentServiceClient) {
+      CourseAccessService courseAccessService,
+      CourseCatalogSnapshot catalogSnapshot,
+      CourseContentVersions contentVersions,
+      CurriculumSyncEngine curriculumSyncEngine,
+      CourseCounter courseCounter,
+      CourseSlugAllocator slugAllocator,
+      CourseDetailAssembler detailAssembler) {
     this.courseRepository = courseRepository;
     this.moduleRepository = moduleRepository;
     this.lessonRepository = lessonRepository;
@@ -69,88 +92,54 @@ public class CourseApplicationService {
     this.courseEventPublisher = courseEventPublisher;
     this.auditLogger = auditLogger;
     this.featureFlagService = featureFlagService;
-    this.enrollmentServiceClient = enrollmentServiceClient;
+    this.courseAccessService = courseAccessService;
+    this.catalogSnapshot = catalogSnapshot;
+    this.contentVersions = contentVersions;
+    this.curriculumSyncEngine = curriculumSyncEngine;
+    this.courseCounter = courseCounter;
+    this.slugAllocator = slugAllocator;
+    this.detailAssembler = detailAssembler;
   }
 
   public void cleanupUserData(UUID userId) {
     log.info("Cleaning up course data for user: {}", userId);
+    List<UUID> courseIds = instructorRepository.findCourseIdsByUserId(userId);
     instructorRepository.deleteByUserId(userId);
+    contentVersions.bump(courseIds);
+    courseAccessService.forgetUser(userId);
     // If we had reviews or ratings, we'd delete them here too
     auditLogger.logSuccess("USER_DATA_CLEANUP", "USER", userId.toString());
   }
 
+  /**
+   * Moderates many courses with one read and one set-based UPDATE, whatever
+   * the batch size. The loaded rows only supply the audit trail and event
+   * payloads.
+   */
   @Transactional
   public void bulkUpdateStatus(List<UUID> courseIds, CourseStatus status, UUID adminId) {
     List<Course> courses = courseRepository.findAllById(courseIds);
+    if (courses.isEmpty()) {
+      return;
+    }
+    Map<UUID, CourseStatus> oldStatuses = courses.stream()
+        .collect(Collectors.toMap(Course::getId, Course::getStatus));
+
+    Instant now = Instant.now();
+    courseRepository.updateStatusByIdIn(oldStatuses.keySet(), status, now);
+    // The UPDATE bypassed (and cleared) the persistence context, so these copies are detached
     for (Course course : courses) {
-      CourseStatus oldStatus = course.getStatus();
       course.setStatus(status);
-      courseRepository.save(course);
-
-      courseEventPublisher.publishCourseUpdated(course);
-      auditLogger.logSuccess("COURSE_MODERATION", "COURSE", course.getId().toString(),
-          Map.of("oldStatus", oldStatus, "newStatus", status, "adminId", adminId));
+      course.setUpdatedAt(now);
     }
-  }
 
-  @Transactional
-  public CourseResponse duplicateCourse(UUID courseId, UUID userId, Set<String> roles) {
-    Course original = courseRepository.findById(courseId)
-        .orElseThrow(() -> new ResourceNotFoundException("Course not found"));
-
-    if (!roles.contains("ADMIN") && !original.getInstructors().stream()
-        .anyMatch(i -> i.getUserId().equals(userId))) {
-      throw new ForbiddenException("Not authorized to duplicate this course");
-    }
-
-    // Clone basic info
-    Course duplicate = Course.builder()
-        .id(UUID.randomUUID())
-        .title("Copy of " + original.getTitle())
-        .description(original.getDescription())
-        .thumbnailUrl(original.getThumbnailUrl())
-        .category(original.getCategory())
-        .level(original.getLevel())
-        .price(original.getPrice())
-        .status(CourseStatus.DRAFT)
-        .isFeatured(false)
-        .isTrending(false)
-        .tags(new HashSet<>(original.getTags()))
-        .build();
-
-    // Re-link instructors (or just the current user)
-    CourseInstructor instructor = new CourseInstructor(duplicate, userId, "INSTRUCTOR");
-    duplicate.getInstructors().add(instructor);
-
-    Course saved = courseRepository.save(duplicate);
-
-    // Deep copy modules and lessons
-    for (CourseModule originalModule : original.getModules()) {
-      CourseModule duplicateModule = new CourseModule(
-          UUID.randomUUID(),
-          saved,
-          originalModule.getTitle(),
-          originalModule.getSortOrder());
-      duplicateModule.setSortOrder(originalModule.getSortOrder());
-      CourseModule savedModule = moduleRepository.save(duplicateModule);
-
-      for (Lesson originalLesson : originalModule.getLessons()) {
-        Lesson duplicateLesson = new Lesson(
-            UUID.randomUUID(),
-            savedModule,
-            originalLesson.getTitle(),
-            originalLesson.getType(),
-            originalLesson.getDurationMinutes(),
-            originalLesson.getSortOrder());
-        duplicateLesson.setPreview(originalLesson.isPreview());
-        duplicateLesson.setStatus(LessonStatus.DRAFT);
-        lessonRepository.save(duplicateLesson);
-      }
-    }
+    contentVersions.bump(oldStatuses.keySet());
 
-    auditLogger.logSuccess("COURSE_DUPLICATE", "COURSE", saved.getId().toString(),
-        Map.of("originalId", courseId));
-    return mapToCourseResponse(saved);
+    courseEventPublisher.publishCoursesUpdated(courses);
+    for (Course course : courses) {
+      auditLogger.logSuccess("COURSE_MODERATION", "COURSE", course.getId().toString(),
+          Map.of("oldStatus", oldStatuses.get(course.getId()), "newStatus", status, "adminId", adminId));
+    }
   }
 
   @Transactional(readOnly = true)
@@ -159,19 +148,130 @@ public class CourseApplicationService {
       Boolean isFeatured, Boolean isTrending, List<String> tags,
       String sort, String order,
       String cursor, Integer limit, Integer page,
+      boolean includeTotal,
       UUID currentUserId,
       Set<String> roles) {
 
     int pageSize = limit != null ? Math.min(limit, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
     int pageNumber = (page != null && page > 0) ? page : 1;
 
-    Specification<Course> spec = (root, query, cb) -> {
-      List<Predicate> predicates = new ArrayList<>();
+    boolean searching = search != null && !search.isBlank();
+    CourseListCursor seekFrom = (cursor != null && !cursor.isBlank()) ? CourseListCursor.decode(cursor) : null;
+    String sortField = seekFrom != null ? seekFrom.field()
+        : (sort != null && !sort.isBlank()) ? sort
+        : searching ? RELEVANCE_SORT : "createdAt";
+    if (RELEVANCE_SORT.equals(sortField) && !searching) {
+      sortField = "createdAt";
+    }
+    Sort.Direction direction = seekFrom != null ? seekFrom.direction()
+        : "asc".equalsIgnoreCase(order) ? Sort.Direction.ASC : Sort.Direction.DESC;
+
+    // Published-only browsing without free-text search is served from memory
+    boolean publishedOnly = status == CourseStatus.PUBLISHED || (status == null && !roles.contains("ADMIN")
+        && !(roles.contains("INSTRUCTOR") && currentUserId != null));
+    if (publishedOnly && !searching) {
+      var fromSnapshot = catalogSnapshot.list(category, level, isFeatured, isTrending, tags, sortField, direction,
+          seekFrom, pageSize, pageNumber, includeTotal);
+      if (fromSnapshot.isPresent()) {
+        return fromSnapshot.get();
+      }
+    }
+
+    Specification<Course> filters = courseFilters(status, category, level, search, isFeatured, isTrending, tags,
+        currentUserId, roles);
+
+    if (seekFrom != null) {
+      return listCoursesAfter(seekFrom, filters, pageSize, includeTotal,
+          courseFilterKey(status, category, level, search, isFeatured, isTrending, tags, currentUserId, roles));
+    }
+
+    Sort pageSort = Sort.by(direction, sortField, "id");
+    if (RELEVANCE_SORT.equals(sortField)) {
+      String tsQuery = CourseSearchFunctions.prefixQuery(search);
+      if (tsQuery != null) {
+        filters = filters.and(byRelevance(tsQuery));
+        pageSort = Sort.unsorted();
+      } else {
+        pageSort = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+      }
+    }
+
+    // One row past the page tells whether there is a next page without a COUNT;
+    // the total, if requested, is the same cached count the seek path uses
+    long offset = (long) (pageNumber - 1) * pageSize;
+    ScrollPosition position = offset == 0 ? ScrollPosition.offset() : ScrollPosition.offset(offset - 1);
+    Sort windowSort = pageSort;
+    List<Course> window = courseRepository.findBy(filters,
+        q -> q.sortBy(windowSort).limit(pageSize + 1).scroll(position)).getContent();
+    boolean hasNext = window.size() > pageSize;
+    List<Course> courses = hasNext ? window.subList(0, pageSize) : window;
+
+    // Hand out a keyset cursor so clients can switch to seek pagination from any page
+    String nextCursor = hasNext && CourseListCursor.supports(sortField)
+        ? CourseListCursor.after(courses.get(courses.size() - 1), sortField, direction).encode()
+        : null;
+
+    long totalElements = includeTotal
+        ? courseCacheService.countCourses(
+            courseFilterKey(status, category, level, search, isFeatured, isTrending, tags, currentUserId, roles),
+            filters)
+        : -1;
+    int totalPages = totalElements >= 0 ? (int) Math.ceil((double) totalElements / pageSize) : -1;
+
+    List<CourseResponse> content = courses.stream()
+        .map(this::mapToCourseResponse)
+        .collect(Collectors.toList());
 
-      // Ensure distinct results because of joins
+    return new CourseListResponse(
+        content,
+        nextCursor,
+        totalElements,
+        totalPages,
+        pageSize,
+        pageNumber);
+  }
+
+  /**
+   * Seek pagination: fetches the rows strictly after the cursor position using
+   * the (sort key, id) index order, so cost does not grow with page depth. The
+   * total, if requested, is an approximate count served from cache.
+   */
+  private CourseListResponse listCoursesAfter(CourseListCursor cursor, Specification<Course> filters,
+      int pageSize, boolean includeTotal, String filterKey) {
+    Specification<Course> seek = filters.and((root, query, cb) -> {
       if (query.getResultType() != Long.class) {
-        query.distinct(true);
+        Expression<?> key = CourseListCursor.sortExpression(root, cb, cursor.field());
+        query.orderBy(cursor.direction() == Sort.Direction.DESC
+            ? List.of(cb.desc(key), cb.desc(root.get("id")))
+            : List.of(cb.asc(key), cb.asc(root.get("id"))));
       }
+      return cursor.toPredicate(root, cb);
+    });
+
+    List<Course> window = courseRepository.findBy(seek, q -> q.limit(pageSize + 1).all());
+    boolean hasNext = window.size() > pageSize;
+    List<Course> courses = hasNext ? window.subList(0, pageSize) : window;
+
+    String nextCursor = hasNext
+        ? CourseListCursor.after(courses.get(courses.size() - 1), cursor.field(), cursor.direction()).encode()
+        : null;
+
+    long totalElements = includeTotal ? courseCacheService.countCourses(filterKey, filters) : -1;
+    int totalPages = totalElements >= 0 ? (int) Math.ceil((double) totalElements / pageSize) : -1;
+
+    List<CourseResponse> content = courses.stream()
+        .map(this::mapToCourseResponse)
+        .collect(Collectors.toList());
+
+    return new CourseListResponse(content, nextCursor, totalElements, totalPages, pageSize, 0);
+  }
+
+  private Specification<Course> courseFilters(
+      CourseStatus status, String category, String level, String search,
+      Boolean isFeatured, Boolean isTrending, List<String> tags,
+      UUID currentUserId, Set<String> roles) {
+    return (root, query, cb) -> {
+      List<Predicate> predicates = new ArrayList<>();
 
       // Status filtering based on roles
       if (status != null) {
@@ -180,11 +280,15 @@ public class CourseApplicationService {
         // Students and non-logged-in users only see PUBLISHED
         // Instructors see PUBLISHED + their own courses
         if (roles.contains("INSTRUCTOR") && currentUserId != null) {
+          // EXISTS instead of a join keeps rows unique without SELECT DISTINCT
+          Subquery<Integer> ownCourse = query.subquery(Integer.class);
+          Root<CourseInstructor> instructor = ownCourse.from(CourseInstructor.class);
+          ownCourse.select(cb.literal(1)).where(
+              cb.equal(instructor.get("course"), root),
+              cb.equal(instructor.get("userId"), currentUserId));
           predicates.add(cb.or(
               cb.equal(root.get("status"), CourseStatus.PUBLISHED),
-              cb.equal(root.join("instructors", jakarta.persistence.criteria.JoinType.LEFT)
-                  .get("userId"),
-                  currentUserId)));
+              cb.exists(ownCourse)));
         } else {
           predicates.add(cb.equal(root.get("status"), CourseStatus.PUBLISHED));
         }
@@ -213,32 +317,53 @@ public class CourseApplicationService {
       }
 
       if (search != null && !search.isBlank()) {
-        String searchPattern = "%" + search.toLowerCase() + "%";
-        predicates.add(cb.or(
-            cb.like(cb.lower(root.get("title")), searchPattern),
-            cb.like(cb.lower(root.get("description")), searchPattern)));
+        String tsQuery = CourseSearchFunctions.prefixQuery(search);
+        if (tsQuery != null) {
+          // Served by the idx_courses_search GIN index
+          predicates.add(cb.isTrue(cb.function(CourseSearchFunctions.MATCHES, Boolean.class,
+              root.get("title"), root.get("description"), cb.literal(tsQuery))));
+        } else {
+          // Punctuation-only input has no words to index; keep the old substring match
+          String searchPattern = "%" + search.toLowerCase() + "%";
+          predicates.add(cb.or(
+              cb.like(cb.lower(root.get("title")), searchPattern),
+              cb.like(cb.lower(root.get("description")), searchPattern)));
+        }
       }
 
       return cb.and(predicates.toArray(new Predicate[0]));
     };
+  }
 
-    String sortField = (sort != null && !sort.isBlank()) ? sort : "createdAt";
-    Sort.Direction direction = "asc".equalsIgnoreCase(order) ? Sort.Direction.ASC : Sort.Direction.DESC;
-    Pageable pageable = PageRequest.of(pageNumber - 1, pageSize, Sort.by(direction, sortField));
-
-    Page<Course> coursePage = courseRepository.findAll(spec, pageable);
-
-    List<CourseResponse> content = coursePage.getContent().stream()
-        .map(this::mapToCourseResponse)
-        .collect(Collectors.toList());
+  /**
+   * Best full-text matches first; adds ordering only, the match itself is in
+   * {@link #courseFilters}. Count queries are left unordered.
+   */
+  private static Specification<Course> byRelevance(String tsQuery) {
+    return (root, query, cb) -> {
+      if (query.getResultType() != Long.class) {
+        query.orderBy(
+            cb.desc(cb.function(CourseSearchFunctions.RANK, Double.class,
+                root.get("title"), root.get("description"), cb.literal(tsQuery))),
+            cb.asc(root.get("id")));
+      }
+      return null;
+    };
+  }
 
-    return new CourseListResponse(
-        content,
-        null, // Pagination via page numbers for now as it's easier with Specification
-        coursePage.getTotalElements(),
-        coursePage.getTotalPages(),
-        pageSize,
-        pageNumber);
+  private String courseFilterKey(CourseStatus status, String category, String level, String search,
+      Boolean isFeatured, Boolean isTrending, List<String> tags, UUID currentUserId, Set<String> roles) {
+    String visibility = status != null || roles.contains("ADMIN") ? "all"
+        : roles.contains("INSTRUCTOR") && currentUserId != null ? "instructor:" + currentUserId : "published";
+    return String.join("|",
+        String.valueOf(status),
+        visibility,
+        category != null ? category.toUpperCase() : "",
+        level != null ? level.toUpperCase() : "",
+        search != null ? search.toLowerCase() : "",
+        String.valueOf(isFeatured),
+        String.valueOf(isTrending),
+        tags != null ? tags.stream().sorted().collect(Collectors.joining(",")) : "");
   }
 
   @Transactional(readOnly = true)
@@ -267,26 +392,71 @@ public class CourseApplicationService {
     return new CourseListResponse(content, nextCursor, totalElements, totalPages, pageSize, pageNumber);
   }
 
+  /**
+   * Slim projections for up to {@code lms.course.batch.max-ids} courses, for
+   * services rendering lists. Unknown ids are simply absent from the result.
+   */
+  @Transactional(readOnly = true)
+  public List<CourseSummaryResponse> getCourseSummaries(Collection<UUID> courseIds) {
+    Set<UUID> ids = new LinkedHashSet<>(courseIds);
+    ids.remove(null);
+    if (ids.size() > maxBatchIds) {
+      throw new IllegalArgumentException("At most " + maxBatchIds + " course ids per request");
+    }
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    return courseRepository.findSummariesByIdIn(ids).stream()
+        .map(s -> new CourseSummaryResponse(s.id(), s.title(), s.thumbnailUrl(), s.status().name(), s.isFree(),
+            s.price(), s.currency(), s.lessonCount(), s.completionThreshold(), s.requireAllAssignments()))
+        .toList();
+  }
+
   @Transactional(readOnly = true)
   public CourseDetailResponse getCourseById(UUID courseId, UUID currentUserId, Set<String> roles) {
-    Course course = courseRepository.findById(courseId)
-        .orElseThrow(() -> new CourseNotFoundException("Course not found: " + courseId));
+    return getCourseById(courseId, getContentVersion(courseId), currentUserId, roles);
+  }
 
-    if (!canViewCourse(course, currentUserId, roles)) {
-      throw new ForbiddenException("No access to this course");
+  /**
+   * Course detail at a known content version, served from the detail cache.
+   * Per-viewer access is applied on top of the shared cached copy.
+   */
+  @Transactional(readOnly = true)
+  public CourseDetailResponse getCourseById(UUID courseId, Long contentVersion, UUID currentUserId,
+      Set<String> roles) {
+    if (contentVersion == null) {
+      throw new CourseNotFoundException("Course not found: " + courseId);
     }
+    CourseDetailAssembler.AssembledDetail detail = detailAssembler.assemble(courseId, contentVersion,
+        currentUserId, roles);
+    CourseDetailResponse course = detail.course();
 
-    boolean hasAccess = roles.contains("ADMIN") || courseRepository.isUserInstructor(courseId, currentUserId);
-    if (!hasAccess && currentUserId != null) {
-      hasAccess = enrollmentServiceClient.isUserEnrolled(currentUserId, courseId);
+    if (!canViewCourse(course, currentUserId, roles)) {
+      throw new ForbiddenException("No access to this course");
     }
 
     // Day 16: Free courses grant access to all lessons even without enrollment
-    if (!hasAccess && course.isFree()) {
-      hasAccess = true;
-    }
+    return detail.access().isFull() ? withFullAccess(course) : course;
+  }
 
-    return mapToCourseDetailResponse(course, hasAccess);
+  /**
+   * Everything another service needs to authorize a user against a course (and
+   * optionally one of its lessons) in one call, from cached data.
+   */
+  @Transactional(readOnly = true)
+  public CourseAccessResponse getCourseAccess(UUID courseId, UUID userId, UUID lessonId) {
+    Long contentVersion = getContentVersion(courseId);
+    if (contentVersion == null) {
+      throw new CourseNotFoundException("Course not found: " + courseId);
+    }
+    CourseDetailResponse course = courseCacheService.getCourseDetail(courseId, contentVersion);
+    CourseAccess access = courseAccessService.decide(course, userId, Set.of());
+    Boolean lessonPreview = lessonId == null ? null
+        : course.modules().stream()
+            .flatMap(m -> m.lessons().stream())
+            .anyMatch(l -> l.id().equals(lessonId) && Boolean.TRUE.equals(l.isPreview()));
+    return new CourseAccessResponse(courseId, userId, access.name(), access.isFull(),
+        "PUBLISHED".equals(course.status()), lessonPreview);
   }
 
   public CourseDetailResponse createCourse(CreateCourseRequest request, UUID currentUserId, Set<String> roles) {
@@ -294,29 +464,22 @@ public class CourseApplicationService {
       throw new ForbiddenException("Course creation is temporarily disabled");
     }
 
-    // Check system-wide course quota
-    long currentCount = courseRepository.count();
-    if (currentCount >= maxTotalCourses) {
-      log.warn("System course quota exceeded ({} / {})", currentCount, maxTotalCourses);
-      throw new ForbiddenException("System course quota exceeded. Contact support.");
-    }
-
     // Only instructors and admins can create courses
     if (!roles.contains("INSTRUCTOR") && !roles.contains("ADMIN")) {
       throw new ForbiddenException("Only instructors and admins can create courses");
     }
 
-    // Generate slug from title if not provided
-    String slug = request.slug() != null && !request.slug().isBlank()
-        ? request.slug()
-        : generateSlug(request.title());
-
-    // Check if slug already exists
-    if (courseRepository.existsBySlug(slug)) {
-      throw new ConflictException("Course with slug '" + slug + "' already exists");
+    UUID courseId = request.id() != null ? request.id() : UUID.randomUUID();
+    String slug = slugAllocator.allocate(request.slug(), request.title(), courseId);
+
+    // Check system-wide course quota; rolled back with the insert if it fails
+    try {
+      courseCounter.reserve(maxTotalCourses);
+    } catch (ForbiddenException e) {
+      log.warn("System course quota of {} exceeded", maxTotalCourses);
+      throw e;
     }
 
-    UUID courseId = request.id() != null ? request.id() : UUID.randomUUID();
     CourseStatus status = request.status() != null ? request.status() : CourseStatus.DRAFT;
 
     Course course = new Course(courseId, request.title(), slug, request.description(), status);
@@ -363,7 +526,13 @@ public class CourseApplicationService {
     CourseInstructor instructor = new CourseInstructor(course, currentUserId, "INSTRUCTOR");
     course.addInstructor(instructor);
 
-    Course saved = courseRepository.save(course);
+    Course saved;
+    try {
+      saved = courseRepository.saveAndFlush(course);
+    } catch (DataIntegrityViolationException e) {
+      // Lost a race for the slug (or a caller-chosen id) to a concurrent create
+      throw new ConflictException("Course with slug '" + slug + "' already exists");
+    }
     courseEventPublisher.publishCourseCreated(saved);
     log.info("Course created: {} by user: {}", courseId, currentUserId);
     auditLogger.logSuccess("COURSE_CREATE", "COURSE", courseId.toString(), Map.of("title", saved.getTitle()));
@@ -417,7 +586,7 @@ public class CourseApplicationService {
 
     Course updated = courseRepository.save(course);
     courseEventPublisher.publishCourseUpdated(updated);
-    courseCacheService.evictCourse(courseId);
+    contentVersions.bump(courseId);
     log.info("Course updated: {} by user: {}", courseId, currentUserId);
     auditLogger.logSuccess("COURSE_UPDATE", "COURSE", courseId.toString(),
         Map.of("status", updated.getStatus().name()));
@@ -436,7 +605,7 @@ public class CourseApplicationService {
     course.setStatus(CourseStatus.PUBLISHED);
     Course updated = courseRepository.save(course);
     courseEventPublisher.publishCourseUpdated(updated);
-    courseCacheService.evictCourse(courseId);
+    contentVersions.bump(courseId);
     auditLogger.logSuccess("COURSE_PUBLISH", "COURSE", courseId.toString());
 
     return mapToCourseDetailResponse(updated, true);
@@ -453,7 +622,7 @@ public class CourseApplicationService {
     course.setStatus(CourseStatus.DRAFT);
     Course updated = courseRepository.save(course);
     courseEventPublisher.publishCourseUpdated(updated);
-    courseCacheService.evictCourse(courseId);
+    contentVersions.bump(courseId);
     auditLogger.logSuccess("COURSE_SAVE_DRAFT", "COURSE", courseId.toString());
 
     return mapToCourseDetailResponse(updated, true);
@@ -468,7 +637,7 @@ public class CourseApplicationService {
     course.setStatus(status);
     Course updated = courseRepository.save(course);
 
-    courseCacheService.evictCourse(courseId);
+    contentVersions.bump(courseId);
     auditLogger.logSuccess("COURSE_STATUS_MODERATE", "COURSE", courseId.toString(),
         Map.of("oldStatus", oldStatus, "newStatus", status));
 
@@ -484,8 +653,9 @@ public class CourseApplicationService {
     }
 
     courseRepository.delete(course);
+    courseCounter.decrement();
     courseEventPublisher.publishCourseDeleted(courseId.toString());
-    courseCacheService.evictCourse(courseId);
+    contentVersions.forget(courseId);
     log.info("Course deleted: {} by user: {}", courseId, currentUserId);
     auditLogger.logSuccess("COURSE_DELETE", "COURSE", courseId.toString());
   }
@@ -503,6 +673,7 @@ public class CourseApplicationService {
     CourseModule module = new CourseModule(moduleId, course, request.title(), request.sortOrder());
 
     CourseModule saved = moduleRepository.save(module);
+    contentVersions.bump(courseId);
     log.info("Module created: {} in course: {}", moduleId, courseId);
 
     return mapToModuleResponse(saved, true);
@@ -528,6 +699,7 @@ public class CourseApplicationService {
     }
 
     CourseModule updated = moduleRepository.save(module);
+    contentVersions.bump(courseId);
     log.info("Module updated: {}", moduleId);
 
     return mapToModuleResponse(updated, true);
@@ -548,8 +720,10 @@ public class CourseApplicationService {
       throw new BadRequestException("Module does not belong to course");
     }
 
+    List<UUID> lessonIds = module.getLessons().stream().map(Lesson::getId).toList();
     moduleRepository.delete(module);
-    courseEventPublisher.publishModuleDeleted(courseId.toString(), moduleId.toString());
+    contentVersions.bump(courseId);
+    courseEventPublisher.publishModuleDeleted(courseId.toString(), moduleId.toString(), lessonIds);
     log.info("Module deleted: {}", moduleId);
   }
 
@@ -561,17 +735,24 @@ public class CourseApplicationService {
       throw new ForbiddenException("Not authorized to modify this course");
     }
 
+    Map<UUID, CourseModule> modules = moduleRepository.findAllById(
+        request.items().stream().map(BulkReorderRequest.ReorderItem::id).toList()).stream()
+        .collect(Collectors.toMap(CourseModule::getId, m -> m));
+
+    // Dirty rows are flushed at commit as JDBC batches (hibernate.jdbc.batch_size)
     for (BulkReorderRequest.ReorderItem item : request.items()) {
-      CourseModule module = moduleRepository.findById(item.id())
-          .orElseThrow(() -> new ResourceNotFoundException("Module not found: " + item.id()));
+      CourseModule module = modules.get(item.id());
+      if (module == null) {
+        throw new ResourceNotFoundException("Module not found: " + item.id());
+      }
 
       if (!module.getCourse().getId().equals(courseId)) {
         throw new BadRequestException("Module " + item.id() + " does not belong to course");
       }
 
       module.setSortOrder(item.sortOrder());
-      moduleRepository.save(module);
     }
+    contentVersions.bump(courseId);
     log.info("Modules reordered for course: {}", courseId);
   }
 
@@ -592,6 +773,8 @@ public class CourseApplicationService {
         request.durationMinutes(), request.sortOrder());
 
     Lesson saved = lessonRepository.save(lesson);
+    contentVersions.bump(courseId);
+    courseEventPublisher.publishLessonCreated(courseId, lessonId);
     log.info("Lesson created: {} in module: {}", lessonId, moduleId);
 
     return mapToLessonResponse(saved, true);
@@ -633,6 +816,7 @@ public class CourseApplicationService {
     }
 
     Lesson updated = lessonRepository.save(lesson);
+    contentVersions.bump(courseId);
     log.info("Lesson updated: {}", lessonId);
 
     return mapToLessonResponse(updated, true);
@@ -648,109 +832,90 @@ public class CourseApplicationService {
       throw new ForbiddenException("Not authorized to modify this course");
     }
 
+    Map<UUID, Lesson> lessons = lessonRepository.findAllById(
+        request.items().stream().map(BulkReorderRequest.ReorderItem::id).toList()).stream()
+        .collect(Collectors.toMap(Lesson::getId, l -> l));
+
     for (BulkReorderRequest.ReorderItem item : request.items()) {
-      Lesson lesson = lessonRepository.findById(item.id())
-          .orElseThrow(() -> new ResourceNotFoundException("Lesson not found: " + item.id()));
+      Lesson lesson = lessons.get(item.id());
+      if (lesson == null) {
+        throw new ResourceNotFoundException("Lesson not found: " + item.id());
+      }
       if (!lesson.getModule().getId().equals(moduleId)) {
         throw new BadRequestException("Lesson " + item.id() + " does not belong to module " + moduleId);
       }
       lesson.setSortOrder(item.sortOrder());
-      lessonRepository.save(lesson);
     }
+    contentVersions.bump(courseId);
     log.info("Lessons reordered in module: {}", moduleId);
   }
 
   @Transactional
   public List<ModuleResponse> syncCurriculum(UUID courseId, SyncCurriculumRequest request, UUID currentUserId,
       Set<String> roles) {
-    Course course = courseRepository.findById(courseId)
-        .orElseThrow(() -> new CourseNotFoundException("Course not found: " + courseId));
-
-    if (!canModifyCourse(course, currentUserId, roles)) {
-      throw new ForbiddenException("Not authorized to modify this course");
-    }
-
     if (request.modules().size() > 50) {
       throw new BadRequestException("Course cannot have more than 50 modules");
     }
-
-    // Map existing modules by ID
-    Map<UUID, CourseModule> existingModules = course.getModules().stream()
-        .collect(Collectors.toMap(CourseModule::getId, m -> m));
-
-    Set<UUID> receivedModuleIds = new HashSet<>();
-
-    for (int i = 0; i < request.modules().size(); i++) {
-      var modReq = request.modules().get(i);
-      CourseModule module;
-
-      if (modReq.id() != null && existingModules.containsKey(modReq.id())) {
-        module = existingModules.get(modReq.id());
-        module.setTitle(modReq.title());
-        module.setSortOrder(modReq.sortOrder() != null ? modReq.sortOrder() : i);
-        receivedModuleIds.add(modReq.id());
-      } else {
-        UUID moduleId = modReq.id() != null ? modReq.id() : UUID.randomUUID();
-        module = new CourseModule(moduleId, course, modReq.title(),
-            modReq.sortOrder() != null ? modReq.sortOrder() : i);
-        course.addModule(module);
-        receivedModuleIds.add(moduleId);
-      }
-
+    for (var modReq : request.modules()) {
       if (modReq.lessons().size() > 100) {
         throw new BadRequestException("Module '" + modReq.title() + "' cannot have more than 100 lessons");
       }
+    }
 
-      // Handle lessons in module
-      Map<UUID, Lesson> existingLessons = module.getLessons().stream()
-          .collect(Collectors.toMap(Lesson::getId, l -> l));
-      Set<UUID> receivedLessonIds = new HashSet<>();
-
-      for (int j = 0; j < modReq.lessons().size(); j++) {
-        var lesReq = modReq.lessons().get(j);
-        Lesson lesson;
-        if (lesReq.id() != null && existingLessons.containsKey(lesReq.id())) {
-          lesson = existingLessons.get(lesReq.id());
-          String oldTitle = lesson.getTitle();
-          lesson.setTitle(lesReq.title());
-          lesson.setType(LessonType.valueOf(lesReq.type()));
-          lesson.setDurationMinutes(lesReq.durationMinutes());
-          lesson.setSortOrder(lesReq.sortOrder() != null ? lesReq.sortOrder() : j);
-          lesson.setPreview(lesReq.isPreview());
-          receivedLessonIds.add(lesReq.id());
-
-          if (!oldTitle.equals(lesReq.title()) && course.getStatus() == CourseStatus.PUBLISHED) {
-            courseEventPublisher.publishLessonUpdated(courseId, lesson.getId(), lesson.getTitle());
-          }
-        } else {
-          UUID lessonId = lesReq.id() != null ? lesReq.id() : UUID.randomUUID();
-          lesson = new Lesson(lessonId, module, lesReq.title(), LessonType.valueOf(lesReq.type()),
-              lesReq.durationMinutes(), lesReq.sortOrder() != null ? lesReq.sortOrder() : j);
-          lesson.setPreview(lesReq.isPreview());
-          module.addLesson(lesson);
-          receivedLessonIds.add(lessonId);
-
-          if (course.getStatus() == CourseStatus.PUBLISHED) {
-            courseEventPublisher.publishLessonPublished(courseId, lessonId, lesson.getTitle());
-          }
-        }
-      }
+    Long currentVersion = contentVersions.current(courseId);
+    if (currentVersion == null) {
+      throw new CourseNotFoundException("Course not found: " + courseId);
+    }
 
-      // Remove lessons not received
-      module.getLessons().removeIf(l -> !receivedLessonIds.contains(l.getId()));
+    // Autosaves mostly resend the tree they just saved; answer those from the cache
+    String fingerprint = curriculumSyncEngine.fingerprint(request);
+    if (curriculumSyncEngine.isLastSync(courseId, currentVersion, fingerprint)) {
+      CourseDetailResponse current = courseCacheService.getCourseDetail(courseId, currentVersion);
+      if (!roles.contains("ADMIN") && !current.instructorIds().contains(currentUserId)) {
+        throw new ForbiddenException("Not authorized to modify this course");
+      }
+      return withFullAccess(current).modules();
     }
 
-    // Remove modules not received
-    course.getModules().removeIf(m -> !receivedModuleIds.contains(m.getId()));
+    Course course = courseRepository.findById(courseId)
+        .orElseThrow(() -> new CourseNotFoundException("Course not found: " + courseId));
+
+    if (!canModifyCourse(course, currentUserId, roles)) {
+      throw new ForbiddenException("Not authorized to modify this course");
+    }
 
-    Course saved = courseRepository.save(course);
-    courseCacheService.evictCourse(courseId);
+    CurriculumSyncEngine.Diff diff = curriculumSyncEngine.diff(courseId, request);
+    if (diff.isEmpty()) {
+      curriculumSyncEngine.rememberAfterCommit(courseId, currentVersion, fingerprint);
+    } else {
+      curriculumSyncEngine.apply(courseId, diff);
+      long version = contentVersions.bump(courseId);
+      curriculumSyncEngine.rememberAfterCommit(courseId, version, fingerprint);
+
+      boolean published = course.getStatus() == CourseStatus.PUBLISHED;
+      courseEventPublisher.publishCurriculumChanged(course, version,
+          published ? lessonSummaries(diff.insertedLessons()) : List.of(),
+          diff.insertedLessons().stream().map(CurriculumSyncEngine.LessonRow::id).toList(),
+          published ? lessonSummaries(diff.renamedLessons()) : List.of(),
+          diff.deletedLessons(), diff.deletedModules());
+      log.info("Curriculum synced for course {}: +{}/~{}/-{} modules, +{}/~{}/-{} lessons", courseId,
+          diff.insertedModules().size(), diff.updatedModules().size(), diff.deletedModules().size(),
+          diff.insertedLessons().size(), diff.updatedLessons().size(), diff.deletedLessons().size());
+    }
 
-    return saved.getModules().stream()
+    // Rows were written through JDBC, so read the tree back rather than trusting the session
+    return courseRepository.fetchModuleLessons(courseId).stream()
+        .sorted(Comparator.comparing(CourseModule::getSortOrder))
         .map(m -> mapToModuleResponse(m, true))
         .collect(Collectors.toList());
   }
 
+  private static List<Map<String, Object>> lessonSummaries(List<CurriculumSyncEngine.LessonRow> lessons) {
+    return lessons.stream()
+        .map(l -> Map.<String, Object>of("lessonId", l.id(), "title", l.title()))
+        .toList();
+  }
+
   @Transactional
   public void deleteLesson(UUID courseId, UUID moduleId, UUID lessonId, UUID currentUserId, Set<String> roles) {
     Course course = courseRepository.findById(courseId)
@@ -768,6 +933,7 @@ public class CourseApplicationService {
     }
 
     lessonRepository.delete(lesson);
+    contentVersions.bump(courseId);
     courseEventPublisher.publishLessonDeleted(courseId.toString(), lessonId.toString());
     log.info("Lesson deleted: {}", lessonId);
   }
@@ -782,26 +948,11 @@ public class CourseApplicationService {
     return courseRepository.isUserInstructor(courseId, userId);
   }
 
-  public boolean isLessonPreview(UUID courseId, UUID lessonId) {
-    return lessonRepository.findById(lessonId)
-        .map(lesson -> lesson.isPreview() && lesson.getModule().getCourse().getId().equals(courseId))
-        .orElse(false);
-  }
-
-  public boolean isFree(UUID courseId) {
-    return courseRepository.findById(courseId)
-        .map(Course::isFree)
-        .orElse(false);
-  }
-
-  public CourseStatus getCourseStatus(UUID courseId) {
-    return courseRepository.findById(courseId)
-        .map(Course::getStatus)
-        .orElse(CourseStatus.DRAFT);
-  }
-
-  public Instant getUpdatedAt(UUID courseId) {
-    return courseRepository.findUpdatedAtById(courseId).orElse(null);
+  /**
+   * Current content version of a course, or {@code null} if it does not exist.
+   */
+  public Long getContentVersion(UUID courseId) {
+    return contentVersions.current(courseId);
   }
 
   private boolean canViewCourse(CourseDetailResponse course, UUID currentUserId, Set<String> roles) {
@@ -833,41 +984,8 @@ public class CourseApplicationService {
     return courseRepository.isUserInstructor(course.getId(), currentUserId);
   }
 
-  private String generateSlug(String title) {
-    return title.toLowerCase()
-        .replaceAll("[^a-z0-9\\s-]", "")
-        .replaceAll("\\s+", "-")
-        .replaceAll("-+", "-")
-        .replaceAll("^-|-$", "");
-  }
-
   private CourseResponse mapToCourseResponse(Course course) {
-    if (course == null)
-      return null;
-    List<UUID> instructorIds = course.getInstructors() != null ? course.getInstructors().stream()
-        .map(CourseInstructor::getUserId)
-        .collect(Collectors.toList()) : List.of();
-
-    return new CourseResponse(
-        course.getId(),
-        course.getTitle(),
-        course.getSlug(),
-        course.getDescription(),
-        course.getCategory(),
-        course.getLevel(),
-        course.getPrice(),
-        course.getCurrency(),
-        course.isFree(),
-        course.getThumbnailUrl(),
-        course.getStatus() != null ? course.getStatus().name() : "DRAFT",
-        course.isFeatured(),
-        course.isTrending(),
-        course.getCompletionThreshold(),
-        course.isRequireAllAssignments(),
-        course.getTags(),
-        instructorIds,
-        course.getCreatedAt(),
-        course.getUpdatedAt());
+    return courseCacheService.mapToCourseResponse(course);
   }
 
   private CourseDetailResponse mapToCourseDetailResponse(Course course, boolean hasAccess) {
@@ -902,6 +1020,39 @@ public class CourseApplicationService {
         course.getUpdatedAt());
   }
 
+  private static CourseDetailResponse withFullAccess(CourseDetailResponse course) {
+    List<ModuleResponse> modules = course.modules().stream()
+        .map(m -> new ModuleResponse(m.id(), m.title(), m.sortOrder(),
+            m.lessons().stream()
+                .map(l -> new LessonResponse(l.id(), l.title(), l.type(), l.durationMinutes(), l.sortOrder(),
+                    l.isPreview(), true, l.status(), l.availableAt(), l.createdAt(), l.updatedAt()))
+                .collect(Collectors.toList()),
+            m.createdAt(), m.updatedAt()))
+        .collect(Collectors.toList());
+
+    return new CourseDetailResponse(
+        course.id(),
+        course.title(),
+        course.slug(),
+        course.description(),
+        course.category(),
+        course.level(),
+        course.price(),
+        course.currency(),
+        course.isFree(),
+        course.thumbnailUrl(),
+        course.status(),
+        course.isFeatured(),
+        course.isTrending(),
+        course.completionThreshold(),
+        course.requireAllAssignments(),
+        course.tags(),
+        modules,
+        course.instructorIds(),
+        course.createdAt(),
+        course.updatedAt());
+  }
+
   private ModuleResponse mapToModuleResponse(CourseModule module, boolean hasAccess) {
     if (module == null)
       return null;
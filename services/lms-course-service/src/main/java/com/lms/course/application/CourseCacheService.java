@@ -1,6 +1,9 @@
 package com.lms.course.application;
 
+import com.lms.common.config.database.DataSourceContextHolder;
+import com.lms.common.config.database.DataSourceType;
 import com.lms.course.api.CourseDetailResponse;
+import com.lms.course.api.CourseResponse;
 import com.lms.course.domain.Course;
 import com.lms.course.domain.CourseInstructor;
 import com.lms.course.domain.CourseModule;
@@ -10,10 +13,13 @@ import com.lms.course.domain.Lesson;
 import com.lms.course.domain.CourseRepository;
 import com.lms.course.application.CourseApplicationService.CourseNotFoundException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.UUID;
@@ -24,18 +30,93 @@ import java.util.stream.Collectors;
 public class CourseCacheService {
 
   private final CourseRepository courseRepository;
+  private final PlatformTransactionManager transactionManager;
 
-  @Cacheable(value = "courses", key = "#courseId")
+  private record LoadedDetail(long contentVersion, CourseDetailResponse detail) {
+  }
+
+  /**
+   * Course detail as an anonymous viewer sees it. Keyed by content version, so
+   * a change to the course simply makes callers ask for a new key; entries for
+   * old versions age out.
+   *
+   * <p>
+   * The version is published as soon as the change commits, so a replica that
+   * is behind can still hold the previous tree. Such a read is repeated on the
+   * primary rather than cached under the new version.
+   */
+  @Cacheable(value = "courses", key = "#courseId + ':' + #contentVersion", sync = true)
+  public CourseDetailResponse getCourseDetail(UUID courseId, long contentVersion) {
+    LoadedDetail loaded = loadDetail(courseId, false);
+    if (loaded.contentVersion() < contentVersion) {
+      loaded = loadDetail(courseId, true);
+    }
+    return loaded.detail();
+  }
+
+  private LoadedDetail loadDetail(UUID courseId, boolean fromPrimary) {
+    TransactionTemplate template = new TransactionTemplate(transactionManager);
+    template.setReadOnly(true);
+    DataSourceType previous = DataSourceContextHolder.getDataSourceType();
+    if (fromPrimary) {
+      // A new transaction, since the current one may already hold a replica connection
+      template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+      DataSourceContextHolder.setDataSourceType(DataSourceType.PRIMARY);
+    }
+    try {
+      return template.execute(tx -> {
+        Course course = courseRepository.findCurriculumTreeById(courseId)
+            .orElseThrow(() -> new CourseNotFoundException("Course not found: " + courseId));
+        return new LoadedDetail(course.getContentVersion(), mapToCourseDetailResponse(course, false));
+      });
+    } finally {
+      if (fromPrimary) {
+        if (previous != null) {
+          DataSourceContextHolder.setDataSourceType(previous);
+        } else {
+          DataSourceContextHolder.clear();
+        }
+      }
+    }
+  }
+
+  /**
+   * Approximate row count for a filter combination, used for totals in keyset
+   * pagination. Served from cache so deep pages never pay for COUNT(*).
+   */
+  @Cacheable(value = "course-counts", key = "#filterKey")
   @Transactional(readOnly = true)
-  public CourseDetailResponse getCourseDetail(UUID courseId) {
-    Course course = courseRepository.findById(courseId)
-        .orElseThrow(() -> new CourseNotFoundException("Course not found: " + courseId));
-    return mapToCourseDetailResponse(course, false);
+  public long countCourses(String filterKey, Specification<Course> filters) {
+    return courseRepository.count(filters);
   }
 
-  @CacheEvict(value = "courses", key = "#courseId")
-  public void evictCourse(UUID courseId) {
-    // Just evicts
+  public CourseResponse mapToCourseResponse(Course course) {
+    if (course == null)
+      return null;
+    List<UUID> instructorIds = course.getInstructors() != null ? course.getInstructors().stream()
+        .map(CourseInstructor::getUserId)
+        .collect(Collectors.toList()) : List.of();
+
+    return new CourseResponse(
+        course.getId(),
+        course.getTitle(),
+        course.getSlug(),
+        course.getDescription(),
+        course.getCategory(),
+        course.getLevel(),
+        course.getPrice(),
+        course.getCurrency(),
+        course.isFree(),
+        course.getThumbnailUrl(),
+        course.getStatus() != null ? course.getStatus().name() : "DRAFT",
+        course.isFeatured(),
+        course.isTrending(),
+        course.getCompletionThreshold(),
+        course.isRequireAllAssignments(),
+        course.getTags(),
+        instructorIds,
+        course.getCreatedAt(),
+        course.getUpdatedAt());
   }
 
   public CourseDetailResponse mapToCourseDetailResponse(Course course, boolean hasAccess) {
@@ -0,0 +1,233 @@
+package com.lms.course.application;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lms.course.domain.Course;
+import com.lms.course.domain.CourseModule;
+import com.lms.course.domain.CourseModuleRepository;
+import com.lms.course.domain.CourseRepository;
+import com.lms.course.domain.CourseStatus;
+import com.lms.course.domain.Lesson;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole catalog, curricula included, to a stream. Courses come
+ * from a server-side cursor; every {@code chunkSize} courses their tags and
+ * modules with lessons are loaded in two statements, written, flushed to the
+ * client and detached. Memory use depends on the chunk size, not the catalog.
+ */
+@Component
+public class CourseCatalogExporter {
+
+  private static final Logger log = LoggerFactory.getLogger(CourseCatalogExporter.class);
+
+  private static final String CSV_HEADER = "course_id,course_title,course_slug,course_status,category,level,"
+      + "price,currency,is_free,tags,module_id,module_title,module_sort_order,lesson_id,lesson_title,"
+      + "lesson_type,lesson_duration_minutes,lesson_sort_order,lesson_is_preview,lesson_status\n";
+
+  public enum Format {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    Format(String contentType, String extension) {
+      this.contentType = contentType;
+      this.extension = extension;
+    }
+
+    public String contentType() {
+      return contentType;
+    }
+
+    public String extension() {
+      return extension;
+    }
+
+    public static Format parse(String value) {
+      for (Format format : values()) {
+        if (format.extension.equalsIgnoreCase(value)) {
+          return format;
+        }
+      }
+      throw new IllegalArgumentException("Unsupported export format: " + value + " (use ndjson or csv)");
+    }
+  }
+
+  public record ExportedLesson(UUID id, String title, String type, Integer durationMinutes, Integer sortOrder,
+      boolean isPreview, String status, Instant availableAt) {
+  }
+
+  public record ExportedModule(UUID id, String title, Integer sortOrder, List<ExportedLesson> lessons) {
+  }
+
+  public record ExportedCourse(UUID id, String title, String slug, String description, String category,
+      String level, String status, BigDecimal price, String currency, boolean isFree, Set<String> tags,
+      Instant createdAt, Instant updatedAt, List<ExportedModule> modules) {
+  }
+
+  private final CourseRepository courseRepository;
+  private final CourseModuleRepository moduleRepository;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate readOnlyTransaction;
+  private final int chunkSize;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  public CourseCatalogExporter(CourseRepository courseRepository,
+      CourseModuleRepository moduleRepository,
+      ObjectMapper objectMapper,
+      PlatformTransactionManager transactionManager,
+      @Value("${lms.course.export.chunk-size:200}") int chunkSize) {
+    this.courseRepository = courseRepository;
+    this.moduleRepository = moduleRepository;
+    this.objectMapper = objectMapper;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * @param status only export courses in this status, or all if {@code null}
+   * @return the number of courses written
+   */
+  public long export(OutputStream out, Format format, CourseStatus status) {
+    long started = System.currentTimeMillis();
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    Long exported = readOnlyTransaction.execute(tx -> {
+      long count = 0;
+      try (Stream<Course> courses = courseRepository.streamForExport(status)) {
+        if (format == Format.CSV) {
+          writer.write(CSV_HEADER);
+        }
+        List<Course> chunk = new ArrayList<>(chunkSize);
+        Iterator<Course> iterator = courses.iterator();
+        while (iterator.hasNext()) {
+          chunk.add(iterator.next());
+          if (chunk.size() == chunkSize || !iterator.hasNext()) {
+            writeChunk(chunk, format, writer);
+            count += chunk.size();
+            chunk.clear();
+          }
+        }
+        writer.flush();
+      } catch (IOException e) {
+        // Usually the client went away; the transaction and cursor close with it
+        throw new UncheckedIOException(e);
+      }
+      return count;
+    });
+    log.info("Exported {} courses as {} in {} ms", exported, format, System.currentTimeMillis() - started);
+    return exported;
+  }
+
+  private void writeChunk(List<Course> chunk, Format format, Writer writer) throws IOException {
+    List<UUID> ids = chunk.stream().map(Course::getId).toList();
+
+    Map<UUID, Set<String>> tags = new HashMap<>();
+    for (Object[] row : courseRepository.findTagsByCourseIdIn(ids)) {
+      tags.computeIfAbsent((UUID) row[0], k -> new TreeSet<>()).add((String) row[1]);
+    }
+    Map<UUID, List<ExportedModule>> modules = new HashMap<>();
+    for (CourseModule module : moduleRepository.findWithLessonsByCourseIdIn(ids)) {
+      modules.computeIfAbsent(module.getCourse().getId(), k -> new ArrayList<>()).add(toExported(module));
+    }
+
+    for (Course course : chunk) {
+      List<ExportedModule> courseModules = modules.getOrDefault(course.getId(), new ArrayList<>());
+      courseModules.sort(Comparator.comparing(ExportedModule::sortOrder, Comparator.nullsLast(Comparator.naturalOrder())));
+      ExportedCourse exported = new ExportedCourse(course.getId(), course.getTitle(), course.getSlug(),
+          course.getDescription(), course.getCategory(), course.getLevel(), course.getStatus().name(),
+          course.getPrice(), course.getCurrency(), course.isFree(), tags.getOrDefault(course.getId(), Set.of()),
+          course.getCreatedAt(), course.getUpdatedAt(), courseModules);
+      if (format == Format.NDJSON) {
+        writer.write(objectMapper.writeValueAsString(exported));
+        writer.write('\n');
+      } else {
+        writeCsv(exported, writer);
+      }
+    }
+    writer.flush();
+    // Everything written is done with; keep the persistence context from growing
+    entityManager.clear();
+  }
+
+  private static ExportedModule toExported(CourseModule module) {
+    List<ExportedLesson> lessons = module.getLessons().stream()
+        .sorted(Comparator.comparing(Lesson::getSortOrder, Comparator.nullsLast(Comparator.naturalOrder())))
+        .map(l -> new ExportedLesson(l.getId(), l.getTitle(), l.getType() != null ? l.getType().name() : null,
+            l.getDurationMinutes(), l.getSortOrder(), l.isPreview(),
+            l.getStatus() != null ? l.getStatus().name() : null, l.getAvailableAt()))
+        .toList();
+    return new ExportedModule(module.getId(), module.getTitle(), module.getSortOrder(), lessons);
+  }
+
+  // One row per lesson; a course or module without lessons still gets a row
+  private static void writeCsv(ExportedCourse course, Writer writer) throws IOException {
+    String coursePart = csv(course.id(), course.title(), course.slug(), course.status(), course.category(),
+        course.level(), course.price(), course.currency(), course.isFree(), String.join(";", course.tags()));
+    if (course.modules().isEmpty()) {
+      writer.write(coursePart + ",,,,,,,,,,\n");
+      return;
+    }
+    for (ExportedModule module : course.modules()) {
+      String modulePart = csv(module.id(), module.title(), module.sortOrder());
+      if (module.lessons().isEmpty()) {
+        writer.write(coursePart + "," + modulePart + ",,,,,,,\n");
+        continue;
+      }
+      for (ExportedLesson lesson : module.lessons()) {
+        writer.write(coursePart + "," + modulePart + "," + csv(lesson.id(), lesson.title(), lesson.type(),
+            lesson.durationMinutes(), lesson.sortOrder(), lesson.isPreview(), lesson.status()) + "\n");
+      }
+    }
+  }
+
+  private static String csv(Object... values) {
+    StringBuilder row = new StringBuilder();
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        row.append(',');
+      }
+      if (values[i] == null) {
+        continue;
+      }
+      String value = values[i].toString();
+      if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+          || value.indexOf('\r') >= 0) {
+        row.append('"').append(value.replace("\"", "\"\"")).append('"');
+      } else {
+        row.append(value);
+      }
+    }
+    return row.toString();
+  }
+}
@@ -0,0 +1,367 @@
+package com.lms.course.application;
+
+import com.lms.course.api.CourseListResponse;
+import com.lms.course.api.CourseResponse;
+import com.lms.course.domain.Course;
+import com.lms.course.domain.CourseRepository;
+import com.lms.course.domain.CourseStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Predicate;
+
+/**
+ * In-memory copy of the published catalog with secondary indexes by category,
+ * level, tag and the featured/trending flags, so that anonymous and student
+ * listings are answered without touching Postgres.
+ *
+ * <p>
+ * Entries are refreshed per course from {@code course.events} and by polling
+ * {@code updated_at}; a periodic full rebuild drops anything a missed delete
+ * left behind. Until the first rebuild completes, {@link #list} declines and
+ * callers fall back to the database.
+ */
+@Component
+public class CourseCatalogSnapshot {
+
+  private static final Logger log = LoggerFactory.getLogger(CourseCatalogSnapshot.class);
+
+  private static final Comparator<UUID> ID_ORDER = CourseCatalogSnapshot::compareUuids;
+
+  /**
+   * The {@link CourseListCursor} keys whose order matches Postgres', with ids
+   * breaking ties in Postgres uuid order. Titles are left to the database:
+   * its collation does not order them the way Java strings compare.
+   */
+  private static final Map<String, Comparator<CourseResponse>> SORT_KEYS = Map.of(
+      "createdAt", Comparator.comparing(CourseResponse::createdAt),
+      "updatedAt", Comparator.comparing(CourseResponse::updatedAt),
+      "price", Comparator.comparing(CourseCatalogSnapshot::priceOf));
+
+  private final CourseRepository courseRepository;
+  private final CourseCacheService courseCacheService;
+
+  @Value("${lms.course.catalog.enabled:true}")
+  private boolean enabled;
+
+  @Value("${lms.course.catalog.full-refresh:PT10M}")
+  private Duration fullRefreshInterval;
+
+  /**
+   * How far behind the newest seen {@code updated_at} each poll starts, to
+   * catch transactions that committed after a later timestamp was read.
+   */
+  @Value("${lms.course.catalog.poll-overlap:PT1M}")
+  private Duration pollOverlap;
+
+  private volatile Index index;
+  private volatile Instant watermark = Instant.EPOCH;
+  private volatile Instant lastFullRefresh = Instant.EPOCH;
+
+  public CourseCatalogSnapshot(CourseRepository courseRepository, CourseCacheService courseCacheService,
+      MeterRegistry meterRegistry) {
+    this.courseRepository = courseRepository;
+    this.courseCacheService = courseCacheService;
+    Gauge.builder("lms.course.catalog.size", this, s -> s.index != null ? s.index.courses.size() : 0)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Published courses matching the filters, paged by offset or by cursor.
+   * Empty if the snapshot is not loaded yet or cannot order by {@code sortField}.
+   */
+  public Optional<CourseListResponse> list(String category, String level, Boolean isFeatured, Boolean isTrending,
+      List<String> tags, String sortField, Sort.Direction direction, CourseListCursor cursor, int pageSize,
+      int pageNumber, boolean includeTotal) {
+    Index current = index;
+    if (!enabled || current == null || !SORT_KEYS.containsKey(sortField)) {
+      return Optional.empty();
+    }
+
+    NavigableSet<CourseResponse> ordered = current.sorted.get(sortField);
+    if (direction == Sort.Direction.DESC) {
+      ordered = ordered.descendingSet();
+    }
+    if (cursor != null) {
+      ordered = ordered.tailSet(boundaryOf(cursor), false);
+    }
+
+    // Walk the pre-sorted entries and stop one past the page, instead of
+    // sorting every match per request
+    Predicate<CourseResponse> filter = matches(category, level, isFeatured, isTrending, tags);
+    Collection<UUID> candidates = current.candidates(category, level, isFeatured, isTrending, tags);
+    long skip = cursor != null ? 0 : (long) (pageNumber - 1) * pageSize;
+    List<CourseResponse> content = new ArrayList<>(pageSize);
+    boolean hasNext = false;
+    for (CourseResponse course : ordered) {
+      if (!candidates.contains(course.id()) || !filter.test(course)) {
+        continue;
+      }
+      if (skip > 0) {
+        skip--;
+      } else if (content.size() < pageSize) {
+        content.add(course);
+      } else {
+        hasNext = true;
+        break;
+      }
+    }
+
+    String nextCursor = hasNext && !content.isEmpty()
+        ? CourseListCursor.after(content.get(content.size() - 1), sortField, direction).encode()
+        : null;
+
+    long totalElements = cursor == null || includeTotal ? current.count(candidates, filter) : -1;
+    int totalPages = totalElements >= 0 ? (int) Math.ceil((double) totalElements / pageSize) : -1;
+    return Optional.of(new CourseListResponse(content, nextCursor, totalElements, totalPages, pageSize,
+        cursor != null ? 0 : pageNumber));
+  }
+
+  /**
+   * Polls for changed rows, or rebuilds everything on first run and every
+   * {@code lms.course.catalog.full-refresh}. Runs on every pod; each keeps its own copy.
+   */
+  @Scheduled(fixedDelayString = "${lms.course.catalog.poll-interval:PT30S}")
+  public void poll() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      if (index == null || Instant.now().isAfter(lastFullRefresh.plus(fullRefreshInterval))) {
+        rebuild();
+      } else {
+        applyChangesSince(watermark.minus(pollOverlap));
+      }
+    } catch (Exception e) {
+      log.warn("Catalog snapshot refresh failed; serving the previous copy", e);
+    }
+  }
+
+  public void rebuild() {
+    Instant started = Instant.now();
+    List<Course> published = courseRepository.findCatalogEntriesByStatus(CourseStatus.PUBLISHED);
+    Index fresh = new Index();
+    Instant newest = Instant.EPOCH;
+    for (Course course : published) {
+      fresh.put(courseCacheService.mapToCourseResponse(course));
+      newest = max(newest, course.getUpdatedAt());
+    }
+    synchronized (this) {
+      index = fresh;
+      watermark = newest;
+      lastFullRefresh = started;
+    }
+    log.info("Catalog snapshot rebuilt with {} published courses in {} ms", published.size(),
+        Duration.between(started, Instant.now()).toMillis());
+  }
+
+  /**
+   * Reloads one course after it was created or updated elsewhere.
+   */
+  public void refresh(UUID courseId) {
+    if (index == null) {
+      return;
+    }
+    courseRepository.findCatalogEntryById(courseId)
+        .ifPresentOrElse(this::apply, () -> remove(courseId));
+  }
+
+  public synchronized void remove(UUID courseId) {
+    if (index != null) {
+      index.remove(courseId);
+    }
+  }
+
+  private void applyChangesSince(Instant since) {
+    for (Course course : courseRepository.findCatalogEntriesUpdatedSince(since)) {
+      apply(course);
+    }
+  }
+
+  private synchronized void apply(Course course) {
+    if (index == null) {
+      return;
+    }
+    CourseResponse entry = courseCacheService.mapToCourseResponse(course);
+    CourseResponse existing = index.courses.get(entry.id());
+    // Never let a late event or lagging read roll an entry back
+    if (existing != null && existing.updatedAt() != null && entry.updatedAt() != null
+        && existing.updatedAt().isAfter(entry.updatedAt())) {
+      return;
+    }
+    index.remove(entry.id());
+    if (CourseStatus.PUBLISHED.name().equals(entry.status())) {
+      index.put(entry);
+    }
+    watermark = max(watermark, entry.updatedAt());
+  }
+
+  private static Predicate<CourseResponse> matches(String category, String level, Boolean isFeatured,
+      Boolean isTrending, List<String> tags) {
+    return c -> (category == null || category.isBlank() || category.equalsIgnoreCase(c.category()))
+        && (level == null || level.isBlank() || level.equalsIgnoreCase(c.level()))
+        && (isFeatured == null || isFeatured.equals(c.isFeatured()))
+        && (isTrending == null || isTrending.equals(c.isTrending()))
+        && (tags == null || tags.isEmpty() || (c.tags() != null && c.tags().containsAll(tags)));
+  }
+
+  private static CourseResponse boundaryOf(CourseListCursor cursor) {
+    Object value = cursor.boundary();
+    Instant at = value instanceof Instant instant ? instant : null;
+    return new CourseResponse(cursor.id(), null, null, null, null, null,
+        value instanceof BigDecimal price ? price : null, null, null, null, null, null, null, null, null, null,
+        null, at, at);
+  }
+
+  private static BigDecimal priceOf(CourseResponse course) {
+    return course.price() != null ? course.price() : BigDecimal.ZERO;
+  }
+
+  private static Instant max(Instant a, Instant b) {
+    return b != null && b.isAfter(a) ? b : a;
+  }
+
+  /**
+   * Postgres compares uuids as unsigned bytes; {@link UUID#compareTo} is signed.
+   */
+  private static int compareUuids(UUID a, UUID b) {
+    int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+    return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+  }
+
+  /**
+   * Published entries, the id sets that point at them and the entries in each
+   * supported sort order. Readers take the
+   * current instance once per request; writers mutate it under the snapshot
+   * lock, and a rebuild swaps in a new one.
+   */
+  private static final class Index {
+
+    private final Map<UUID, CourseResponse> courses = new ConcurrentHashMap<>();
+    private final Map<String, Set<UUID>> byCategory = new ConcurrentHashMap<>();
+    private final Map<String, Set<UUID>> byLevel = new ConcurrentHashMap<>();
+    private final Map<String, Set<UUID>> byTag = new ConcurrentHashMap<>();
+    private final Set<UUID> featured = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> trending = ConcurrentHashMap.newKeySet();
+    private final Map<String, NavigableSet<CourseResponse>> sorted = new HashMap<>();
+
+    Index() {
+      SORT_KEYS.forEach((field, key) -> sorted.put(field,
+          new ConcurrentSkipListSet<>(key.thenComparing(CourseResponse::id, ID_ORDER))));
+    }
+
+    void put(CourseResponse course) {
+      UUID id = course.id();
+      courses.put(id, course);
+      if (course.category() != null) {
+        byCategory.computeIfAbsent(course.category().toUpperCase(), k -> ConcurrentHashMap.newKeySet()).add(id);
+      }
+      if (course.level() != null) {
+        byLevel.computeIfAbsent(course.level().toUpperCase(), k -> ConcurrentHashMap.newKeySet()).add(id);
+      }
+      if (course.tags() != null) {
+        for (String tag : course.tags()) {
+          byTag.computeIfAbsent(tag, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+      }
+      if (Boolean.TRUE.equals(course.isFeatured())) {
+        featured.add(id);
+      }
+      if (Boolean.TRUE.equals(course.isTrending())) {
+        trending.add(id);
+      }
+      sorted.values().forEach(entries -> entries.add(course));
+    }
+
+    void remove(UUID id) {
+      CourseResponse course = courses.remove(id);
+      if (course == null) {
+        return;
+      }
+      if (course.category() != null) {
+        detach(byCategory, course.category().toUpperCase(), id);
+      }
+      if (course.level() != null) {
+        detach(byLevel, course.level().toUpperCase(), id);
+      }
+      if (course.tags() != null) {
+        for (String tag : course.tags()) {
+          detach(byTag, tag, id);
+        }
+      }
+      featured.remove(id);
+      trending.remove(id);
+      sorted.values().forEach(entries -> entries.remove(course));
+    }
+
+    long count(Collection<UUID> candidates, Predicate<CourseResponse> filter) {
+      long count = 0;
+      for (UUID id : candidates) {
+        CourseResponse course = courses.get(id);
+        if (course != null && filter.test(course)) {
+          count++;
+        }
+      }
+      return count;
+    }
+
+    /**
+     * The smallest id set that every match must belong to; the remaining
+     * filters are checked per entry.
+     */
+    Collection<UUID> candidates(String category, String level, Boolean isFeatured, Boolean isTrending,
+        List<String> tags) {
+      Collection<UUID> smallest = courses.keySet();
+      if (category != null && !category.isBlank()) {
+        smallest = smaller(smallest, byCategory.getOrDefault(category.toUpperCase(), Set.of()));
+      }
+      if (level != null && !level.isBlank()) {
+        smallest = smaller(smallest, byLevel.getOrDefault(level.toUpperCase(), Set.of()));
+      }
+      if (tags != null) {
+        for (String tag : tags) {
+          smallest = smaller(smallest, byTag.getOrDefault(tag, Set.of()));
+        }
+      }
+      if (Boolean.TRUE.equals(isFeatured)) {
+        smallest = smaller(smallest, featured);
+      }
+      if (Boolean.TRUE.equals(isTrending)) {
+        smallest = smaller(smallest, trending);
+      }
+      return smallest;
+    }
+
+    private static Collection<UUID> smaller(Collection<UUID> a, Collection<UUID> b) {
+      return b.size() < a.size() ? b : a;
+    }
+
+    private static void detach(Map<String, Set<UUID>> index, String key, UUID id) {
+      index.computeIfPresent(key, (k, ids) -> {
+        ids.remove(id);
+        return ids.isEmpty() ? null : ids;
+      });
+    }
+  }
+}
@@ -0,0 +1,132 @@
+package com.lms.course.application;
+
+import com.lms.course.domain.CourseRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Content version of each course: a counter on the course row, bumped in the
+ * same transaction as any change to the course, its modules or its lessons,
+ * and mirrored to Redis once that transaction commits. Reads are served from
+ * Redis, so ETag checks and detail-cache lookups do not touch Postgres.
+ *
+ * <p>
+ * Redis only ever moves forward: a reader repopulating a missing key from a
+ * replica cannot overwrite a newer version published by a writer.
+ */
+@Component
+@RequiredArgsConstructor
+public class CourseContentVersions {
+
+  private static final Logger log = LoggerFactory.getLogger(CourseContentVersions.class);
+  private static final String KEY_PREFIX = "lms:course:content-version:";
+  private static final Duration TTL = Duration.ofHours(1);
+
+  private static final RedisScript<Long> SET_IF_NEWER = new DefaultRedisScript<>(
+      "local current = tonumber(redis.call('GET', KEYS[1])) "
+          + "if current == nil or current < tonumber(ARGV[1]) then "
+          + "redis.call('SET', KEYS[1], ARGV[1], 'EX', ARGV[2]) return 1 end "
+          + "return 0",
+      Long.class);
+
+  private final CourseRepository courseRepository;
+  private final StringRedisTemplate redisTemplate;
+
+  /**
+   * Current version of a course, or {@code null} if it does not exist.
+   */
+  public Long current(UUID courseId) {
+    try {
+      String cached = redisTemplate.opsForValue().get(key(courseId));
+      if (cached != null) {
+        return Long.parseLong(cached);
+      }
+    } catch (RuntimeException e) {
+      log.warn("Content version lookup failed for course {}, reading the row", courseId, e);
+      return courseRepository.findContentVersionById(courseId).orElse(null);
+    }
+    Long version = courseRepository.findContentVersionById(courseId).orElse(null);
+    if (version != null) {
+      publish(courseId, version);
+    }
+    return version;
+  }
+
+  /**
+   * Increments the version of a course. Must be called inside the
+   * transaction that makes the change; Redis is updated after it commits.
+   */
+  public long bump(UUID courseId) {
+    return bump(Set.of(courseId)).getOrDefault(courseId, 0L);
+  }
+
+  /**
+   * @return the new version of each course that exists
+   */
+  public Map<UUID, Long> bump(Collection<UUID> courseIds) {
+    if (courseIds.isEmpty()) {
+      return Map.of();
+    }
+    courseRepository.incrementContentVersion(courseIds);
+    Map<UUID, Long> versions = courseRepository.findContentVersionsByIdIn(courseIds).stream()
+        .collect(Collectors.toMap(CourseRepository.ContentVersion::getId,
+            CourseRepository.ContentVersion::getContentVersion));
+    afterCommit(() -> versions.forEach(this::publish));
+    return versions;
+  }
+
+  /**
+   * Drops the cached version of a deleted course.
+   */
+  public void forget(UUID courseId) {
+    afterCommit(() -> {
+      try {
+        redisTemplate.delete(key(courseId));
+      } catch (RuntimeException e) {
+        log.warn("Could not drop content version for deleted course {}", courseId, e);
+      }
+    });
+  }
+
+  private void publish(UUID courseId, long version) {
+    try {
+      redisTemplate.execute(SET_IF_NEWER, List.of(key(courseId)),
+          String.valueOf(version), String.valueOf(TTL.toSeconds()));
+    } catch (RuntimeException e) {
+      // The next read falls back to the row; the key expires within the TTL
+      log.warn("Could not publish content version {} for course {}", version, courseId, e);
+    }
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          action.run();
+        }
+      });
+    } else {
+      action.run();
+    }
+  }
+
+  private static String key(UUID courseId) {
+    return KEY_PREFIX + courseId;
+  }
+}
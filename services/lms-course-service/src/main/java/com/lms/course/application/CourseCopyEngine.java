@@ -0,0 +1,126 @@
+package com.lms.course.application;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Clones a course curriculum without materialising it as entities. Ids for
+ * every copied module and lesson are assigned up front, then rows are copied
+ * server-side with batched {@code INSERT ... SELECT} statements, so the cost is
+ * a handful of round trips regardless of curriculum size.
+ */
+@Component
+@RequiredArgsConstructor
+public class CourseCopyEngine {
+
+  private static final int BATCH_SIZE = 500;
+
+  private static final String COPY_MODULE = "INSERT INTO lms_course.modules "
+      + "(id, course_id, title, sort_order, created_at, updated_at) "
+      + "SELECT ?, ?, title, sort_order, ?, ? FROM lms_course.modules WHERE id = ?";
+
+  // Copied lessons start as drafts so nothing in the copy is visible before review
+  private static final String COPY_LESSON = "INSERT INTO lms_course.lessons "
+      + "(id, module_id, title, type, duration_minutes, sort_order, is_preview, status, available_at, "
+      + "created_at, updated_at) "
+      + "SELECT ?, ?, title, type, duration_minutes, sort_order, is_preview, 'DRAFT', available_at, ?, ? "
+      + "FROM lms_course.lessons WHERE id = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public record ModuleCopy(UUID sourceId, UUID targetId, List<LessonCopy> lessons) {
+  }
+
+  public record LessonCopy(UUID sourceId, UUID targetId) {
+  }
+
+  /**
+   * Reads the source curriculum's ids in two queries and pairs each with a
+   * freshly generated target id. Modules come back in curriculum order.
+   */
+  public List<ModuleCopy> plan(UUID sourceCourseId) {
+    Map<UUID, List<LessonCopy>> lessonsByModule = new HashMap<>();
+    jdbcTemplate.query("SELECT l.id, l.module_id FROM lms_course.lessons l "
+        + "JOIN lms_course.modules m ON m.id = l.module_id WHERE m.course_id = ? ORDER BY l.sort_order",
+        (RowCallbackHandler) rs -> lessonsByModule
+            .computeIfAbsent(rs.getObject(2, UUID.class), k -> new ArrayList<>())
+            .add(new LessonCopy(rs.getObject(1, UUID.class), UUID.randomUUID())),
+        sourceCourseId);
+
+    return jdbcTemplate.query(
+        "SELECT id FROM lms_course.modules WHERE course_id = ? ORDER BY sort_order",
+        (rs, rowNum) -> {
+          UUID moduleId = rs.getObject(1, UUID.class);
+          return new ModuleCopy(moduleId, UUID.randomUUID(), lessonsByModule.getOrDefault(moduleId, List.of()));
+        },
+        sourceCourseId);
+  }
+
+  /**
+   * Copies the given modules and their lessons under {@code targetCourseId}.
+   * Must run inside a transaction after the target course row is flushed.
+   *
+   * @return the number of lessons copied
+   */
+  public int copy(UUID targetCourseId, List<ModuleCopy> modules) {
+    Timestamp now = Timestamp.from(Instant.now());
+    jdbcTemplate.batchUpdate(COPY_MODULE, modules, BATCH_SIZE, (ps, module) -> {
+      ps.setObject(1, module.targetId());
+      ps.setObject(2, targetCourseId);
+      ps.setTimestamp(3, now);
+      ps.setTimestamp(4, now);
+      ps.setObject(5, module.sourceId());
+    });
+
+    List<LessonRow> lessons = new ArrayList<>();
+    for (ModuleCopy module : modules) {
+      for (LessonCopy lesson : module.lessons()) {
+        lessons.add(new LessonRow(lesson, module.targetId()));
+      }
+    }
+    jdbcTemplate.batchUpdate(COPY_LESSON, lessons, BATCH_SIZE, (ps, row) -> {
+      ps.setObject(1, row.lesson().targetId());
+      ps.setObject(2, row.targetModuleId());
+      ps.setTimestamp(3, now);
+      ps.setTimestamp(4, now);
+      ps.setObject(5, row.lesson().sourceId());
+    });
+    return lessons.size();
+  }
+
+  /**
+   * Splits a plan into consecutive slices of roughly {@code maxLessons} lessons
+   * each, never splitting a module.
+   */
+  public static List<List<ModuleCopy>> chunks(List<ModuleCopy> plan, int maxLessons) {
+    List<List<ModuleCopy>> chunks = new ArrayList<>();
+    List<ModuleCopy> current = new ArrayList<>();
+    int lessons = 0;
+    for (ModuleCopy module : plan) {
+      if (!current.isEmpty() && lessons + module.lessons().size() > maxLessons) {
+        chunks.add(current);
+        current = new ArrayList<>();
+        lessons = 0;
+      }
+      current.add(module);
+      lessons += module.lessons().size();
+    }
+    if (!current.isEmpty()) {
+      chunks.add(current);
+    }
+    return chunks;
+  }
+
+  private record LessonRow(LessonCopy lesson, UUID targetModuleId) {
+  }
+}
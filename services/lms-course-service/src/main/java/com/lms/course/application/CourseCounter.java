@@ -0,0 +1,46 @@
+package com.lms.course.application;
+
+import com.lms.course.application.CourseApplicationService.ForbiddenException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Running total of courses in {@code lms_course.course_stats}. Every method
+ * must run in the transaction that inserts or deletes the course row, so the
+ * total commits or rolls back with it and never drifts.
+ *
+ * <p>
+ * The quota check is a conditional increment of the single row: concurrent
+ * creators queue on its row lock rather than each counting the table, and
+ * two of them cannot both take the last slot.
+ */
+@Component
+@RequiredArgsConstructor
+public class CourseCounter {
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Counts a new course, refusing if the total has reached {@code max}.
+   */
+  public void reserve(long max) {
+    int updated = jdbcTemplate.update("UPDATE lms_course.course_stats "
+        + "SET course_count = course_count + 1 WHERE id = 1 AND course_count < ?", max);
+    if (updated == 0) {
+      throw new ForbiddenException("System course quota exceeded. Contact support.");
+    }
+  }
+
+  /**
+   * Counts a new course that is not subject to the quota.
+   */
+  public void increment() {
+    jdbcTemplate.update("UPDATE lms_course.course_stats SET course_count = course_count + 1 WHERE id = 1");
+  }
+
+  public void decrement() {
+    jdbcTemplate.update("UPDATE lms_course.course_stats "
+        + "SET course_count = course_count - 1 WHERE id = 1 AND course_count > 0");
+  }
+}
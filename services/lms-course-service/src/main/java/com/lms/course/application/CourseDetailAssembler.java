@@ -0,0 +1,129 @@
+package com.lms.course.application;
+
+import com.lms.course.api.CourseDetailResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Builds a viewer's course detail. The enrollment lookup is started on the
+ * detail executor as soon as the request arrives, while the calling thread
+ * (which holds the transaction) fetches the cached curriculum, so a miss on
+ * both costs the slower of the two rather than their sum.
+ *
+ * <p>
+ * Each request has a deadline. The lookup is skipped if it is still queued
+ * when the deadline passes, and abandoned (counting as not enrolled) if it
+ * has not answered by then; it is also abandoned as soon as a cheaper grant
+ * makes it moot. Steps are timed as {@code lms.course.detail.step}.
+ */
+@Component
+public class CourseDetailAssembler {
+
+  private static final Logger log = LoggerFactory.getLogger(CourseDetailAssembler.class);
+
+  private final CourseCacheService courseCacheService;
+  private final CourseAccessService courseAccessService;
+  private final HotCourseTracker hotCourses;
+  private final TaskExecutor detailExecutor;
+  private final Duration deadline;
+  private final Timer curriculumTimer;
+  private final Timer enrollmentTimer;
+  private final Timer enrollmentWaitTimer;
+  private final Timer totalTimer;
+
+  public CourseDetailAssembler(CourseCacheService courseCacheService,
+      CourseAccessService courseAccessService,
+      HotCourseTracker hotCourses,
+      @Qualifier("courseDetailExecutor") TaskExecutor detailExecutor,
+      MeterRegistry meterRegistry,
+      @Value("${lms.course.detail.deadline:PT2S}") Duration deadline) {
+    this.courseCacheService = courseCacheService;
+    this.courseAccessService = courseAccessService;
+    this.hotCourses = hotCourses;
+    this.detailExecutor = detailExecutor;
+    this.deadline = deadline;
+    this.curriculumTimer = stepTimer(meterRegistry, "curriculum");
+    this.enrollmentTimer = stepTimer(meterRegistry, "enrollment");
+    this.enrollmentWaitTimer = stepTimer(meterRegistry, "enrollment-wait");
+    this.totalTimer = stepTimer(meterRegistry, "total");
+  }
+
+  public record AssembledDetail(CourseDetailResponse course, CourseAccess access) {
+  }
+
+  public AssembledDetail assemble(UUID courseId, long contentVersion, UUID userId, Set<String> roles) {
+    long started = System.nanoTime();
+    long deadlineNanos = started + deadline.toNanos();
+
+    CompletableFuture<Boolean> enrollment = null;
+    if (userId != null && !roles.contains("ADMIN")) {
+      enrollment = CompletableFuture.supplyAsync(
+          timed(enrollmentTimer, () -> System.nanoTime() < deadlineNanos
+              && courseAccessService.isEnrolled(userId, courseId)),
+          detailExecutor);
+    }
+
+    try {
+      CourseDetailResponse course = curriculumTimer.record(
+          () -> courseCacheService.getCourseDetail(courseId, contentVersion));
+      hotCourses.record(courseId);
+      CompletableFuture<Boolean> pending = enrollment;
+      CourseAccess access = courseAccessService.decide(course, userId, roles,
+          () -> await(pending, deadlineNanos, userId, courseId));
+      return new AssembledDetail(course, access);
+    } finally {
+      if (enrollment != null) {
+        // No-op if it was used; otherwise its answer is no longer wanted
+        enrollment.cancel(false);
+      }
+      totalTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private boolean await(CompletableFuture<Boolean> enrollment, long deadlineNanos, UUID userId, UUID courseId) {
+    if (enrollment == null) {
+      return false;
+    }
+    long waitStarted = System.nanoTime();
+    try {
+      return enrollment.get(Math.max(0, deadlineNanos - waitStarted), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      log.warn("Enrollment lookup for user {} on course {} missed the {} deadline", userId, courseId, deadline);
+      return false;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } catch (ExecutionException e) {
+      log.warn("Enrollment lookup for user {} on course {} failed", userId, courseId, e.getCause());
+      return false;
+    } finally {
+      enrollmentWaitTimer.record(System.nanoTime() - waitStarted, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private static <T> Supplier<T> timed(Timer timer, Supplier<T> step) {
+    return () -> timer.record(step);
+  }
+
+  private static Timer stepTimer(MeterRegistry meterRegistry, String step) {
+    return Timer.builder("lms.course.detail.step")
+        .description("Time spent in each step of course detail assembly")
+        .tag("step", step)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,234 @@
+package com.lms.course.application;
+
+import com.lms.common.audit.AuditLogger;
+import com.lms.course.api.CourseResponse;
+import com.lms.course.api.DuplicateCourseJobResponse;
+import com.lms.course.application.CourseApplicationService.ForbiddenException;
+import com.lms.course.application.CourseApplicationService.ResourceNotFoundException;
+import com.lms.course.domain.Course;
+import com.lms.course.domain.CourseInstructor;
+import com.lms.course.domain.CourseRepository;
+import com.lms.course.domain.CourseStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Course duplication. Small courses are copied synchronously in one
+ * transaction; large ones can be copied as a background job that commits one
+ * slice of the curriculum at a time and reports progress through Redis, so any
+ * pod can answer a poll.
+ */
+@Service
+public class CourseDuplicationService {
+
+  private static final Logger log = LoggerFactory.getLogger(CourseDuplicationService.class);
+  private static final String JOB_KEY_PREFIX = "lms:course:duplicate-job:";
+  private static final Duration JOB_TTL = Duration.ofHours(24);
+
+  private final CourseRepository courseRepository;
+  private final CourseCopyEngine copyEngine;
+  private final CourseContentVersions contentVersions;
+  private final CourseCounter courseCounter;
+  private final CourseSlugAllocator slugAllocator;
+  private final CourseCacheService courseCacheService;
+  private final AuditLogger auditLogger;
+  private final StringRedisTemplate redisTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final TaskExecutor copyExecutor;
+
+  @Value("${lms.course.duplicate.chunk-lessons:200}")
+  private int chunkLessons;
+
+  public CourseDuplicationService(CourseRepository courseRepository,
+      CourseCopyEngine copyEngine,
+      CourseContentVersions contentVersions,
+      CourseCounter courseCounter,
+      CourseSlugAllocator slugAllocator,
+      CourseCacheService courseCacheService,
+      AuditLogger auditLogger,
+      StringRedisTemplate redisTemplate,
+      TransactionTemplate transactionTemplate,
+      @Qualifier("courseCopyExecutor") TaskExecutor copyExecutor) {
+    this.courseRepository = courseRepository;
+    this.copyEngine = copyEngine;
+    this.contentVersions = contentVersions;
+    this.courseCounter = courseCounter;
+    this.slugAllocator = slugAllocator;
+    this.courseCacheService = courseCacheService;
+    this.auditLogger = auditLogger;
+    this.redisTemplate = redisTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.copyExecutor = copyExecutor;
+  }
+
+  @Transactional
+  public CourseResponse duplicateCourse(UUID courseId, UUID userId, Set<String> roles) {
+    Course saved = createDuplicate(courseId, userId, roles);
+    int lessons = copyEngine.copy(saved.getId(), copyEngine.plan(courseId));
+
+    auditLogger.logSuccess("COURSE_DUPLICATE", "COURSE", saved.getId().toString(),
+        Map.of("originalId", courseId, "lessons", lessons));
+    return courseCacheService.mapToCourseResponse(saved);
+  }
+
+  /**
+   * Creates the copy's course row and queues the curriculum copy. The returned
+   * job can be polled via {@link #getJob}; if the copy fails, the partial
+   * course is deleted.
+   */
+  public DuplicateCourseJobResponse startDuplicateJob(UUID courseId, UUID userId, Set<String> roles) {
+    Course saved = transactionTemplate.execute(tx -> createDuplicate(courseId, userId, roles));
+    List<CourseCopyEngine.ModuleCopy> plan = copyEngine.plan(courseId);
+    int totalLessons = plan.stream().mapToInt(m -> m.lessons().size()).sum();
+
+    UUID jobId = UUID.randomUUID();
+    Map<String, String> job = new HashMap<>();
+    job.put("status", "RUNNING");
+    job.put("sourceCourseId", courseId.toString());
+    job.put("courseId", saved.getId().toString());
+    job.put("requestedBy", userId.toString());
+    job.put("totalModules", String.valueOf(plan.size()));
+    job.put("totalLessons", String.valueOf(totalLessons));
+    job.put("copiedModules", "0");
+    job.put("copiedLessons", "0");
+    redisTemplate.opsForHash().putAll(jobKey(jobId), job);
+    redisTemplate.expire(jobKey(jobId), JOB_TTL);
+
+    try {
+      copyExecutor.execute(() -> runJob(jobId, courseId, saved.getId(), plan));
+    } catch (TaskRejectedException e) {
+      discard(saved.getId());
+      redisTemplate.delete(jobKey(jobId));
+      throw e;
+    }
+    return getJob(jobId, userId, roles);
+  }
+
+  public DuplicateCourseJobResponse getJob(UUID jobId, UUID userId, Set<String> roles) {
+    Map<String, String> job = redisTemplate.<String, String>opsForHash().entries(jobKey(jobId));
+    if (job.isEmpty()) {
+      throw new ResourceNotFoundException("Duplicate job not found: " + jobId);
+    }
+    if (!roles.contains("ADMIN") && !job.get("requestedBy").equals(String.valueOf(userId))) {
+      throw new ForbiddenException("Not authorized to view this job");
+    }
+    return new DuplicateCourseJobResponse(
+        jobId,
+        job.get("status"),
+        UUID.fromString(job.get("sourceCourseId")),
+        UUID.fromString(job.get("courseId")),
+        Integer.parseInt(job.get("totalModules")),
+        Integer.parseInt(job.get("copiedModules")),
+        Integer.parseInt(job.get("totalLessons")),
+        Integer.parseInt(job.get("copiedLessons")),
+        job.get("error"));
+  }
+
+  private void runJob(UUID jobId, UUID sourceCourseId, UUID targetCourseId,
+      List<CourseCopyEngine.ModuleCopy> plan) {
+    String key = jobKey(jobId);
+    HashOperations<String, String, String> progress = redisTemplate.opsForHash();
+    try {
+      int lessons = 0;
+      for (List<CourseCopyEngine.ModuleCopy> chunk : CourseCopyEngine.chunks(plan, chunkLessons)) {
+        int copied = transactionTemplate.execute(tx -> {
+          int count = copyEngine.copy(targetCourseId, chunk);
+          // The copy is readable while it fills up, so each slice is a new version
+          contentVersions.bump(targetCourseId);
+          return count;
+        });
+        progress.increment(key, "copiedModules", chunk.size());
+        progress.increment(key, "copiedLessons", copied);
+        lessons += copied;
+      }
+      progress.put(key, "status", "COMPLETED");
+      auditLogger.logSuccess("COURSE_DUPLICATE", "COURSE", targetCourseId.toString(),
+          Map.of("originalId", sourceCourseId, "lessons", lessons, "jobId", jobId));
+    } catch (Exception e) {
+      log.error("Duplicate job {} for course {} failed", jobId, sourceCourseId, e);
+      discard(targetCourseId);
+      progress.put(key, "status", "FAILED");
+      progress.put(key, "error", "Copy failed; the partial course was removed");
+      auditLogger.logFailure("COURSE_DUPLICATE", "COURSE", sourceCourseId.toString(), e.getMessage());
+    }
+  }
+
+  private Course createDuplicate(UUID courseId, UUID userId, Set<String> roles) {
+    Course original = courseRepository.findById(courseId)
+        .orElseThrow(() -> new ResourceNotFoundException("Course not found"));
+
+    if (!roles.contains("ADMIN") && !original.getInstructors().stream()
+        .anyMatch(i -> i.getUserId().equals(userId))) {
+      throw new ForbiddenException("Not authorized to duplicate this course");
+    }
+
+    UUID duplicateId = UUID.randomUUID();
+    Course duplicate = Course.builder()
+        .id(duplicateId)
+        .title("Copy of " + original.getTitle())
+        .slug(copySlug(original.getSlug(), duplicateId))
+        .description(original.getDescription())
+        .thumbnailUrl(original.getThumbnailUrl())
+        .category(original.getCategory())
+        .level(original.getLevel())
+        .price(original.getPrice())
+        .currency(original.getCurrency())
+        .isFree(original.isFree())
+        .completionThreshold(original.getCompletionThreshold())
+        .requireAllAssignments(original.isRequireAllAssignments())
+        .status(CourseStatus.DRAFT)
+        .isFeatured(false)
+        .isTrending(false)
+        .tags(new HashSet<>(original.getTags()))
+        // The builder does not apply field initialisers, so collections must be given
+        .modules(new ArrayList<>())
+        .instructors(new ArrayList<>())
+        .build();
+
+    // Re-link instructors (or just the current user)
+    duplicate.getInstructors().add(new CourseInstructor(duplicate, userId, "INSTRUCTOR"));
+    slugAllocator.register(duplicate.getSlug());
+    courseCounter.increment();
+
+    // The copy engine writes through JDBC, so the course row must exist first
+    return courseRepository.saveAndFlush(duplicate);
+  }
+
+  private void discard(UUID courseId) {
+    try {
+      transactionTemplate.executeWithoutResult(tx -> {
+        courseRepository.deleteById(courseId);
+        courseCounter.decrement();
+      });
+    } catch (Exception e) {
+      log.error("Could not remove partial course copy {}", courseId, e);
+    }
+  }
+
+  private static String copySlug(String slug, UUID duplicateId) {
+    String suffix = "-copy-" + duplicateId.toString().substring(0, 8);
+    return (slug.length() + suffix.length() > 255 ? slug.substring(0, 255 - suffix.length()) : slug) + suffix;
+  }
+
+  private static String jobKey(UUID jobId) {
+    return JOB_KEY_PREFIX + jobId;
+  }
+}
@@ -0,0 +1,110 @@
+package com.lms.course.application;
+
+import com.lms.course.api.CourseResponse;
+import com.lms.course.domain.Course;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Opaque keyset position for course listings: the sort field, its direction,
+ * the last row's sort value and its id as a tie-breaker. Encoded as URL-safe
+ * base64 so clients treat it as a token.
+ */
+public record CourseListCursor(String field, Sort.Direction direction, String value, UUID id) {
+
+  private static final String SEPARATOR = "|";
+
+  /**
+   * Sort fields usable with keyset pagination, mapped to how the last value is
+   * read from an entity and parsed back. Nullable columns are coalesced so
+   * every row has a comparable key.
+   */
+  private static final Map<String, SortKey> KEYS = Map.of(
+      "createdAt", new SortKey(c -> c.getCreatedAt().toString(), c -> c.createdAt().toString(), Instant::parse),
+      "updatedAt", new SortKey(c -> c.getUpdatedAt().toString(), c -> c.updatedAt().toString(), Instant::parse),
+      "title", new SortKey(Course::getTitle, CourseResponse::title, v -> v),
+      "price", new SortKey(c -> (c.getPrice() != null ? c.getPrice() : BigDecimal.ZERO).toPlainString(),
+          c -> (c.price() != null ? c.price() : BigDecimal.ZERO).toPlainString(), BigDecimal::new));
+
+  public static boolean supports(String field) {
+    return KEYS.containsKey(field);
+  }
+
+  public static CourseListCursor after(Course last, String field, Sort.Direction direction) {
+    return new CourseListCursor(field, direction, KEYS.get(field).reader().apply(last), last.getId());
+  }
+
+  public static CourseListCursor after(CourseResponse last, String field, Sort.Direction direction) {
+    return new CourseListCursor(field, direction, KEYS.get(field).responseReader().apply(last), last.id());
+  }
+
+  public static CourseListCursor decode(String token) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      String[] parts = raw.split("\\|", 4);
+      // value may itself contain the separator (titles), so the id is encoded before it
+      CourseListCursor cursor = new CourseListCursor(parts[0], Sort.Direction.valueOf(parts[1]), parts[3],
+          UUID.fromString(parts[2]));
+      if (supports(cursor.field())) {
+        KEYS.get(cursor.field()).parser().apply(cursor.value());
+        return cursor;
+      }
+    } catch (RuntimeException e) {
+      // fall through to the uniform error below
+    }
+    throw new IllegalArgumentException("Invalid cursor");
+  }
+
+  public String encode() {
+    String raw = field + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR + value;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * The last row's sort value, parsed back to the type the field compares as.
+   */
+  public Comparable<?> boundary() {
+    return KEYS.get(field).parser().apply(value);
+  }
+
+  /**
+   * {@code (key, id) < (value, lastId)} for descending order, {@code >} for
+   * ascending, expanded so it works on databases without row comparisons.
+   */
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  public Predicate toPredicate(Root<Course> root, CriteriaBuilder cb) {
+    Expression key = sortExpression(root, cb, field);
+    Comparable boundary = (Comparable) boundary();
+    Expression<UUID> idPath = root.get("id");
+    if (direction == Sort.Direction.DESC) {
+      return cb.or(
+          cb.lessThan(key, boundary),
+          cb.and(cb.equal(key, boundary), cb.lessThan(idPath, id)));
+    }
+    return cb.or(
+        cb.greaterThan(key, boundary),
+        cb.and(cb.equal(key, boundary), cb.greaterThan(idPath, id)));
+  }
+
+  public static Expression<?> sortExpression(Root<Course> root, CriteriaBuilder cb, String field) {
+    if ("price".equals(field)) {
+      return cb.coalesce(root.<BigDecimal>get("price"), BigDecimal.ZERO);
+    }
+    return root.get(field);
+  }
+
+  private record SortKey(Function<Course, String> reader, Function<CourseResponse, String> responseReader,
+      Function<String, Comparable<?>> parser) {
+  }
+}
@@ -0,0 +1,72 @@
+package com.lms.course.application;
+
+import com.lms.course.application.CourseApplicationService.ConflictException;
+import com.lms.course.domain.CourseRepository;
+import com.lms.course.infrastructure.SlugBloomFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Picks the slug for a new course. The slug filter answers most lookups
+ * without a query; only a possible hit is confirmed against the table.
+ * Generated slugs are not retried: a taken one gets a suffix from the new
+ * course's id instead of probing {@code -2}, {@code -3}, ... one query at a
+ * time. The unique index still has the final say for two creators racing for
+ * the same slug.
+ */
+@Component
+@RequiredArgsConstructor
+public class CourseSlugAllocator {
+
+  private static final int MAX_LENGTH = 255;
+
+  private final CourseRepository courseRepository;
+  private final SlugBloomFilter slugFilter;
+
+  /**
+   * @param requested slug chosen by the caller, or {@code null} to derive one from the title
+   * @throws ConflictException if a requested slug is already taken
+   */
+  public String allocate(String requested, String title, UUID courseId) {
+    String slug;
+    if (requested != null && !requested.isBlank()) {
+      slug = requested;
+      if (isTaken(slug)) {
+        throw new ConflictException("Course with slug '" + slug + "' already exists");
+      }
+    } else {
+      String base = generateSlug(title);
+      slug = isTaken(base) ? withSuffix(base, courseId) : base;
+    }
+    slugFilter.add(slug);
+    return slug;
+  }
+
+  /**
+   * Registers a slug chosen elsewhere, such as for a course copy.
+   */
+  public void register(String slug) {
+    slugFilter.add(slug);
+  }
+
+  private boolean isTaken(String slug) {
+    return slugFilter.mightContain(slug) && courseRepository.existsBySlug(slug);
+  }
+
+  static String generateSlug(String title) {
+    String slug = title.toLowerCase()
+        .replaceAll("[^a-z0-9\\s-]", "")
+        .replaceAll("\\s+", "-")
+        .replaceAll("-+", "-")
+        .replaceAll("^-|-$", "");
+    return slug.isEmpty() ? "course" : slug;
+  }
+
+  static String withSuffix(String base, UUID courseId) {
+    String suffix = "-" + courseId.toString().substring(0, 8);
+    return (base.length() + suffix.length() > MAX_LENGTH ? base.substring(0, MAX_LENGTH - suffix.length()) : base)
+        + suffix;
+  }
+}
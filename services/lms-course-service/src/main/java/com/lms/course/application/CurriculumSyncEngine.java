@@ -0,0 +1,288 @@
+package com.lms.course.application;
+
+import com.lms.course.api.SyncCurriculumRequest;
+import com.lms.course.api.SyncCurriculumRequest.LessonSyncRequest;
+import com.lms.course.api.SyncCurriculumRequest.ModuleSyncRequest;
+import com.lms.course.domain.LessonType;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Applies a full-tree curriculum sync as the smallest set of row changes.
+ * The persisted tree is read with two queries, diffed against the request,
+ * and only rows that actually differ are inserted, updated or deleted, each
+ * kind in one JDBC batch. Lessons keep their id when they move between
+ * modules.
+ *
+ * <p>
+ * Autosaves usually resend an unchanged tree. The request's fingerprint is
+ * remembered against the content version it produced, so while the course is
+ * still at that version an identical request is recognised without reading
+ * the tree at all.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurriculumSyncEngine {
+
+  private static final Logger log = LoggerFactory.getLogger(CurriculumSyncEngine.class);
+  private static final String FINGERPRINT_KEY_PREFIX = "lms:course:curriculum-sync:";
+  private static final Duration FINGERPRINT_TTL = Duration.ofHours(1);
+  private static final int BATCH_SIZE = 500;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final StringRedisTemplate redisTemplate;
+
+  public record ModuleRow(UUID id, String title, int sortOrder) {
+  }
+
+  public record LessonRow(UUID id, UUID moduleId, String title, LessonType type, Integer durationMinutes,
+      int sortOrder, boolean isPreview) {
+  }
+
+  /**
+   * Row changes that turn the persisted tree into the requested one.
+   * {@code renamedLessons} is the subset of {@code updatedLessons} whose title
+   * changed, which is what learners are told about.
+   */
+  public record Diff(
+      List<ModuleRow> insertedModules,
+      List<ModuleRow> updatedModules,
+      List<UUID> deletedModules,
+      List<LessonRow> insertedLessons,
+      List<LessonRow> updatedLessons,
+      List<LessonRow> renamedLessons,
+      List<UUID> deletedLessons) {
+
+    public boolean isEmpty() {
+      return insertedModules.isEmpty() && updatedModules.isEmpty() && deletedModules.isEmpty()
+          && insertedLessons.isEmpty() && updatedLessons.isEmpty() && deletedLessons.isEmpty();
+    }
+  }
+
+  /**
+   * Hash of the tree a request describes, with positions standing in for
+   * missing sort orders, so equivalent requests fingerprint the same.
+   */
+  public String fingerprint(SyncCurriculumRequest request) {
+    MessageDigest digest = sha256();
+    for (int i = 0; i < request.modules().size(); i++) {
+      ModuleSyncRequest module = request.modules().get(i);
+      update(digest, "M", module.id(), module.title(), sortOrder(module.sortOrder(), i));
+      for (int j = 0; j < module.lessons().size(); j++) {
+        LessonSyncRequest lesson = module.lessons().get(j);
+        update(digest, "L", lesson.id(), lesson.title(), lesson.type(), lesson.durationMinutes(),
+            sortOrder(lesson.sortOrder(), j), lesson.isPreview());
+      }
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  /**
+   * Whether {@code fingerprint} is the last sync applied to the course and
+   * nothing has changed it since.
+   */
+  public boolean isLastSync(UUID courseId, long contentVersion, String fingerprint) {
+    try {
+      return (contentVersion + ":" + fingerprint).equals(redisTemplate.opsForValue().get(key(courseId)));
+    } catch (RuntimeException e) {
+      log.warn("Could not read last curriculum sync for course {}", courseId, e);
+      return false;
+    }
+  }
+
+  /**
+   * Records {@code fingerprint} as the sync that left the course at
+   * {@code contentVersion}, once the surrounding transaction commits.
+   */
+  public void rememberAfterCommit(UUID courseId, long contentVersion, String fingerprint) {
+    Runnable remember = () -> {
+      try {
+        redisTemplate.opsForValue().set(key(courseId), contentVersion + ":" + fingerprint, FINGERPRINT_TTL);
+      } catch (RuntimeException e) {
+        log.warn("Could not record curriculum sync for course {}", courseId, e);
+      }
+    };
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          remember.run();
+        }
+      });
+    } else {
+      remember.run();
+    }
+  }
+
+  public Diff diff(UUID courseId, SyncCurriculumRequest request) {
+    Map<UUID, ModuleRow> persistedModules = new LinkedHashMap<>();
+    jdbcTemplate.query("SELECT id, title, sort_order FROM lms_course.modules WHERE course_id = ?",
+        (RowCallbackHandler) rs -> {
+          UUID id = rs.getObject(1, UUID.class);
+          persistedModules.put(id, new ModuleRow(id, rs.getString(2), rs.getInt(3)));
+        },
+        courseId);
+    Map<UUID, LessonRow> persistedLessons = new LinkedHashMap<>();
+    jdbcTemplate.query("SELECT l.id, l.module_id, l.title, l.type, l.duration_minutes, l.sort_order, l.is_preview "
+        + "FROM lms_course.lessons l JOIN lms_course.modules m ON m.id = l.module_id WHERE m.course_id = ?",
+        (RowCallbackHandler) rs -> {
+          UUID id = rs.getObject(1, UUID.class);
+          persistedLessons.put(id, new LessonRow(id, rs.getObject(2, UUID.class), rs.getString(3),
+              LessonType.valueOf(rs.getString(4)), (Integer) rs.getObject(5), rs.getInt(6), rs.getBoolean(7)));
+        },
+        courseId);
+
+    List<ModuleRow> insertedModules = new ArrayList<>();
+    List<ModuleRow> updatedModules = new ArrayList<>();
+    List<LessonRow> insertedLessons = new ArrayList<>();
+    List<LessonRow> updatedLessons = new ArrayList<>();
+    List<LessonRow> renamedLessons = new ArrayList<>();
+    Map<UUID, ModuleRow> requestedModules = new LinkedHashMap<>();
+    Map<UUID, LessonRow> requestedLessons = new LinkedHashMap<>();
+
+    for (int i = 0; i < request.modules().size(); i++) {
+      ModuleSyncRequest moduleRequest = request.modules().get(i);
+      ModuleRow module = new ModuleRow(idOrNew(moduleRequest.id()), moduleRequest.title(),
+          sortOrder(moduleRequest.sortOrder(), i));
+      if (requestedModules.put(module.id(), module) != null) {
+        throw new IllegalArgumentException("Module " + module.id() + " appears more than once");
+      }
+      ModuleRow persisted = persistedModules.get(module.id());
+      if (persisted == null) {
+        insertedModules.add(module);
+      } else if (!persisted.equals(module)) {
+        updatedModules.add(module);
+      }
+
+      for (int j = 0; j < moduleRequest.lessons().size(); j++) {
+        LessonSyncRequest lessonRequest = moduleRequest.lessons().get(j);
+        LessonRow lesson = new LessonRow(idOrNew(lessonRequest.id()), module.id(), lessonRequest.title(),
+            LessonType.valueOf(lessonRequest.type()), lessonRequest.durationMinutes(),
+            sortOrder(lessonRequest.sortOrder(), j), lessonRequest.isPreview());
+        if (requestedLessons.put(lesson.id(), lesson) != null) {
+          throw new IllegalArgumentException("Lesson " + lesson.id() + " appears more than once");
+        }
+        LessonRow persistedLesson = persistedLessons.get(lesson.id());
+        if (persistedLesson == null) {
+          insertedLessons.add(lesson);
+        } else if (!persistedLesson.equals(lesson)) {
+          updatedLessons.add(lesson);
+          if (!Objects.equals(persistedLesson.title(), lesson.title())) {
+            renamedLessons.add(lesson);
+          }
+        }
+      }
+    }
+
+    List<UUID> deletedModules = persistedModules.keySet().stream()
+        .filter(id -> !requestedModules.containsKey(id))
+        .toList();
+    List<UUID> deletedLessons = persistedLessons.keySet().stream()
+        .filter(id -> !requestedLessons.containsKey(id))
+        .toList();
+    return new Diff(insertedModules, updatedModules, deletedModules, insertedLessons, updatedLessons,
+        renamedLessons, deletedLessons);
+  }
+
+  /**
+   * Writes a diff in an order that never violates the lesson-to-module key:
+   * new modules first, then lesson moves and inserts, then deletions.
+   */
+  public void apply(UUID courseId, Diff diff) {
+    Timestamp now = Timestamp.from(Instant.now());
+    jdbcTemplate.batchUpdate("INSERT INTO lms_course.modules (id, course_id, title, sort_order, created_at, updated_at) "
+        + "VALUES (?, ?, ?, ?, ?, ?)", diff.insertedModules(), BATCH_SIZE, (ps, m) -> {
+          ps.setObject(1, m.id());
+          ps.setObject(2, courseId);
+          ps.setString(3, m.title());
+          ps.setInt(4, m.sortOrder());
+          ps.setTimestamp(5, now);
+          ps.setTimestamp(6, now);
+        });
+    jdbcTemplate.batchUpdate("UPDATE lms_course.lessons SET module_id = ?, title = ?, type = ?, duration_minutes = ?, "
+        + "sort_order = ?, is_preview = ?, updated_at = ? WHERE id = ?", diff.updatedLessons(), BATCH_SIZE,
+        (ps, l) -> {
+          ps.setObject(1, l.moduleId());
+          ps.setString(2, l.title());
+          ps.setString(3, l.type().name());
+          ps.setObject(4, l.durationMinutes());
+          ps.setInt(5, l.sortOrder());
+          ps.setBoolean(6, l.isPreview());
+          ps.setTimestamp(7, now);
+          ps.setObject(8, l.id());
+        });
+    jdbcTemplate.batchUpdate("INSERT INTO lms_course.lessons (id, module_id, title, type, duration_minutes, "
+        + "sort_order, is_preview, status, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, 'PUBLISHED', ?, ?)",
+        diff.insertedLessons(), BATCH_SIZE, (ps, l) -> {
+          ps.setObject(1, l.id());
+          ps.setObject(2, l.moduleId());
+          ps.setString(3, l.title());
+          ps.setString(4, l.type().name());
+          ps.setObject(5, l.durationMinutes());
+          ps.setInt(6, l.sortOrder());
+          ps.setBoolean(7, l.isPreview());
+          ps.setTimestamp(8, now);
+          ps.setTimestamp(9, now);
+        });
+    jdbcTemplate.batchUpdate("DELETE FROM lms_course.lessons WHERE id = ?", diff.deletedLessons(), BATCH_SIZE,
+        (ps, id) -> ps.setObject(1, id));
+    jdbcTemplate.batchUpdate("DELETE FROM lms_course.modules WHERE id = ?", diff.deletedModules(), BATCH_SIZE,
+        (ps, id) -> ps.setObject(1, id));
+    jdbcTemplate.batchUpdate("UPDATE lms_course.modules SET title = ?, sort_order = ?, updated_at = ? WHERE id = ?",
+        diff.updatedModules(), BATCH_SIZE, (ps, m) -> {
+          ps.setString(1, m.title());
+          ps.setInt(2, m.sortOrder());
+          ps.setTimestamp(3, now);
+          ps.setObject(4, m.id());
+        });
+  }
+
+  private static UUID idOrNew(UUID id) {
+    return id != null ? id : UUID.randomUUID();
+  }
+
+  private static int sortOrder(Integer requested, int position) {
+    return requested != null ? requested : position;
+  }
+
+  private static void update(MessageDigest digest, Object... fields) {
+    for (Object field : fields) {
+      String value = String.valueOf(field);
+      // Length-prefixed so that field boundaries cannot be forged by content
+      digest.update((value.length() + ":" + value + ";").getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String key(UUID courseId) {
+    return FINGERPRINT_KEY_PREFIX + courseId;
+  }
+}
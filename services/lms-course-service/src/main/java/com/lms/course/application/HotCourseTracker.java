@@ -0,0 +1,128 @@
+package com.lms.course.application;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Approximate view counts per course in fixed memory: a count-min sketch
+ * estimates every course's count, and the courses with the highest estimates
+ * are kept as heavy-hitter candidates. Recording is lock-free unless a course
+ * is about to enter the candidate set.
+ *
+ * <p>
+ * {@link #decay} halves every count, so the hot set follows recent traffic
+ * rather than all-time totals.
+ */
+@Component
+public class HotCourseTracker {
+
+  /** Candidates kept beyond the top-K so a course can climb in before it is reported. */
+  private static final int CANDIDATE_FACTOR = 4;
+
+  private final int width;
+  private final int depth;
+  private final AtomicLongArray counters;
+  private final int capacity;
+  private final Map<UUID, Long> candidates = new ConcurrentHashMap<>();
+  private volatile long admissionThreshold;
+
+  public HotCourseTracker(@Value("${lms.course.hot.sketch-width:2048}") int width,
+      @Value("${lms.course.hot.sketch-depth:4}") int depth,
+      @Value("${lms.course.hot.top-k:50}") int topK) {
+    if (width < 1 || depth < 1 || topK < 1) {
+      throw new IllegalArgumentException("Sketch width, depth and top-k must be positive");
+    }
+    this.width = width;
+    this.depth = depth;
+    this.counters = new AtomicLongArray(width * depth);
+    this.capacity = topK * CANDIDATE_FACTOR;
+  }
+
+  public void record(UUID courseId) {
+    long hash = mix(courseId.getMostSignificantBits() ^ Long.rotateLeft(courseId.getLeastSignificantBits(), 32));
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32) | 1;
+    long estimate = Long.MAX_VALUE;
+    for (int row = 0; row < depth; row++) {
+      int column = Math.floorMod(h1 + row * h2, width);
+      estimate = Math.min(estimate, counters.incrementAndGet(row * width + column));
+    }
+    if (candidates.containsKey(courseId)) {
+      candidates.put(courseId, estimate);
+    } else if (candidates.size() < capacity || estimate > admissionThreshold) {
+      admit(courseId, estimate);
+    }
+  }
+
+  /**
+   * Up to {@code limit} courses with the highest estimated counts, hottest first.
+   */
+  public List<UUID> top(int limit) {
+    return candidates.entrySet().stream()
+        .sorted(Map.Entry.<UUID, Long>comparingByValue(Comparator.reverseOrder()))
+        .limit(limit)
+        .map(Map.Entry::getKey)
+        .toList();
+  }
+
+  /**
+   * Estimated count for a candidate, or 0 if the course is not one.
+   */
+  public long estimate(UUID courseId) {
+    return candidates.getOrDefault(courseId, 0L);
+  }
+
+  /**
+   * Halves every count and drops candidates that fall to zero.
+   */
+  public synchronized void decay() {
+    for (int i = 0; i < counters.length(); i++) {
+      counters.updateAndGet(i, c -> c >>> 1);
+    }
+    candidates.replaceAll((id, count) -> count >>> 1);
+    candidates.values().removeIf(count -> count == 0);
+    admissionThreshold >>>= 1;
+  }
+
+  private synchronized void admit(UUID courseId, long estimate) {
+    if (candidates.size() >= capacity) {
+      Map.Entry<UUID, Long> coldest = null;
+      for (Map.Entry<UUID, Long> entry : candidates.entrySet()) {
+        if (coldest == null || entry.getValue() < coldest.getValue()) {
+          coldest = entry;
+        }
+      }
+      if (coldest == null || coldest.getValue() >= estimate) {
+        admissionThreshold = coldest != null ? coldest.getValue() : 0;
+        return;
+      }
+      candidates.remove(coldest.getKey());
+    }
+    candidates.put(courseId, estimate);
+    if (candidates.size() >= capacity) {
+      admissionThreshold = minimum();
+    }
+  }
+
+  private long minimum() {
+    long min = Long.MAX_VALUE;
+    for (long count : candidates.values()) {
+      min = Math.min(min, count);
+    }
+    return min == Long.MAX_VALUE ? 0 : min;
+  }
+
+  // SplitMix64 finalizer; uuids from the same generator share bit patterns
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -0,0 +1,147 @@
+package com.lms.course.application;
+
+import com.lms.course.application.CourseApplicationService.CourseNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps the most viewed courses in the {@code courses} cache so a deploy or a
+ * Redis flush does not send their first requests to Postgres all at once.
+ *
+ * <p>
+ * Every {@code lms.course.hot.warm-interval} each pod loads the detail of its
+ * hottest courses (per {@link HotCourseTracker}) at their current content
+ * version, merges them into a shared hot list in Redis and decays its counts.
+ * A pod that has just started has no counts of its own, so it warms from the
+ * shared list before it reports ready. Loads go through the cache, so a course
+ * that is already cached costs a lookup.
+ */
+@Component
+public class HotCourseWarmer {
+
+  private static final Logger log = LoggerFactory.getLogger(HotCourseWarmer.class);
+  private static final String HOT_LIST_KEY = "lms:course:hot";
+
+  private final HotCourseTracker tracker;
+  private final CourseCacheService courseCacheService;
+  private final CourseContentVersions contentVersions;
+  private final StringRedisTemplate redisTemplate;
+  private final Counter warmed;
+  private final Counter warmFailures;
+
+  @Value("${lms.course.hot.enabled:true}")
+  private boolean enabled;
+
+  @Value("${lms.course.hot.top-k:50}")
+  private int topK;
+
+  public HotCourseWarmer(HotCourseTracker tracker, CourseCacheService courseCacheService,
+      CourseContentVersions contentVersions, StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+    this.tracker = tracker;
+    this.courseCacheService = courseCacheService;
+    this.contentVersions = contentVersions;
+    this.redisTemplate = redisTemplate;
+    this.warmed = Counter.builder("lms.course.hot.warmed")
+        .description("Course details loaded by the hot-course warmer")
+        .register(meterRegistry);
+    this.warmFailures = Counter.builder("lms.course.hot.warm.failures")
+        .register(meterRegistry);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmOnStartup() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      Set<String> persisted = redisTemplate.opsForZSet().reverseRange(HOT_LIST_KEY, 0, topK - 1);
+      if (persisted == null || persisted.isEmpty()) {
+        return;
+      }
+      List<UUID> ids = new ArrayList<>(persisted.size());
+      for (String id : persisted) {
+        ids.add(UUID.fromString(id));
+      }
+      long started = System.currentTimeMillis();
+      int loaded = warm(ids);
+      log.info("Warmed {} of {} hot courses on startup in {} ms", loaded, ids.size(),
+          System.currentTimeMillis() - started);
+    } catch (RuntimeException e) {
+      log.warn("Could not warm hot courses on startup", e);
+    }
+  }
+
+  @Scheduled(initialDelayString = "${lms.course.hot.warm-interval:PT1M}",
+      fixedDelayString = "${lms.course.hot.warm-interval:PT1M}")
+  public void warmHotCourses() {
+    if (!enabled) {
+      return;
+    }
+    List<UUID> hot = tracker.top(topK);
+    if (!hot.isEmpty()) {
+      warm(hot);
+      persist(hot);
+    }
+    tracker.decay();
+  }
+
+  private int warm(List<UUID> courseIds) {
+    int loaded = 0;
+    for (UUID courseId : courseIds) {
+      try {
+        Long version = contentVersions.current(courseId);
+        if (version == null) {
+          forget(courseId);
+          continue;
+        }
+        courseCacheService.getCourseDetail(courseId, version);
+        warmed.increment();
+        loaded++;
+      } catch (CourseNotFoundException e) {
+        forget(courseId);
+      } catch (RuntimeException e) {
+        warmFailures.increment();
+        log.warn("Could not warm course {}", courseId, e);
+      }
+    }
+    return loaded;
+  }
+
+  // Scores are this pod's decayed estimates, so the list follows recent
+  // traffic; it is trimmed to a few times the top-K across all pods
+  private void persist(List<UUID> hot) {
+    try {
+      Set<ZSetOperations.TypedTuple<String>> entries = new HashSet<>();
+      for (UUID courseId : hot) {
+        entries.add(ZSetOperations.TypedTuple.of(courseId.toString(), (double) tracker.estimate(courseId)));
+      }
+      redisTemplate.opsForZSet().add(HOT_LIST_KEY, entries);
+      redisTemplate.opsForZSet().removeRange(HOT_LIST_KEY, 0, -(4L * topK) - 1);
+    } catch (RuntimeException e) {
+      log.warn("Could not persist the hot course list", e);
+    }
+  }
+
+  private void forget(UUID courseId) {
+    try {
+      redisTemplate.opsForZSet().remove(HOT_LIST_KEY, courseId.toString());
+    } catch (RuntimeException e) {
+      log.debug("Could not remove course {} from the hot list", courseId, e);
+    }
+  }
+}
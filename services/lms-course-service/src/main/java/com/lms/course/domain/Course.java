@@ -80,6 +80,10 @@ public class Course {
   @Column(name = "tag")
   private Set<String> tags = new HashSet<>();
 
+  // Only ever incremented in place by CourseRepository.incrementContentVersion
+  @Column(name = "content_version", nullable = false, updatable = false)
+  private long contentVersion;
+
   @CreatedDate
   @Column(name = "created_at", nullable = false, updatable = false)
   private Instant createdAt;
@@ -1,8 +1,11 @@
 package com.lms.course.domain;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 @Repository
@@ -10,4 +13,7 @@ public interface CourseInstructorRepository extends JpaRepository<CourseInstruct
   void deleteByUserId(UUID userId);
 
   long countByUserId(UUID userId);
+
+  @Query("SELECT ci.course.id FROM CourseInstructor ci WHERE ci.userId = :userId")
+  List<UUID> findCourseIdsByUserId(@Param("userId") UUID userId);
 }
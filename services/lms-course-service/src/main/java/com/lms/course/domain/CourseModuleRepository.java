@@ -1,9 +1,13 @@
 package com.lms.course.domain;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,5 +18,12 @@ public interface CourseModuleRepository extends JpaRepository<CourseModule, UUID
     @Query("SELECT m FROM CourseModule m WHERE m.course.id = :courseId ORDER BY m.sortOrder ASC")
     List<CourseModule> findByCourseId(@Param("courseId") UUID courseId);
 
+    /**
+     * Modules of a batch of courses with their lessons, in one statement.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT m FROM CourseModule m LEFT JOIN FETCH m.lessons WHERE m.course.id IN :courseIds")
+    List<CourseModule> findWithLessonsByCourseIdIn(@Param("courseIds") Collection<UUID> courseIds);
+
   void deleteByCourseId(UUID courseId);
 }
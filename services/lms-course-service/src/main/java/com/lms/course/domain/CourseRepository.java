@@ -1,16 +1,22 @@
 package com.lms.course.domain;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface CourseRepository extends JpaRepository<Course, UUID>, JpaSpecificationExecutor<Course> {
 
@@ -40,8 +46,98 @@ public interface CourseRepository extends JpaRepository<Course, UUID>, JpaSpecif
   List<Course> findPublishedOrInstructor(@Param("userId") UUID userId, @Param("createdAt") Instant createdAt,
       Pageable pageable);
 
-  @Query("SELECT c.updatedAt FROM Course c WHERE c.id = :courseId")
-  Optional<Instant> findUpdatedAtById(@Param("courseId") UUID courseId);
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("UPDATE Course c SET c.status = :status, c.updatedAt = :updatedAt WHERE c.id IN :courseIds")
+  int updateStatusByIdIn(@Param("courseIds") Collection<UUID> courseIds, @Param("status") CourseStatus status,
+      @Param("updatedAt") Instant updatedAt);
+
+  @Modifying(flushAutomatically = true)
+  @Query("UPDATE Course c SET c.contentVersion = c.contentVersion + 1 WHERE c.id IN :courseIds")
+  int incrementContentVersion(@Param("courseIds") Collection<UUID> courseIds);
+
+  @Query("SELECT c.contentVersion FROM Course c WHERE c.id = :courseId")
+  Optional<Long> findContentVersionById(@Param("courseId") UUID courseId);
+
+  @Query("SELECT c.id AS id, c.contentVersion AS contentVersion FROM Course c WHERE c.id IN :courseIds")
+  List<ContentVersion> findContentVersionsByIdIn(@Param("courseIds") Collection<UUID> courseIds);
+
+  interface ContentVersion {
+    UUID getId();
+
+    long getContentVersion();
+  }
+
+  /**
+   * Loads a course with its full curriculum tree in four statements regardless
+   * of how many modules and lessons it has. Each collection is fetched by its
+   * own query so that no two of them are joined into a cartesian product; all
+   * of them populate the same managed {@link Course} instance.
+   */
+  default Optional<Course> findCurriculumTreeById(UUID courseId) {
+    Optional<Course> course = findWithModulesById(courseId);
+    if (course.isPresent()) {
+      findWithInstructorsById(courseId);
+      findWithTagsById(courseId);
+      fetchModuleLessons(courseId);
+    }
+    return course;
+  }
+
+  @Query("SELECT c FROM Course c LEFT JOIN FETCH c.modules WHERE c.id = :courseId")
+  Optional<Course> findWithModulesById(@Param("courseId") UUID courseId);
+
+  @Query("SELECT c FROM Course c LEFT JOIN FETCH c.tags WHERE c.id = :courseId")
+  Optional<Course> findWithTagsById(@Param("courseId") UUID courseId);
+
+  @Query("SELECT c FROM Course c LEFT JOIN FETCH c.instructors WHERE c.id = :courseId")
+  Optional<Course> findWithInstructorsById(@Param("courseId") UUID courseId);
+
+  @Query("SELECT m FROM CourseModule m LEFT JOIN FETCH m.lessons WHERE m.course.id = :courseId")
+  List<CourseModule> fetchModuleLessons(@Param("courseId") UUID courseId);
+
+  /**
+   * Catalog rows with the collections a list entry needs, in one statement.
+   * Tags and instructors are both small, so their product per course is cheap.
+   */
+  @Query("SELECT DISTINCT c FROM Course c LEFT JOIN FETCH c.tags LEFT JOIN FETCH c.instructors " +
+      "WHERE c.status = :status")
+  List<Course> findCatalogEntriesByStatus(@Param("status") CourseStatus status);
+
+  @Query("SELECT DISTINCT c FROM Course c LEFT JOIN FETCH c.tags LEFT JOIN FETCH c.instructors " +
+      "WHERE c.updatedAt >= :since")
+  List<Course> findCatalogEntriesUpdatedSince(@Param("since") Instant since);
+
+  @Query("SELECT DISTINCT c FROM Course c LEFT JOIN FETCH c.tags LEFT JOIN FETCH c.instructors " +
+      "WHERE c.id = :courseId")
+  Optional<Course> findCatalogEntryById(@Param("courseId") UUID courseId);
+
+  /**
+   * Summaries for a batch of courses in one statement; the lesson count is a
+   * correlated subquery so no curriculum rows are loaded.
+   */
+  @Query("SELECT new com.lms.course.domain.CourseSummary(c.id, c.title, c.thumbnailUrl, c.status, c.isFree, " +
+      "c.price, c.currency, " +
+      "(SELECT COUNT(l) FROM Lesson l WHERE l.module.course = c), " +
+      "c.completionThreshold, c.requireAllAssignments) " +
+      "FROM Course c WHERE c.id IN :courseIds")
+  List<CourseSummary> findSummariesByIdIn(@Param("courseIds") Collection<UUID> courseIds);
+
+  /**
+   * Every course (optionally of one status) as a server-side cursor, for
+   * exports. Must be consumed inside a transaction and closed; rows are not
+   * snapshotted for dirty checking.
+   */
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+  @Query("SELECT c FROM Course c WHERE (:status IS NULL OR c.status = :status) ORDER BY c.id")
+  Stream<Course> streamForExport(@Param("status") CourseStatus status);
+
+  /**
+   * Tags of a batch of courses as {@code [courseId, tag]} pairs.
+   */
+  @Query("SELECT c.id, t FROM Course c JOIN c.tags t WHERE c.id IN :courseIds")
+  List<Object[]> findTagsByCourseIdIn(@Param("courseIds") Collection<UUID> courseIds);
 
   @Query("SELECT c FROM Course c JOIN c.instructors ci " +
       "WHERE ci.userId = :userId AND c.createdAt < :createdAt ORDER BY c.createdAt DESC")
@@ -0,0 +1,21 @@
+package com.lms.course.domain;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Read-only projection of the course fields other services show next to their
+ * own rows, plus the lesson count they compute progress against.
+ */
+public record CourseSummary(
+    UUID id,
+    String title,
+    String thumbnailUrl,
+    CourseStatus status,
+    boolean isFree,
+    BigDecimal price,
+    String currency,
+    long lessonCount,
+    BigDecimal completionThreshold,
+    boolean requireAllAssignments) {
+}
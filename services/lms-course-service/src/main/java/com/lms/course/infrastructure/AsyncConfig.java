@@ -0,0 +1,49 @@
+package com.lms.course.infrastructure;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+  /**
+   * Runs background course copies. Deliberately small and bounded: each job
+   * holds a database connection per slice, and a full queue rejects new jobs
+   * instead of letting them pile up.
+   */
+  @Bean
+  public ThreadPoolTaskExecutor courseCopyExecutor(
+      @Value("${lms.course.duplicate.workers:2}") int workers,
+      @Value("${lms.course.duplicate.queue-capacity:20}") int queueCapacity) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(workers);
+    executor.setMaxPoolSize(workers);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("course-copy-");
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(30);
+    return executor;
+  }
+
+  /**
+   * Runs lookups that course detail requests overlap with their own work.
+   * When it is saturated the request thread runs the lookup itself, so
+   * overload degrades to sequential assembly instead of failing.
+   */
+  @Bean
+  public ThreadPoolTaskExecutor courseDetailExecutor(
+      @Value("${lms.course.detail.workers:16}") int workers,
+      @Value("${lms.course.detail.queue-capacity:100}") int queueCapacity) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(workers);
+    executor.setMaxPoolSize(workers);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("course-detail-");
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    return executor;
+  }
+}
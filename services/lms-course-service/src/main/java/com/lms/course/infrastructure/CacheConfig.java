@@ -4,40 +4,157 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lms.course.api.CourseDetailResponse;
+import com.lms.course.api.ModuleResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 import java.time.Duration;
 
 @Configuration
 public class CacheConfig {
 
+  public static final String COURSES_CACHE = "courses";
+
+  @Value("${lms.course.cache.l1.max-weight:50000}")
+  private long l1MaxWeight;
+
+  @Value("${lms.course.cache.l1.ttl:60s}")
+  private Duration l1Ttl;
+
+  /**
+   * How long one pod may hold the lock for loading a missing course detail
+   * while the others wait on L2 for it; zero lets every pod load on its own.
+   */
+  @Value("${lms.course.cache.load-lock-ttl:PT2S}")
+  private Duration loadLockTtl;
+
+  /**
+   * Value codec for the courses cache: {@code json} (legacy) or {@code binary}.
+   * Both are always readable; this only selects what new entries are written as.
+   */
+  @Value("${lms.course.cache.codec:json}")
+  private String coursesCodec;
+
   @Bean
   public RedisCacheConfiguration cacheConfiguration() {
+    return RedisCacheConfiguration.defaultCacheConfig()
+        .entryTtl(Duration.ofMinutes(5))
+        .disableCachingNullValues()
+        .serializeValuesWith(
+            RedisSerializationContext.SerializationPair.fromSerializer(jsonCacheSerializer()));
+  }
+
+  public static GenericJackson2JsonRedisSerializer jsonCacheSerializer() {
     ObjectMapper objectMapper = new ObjectMapper();
     objectMapper.registerModule(new JavaTimeModule());
     objectMapper.activateDefaultTyping(
         LaissezFaireSubTypeValidator.instance,
         ObjectMapper.DefaultTyping.EVERYTHING,
         JsonTypeInfo.As.PROPERTY);
+    return new GenericJackson2JsonRedisSerializer(objectMapper);
+  }
 
-    return RedisCacheConfiguration.defaultCacheConfig()
-        .entryTtl(Duration.ofMinutes(5))
-        .disableCachingNullValues()
-        .serializeValuesWith(
-            RedisSerializationContext.SerializationPair.fromSerializer(
-                new GenericJackson2JsonRedisSerializer(objectMapper)));
+  private RedisCacheConfiguration coursesCacheConfiguration() {
+    RedisSerializer<Object> json = jsonCacheSerializer();
+    CourseDetailRedisSerializer binary = new CourseDetailRedisSerializer(json);
+    RedisSerializer<Object> writer = "binary".equalsIgnoreCase(coursesCodec)
+        ? binary
+        : new ReadAnyWriteJsonSerializer(json, binary);
+    return cacheConfiguration()
+        .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(writer));
   }
 
   @Bean
-  public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-    return RedisCacheManager.builder(connectionFactory)
+  public TwoTierCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+      StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+    RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
         .cacheDefaults(cacheConfiguration())
+        .withCacheConfiguration(COURSES_CACHE, coursesCacheConfiguration())
+        .build();
+    redisCacheManager.afterPropertiesSet();
+
+    TwoTierCacheManager cacheManager = new TwoTierCacheManager(redisCacheManager);
+    cacheManager.register(new TwoTierCache(
+        COURSES_CACHE,
+        courseDetailLocalCache(meterRegistry),
+        redisCacheManager.getCache(COURSES_CACHE),
+        redisTemplate,
+        TwoTierCacheManager.INVALIDATION_CHANNEL_PREFIX + COURSES_CACHE,
+        loadLockTtl,
+        meterRegistry));
+    return cacheManager;
+  }
+
+  @Bean
+  public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+      RedisConnectionFactory connectionFactory, TwoTierCacheManager cacheManager) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(connectionFactory);
+    container.addMessageListener(cacheManager,
+        new PatternTopic(TwoTierCacheManager.INVALIDATION_CHANNEL_PREFIX + "*"));
+    return container;
+  }
+
+  /**
+   * L1 is bounded by curriculum size rather than entry count so a handful of
+   * very large courses cannot crowd out the popular ones.
+   */
+  private Cache<String, Object> courseDetailLocalCache(MeterRegistry meterRegistry) {
+    Cache<String, Object> cache = Caffeine.newBuilder()
+        .maximumWeight(l1MaxWeight)
+        .weigher((String key, Object value) -> weigh(value))
+        .expireAfterWrite(l1Ttl)
+        .removalListener((key, value, cause) -> meterRegistry.counter("lms.cache.evictions",
+            "cache", COURSES_CACHE, "tier", "l1", "cause", cause.name()).increment())
         .build();
+    Gauge.builder("lms.cache.size", cache, Cache::estimatedSize)
+        .tag("cache", COURSES_CACHE)
+        .tag("tier", "l1")
+        .register(meterRegistry);
+    return cache;
+  }
+
+  /**
+   * Writes JSON so pods without the binary codec can still read new entries,
+   * but decodes binary entries already written by upgraded pods.
+   */
+  private record ReadAnyWriteJsonSerializer(RedisSerializer<Object> json, RedisSerializer<Object> reader)
+      implements RedisSerializer<Object> {
+
+    @Override
+    public byte[] serialize(Object value) {
+      return json.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+      return reader.deserialize(bytes);
+    }
+  }
+
+  private static int weigh(Object value) {
+    if (!(value instanceof CourseDetailResponse detail) || detail.modules() == null) {
+      return 1;
+    }
+    int weight = 1;
+    for (ModuleResponse module : detail.modules()) {
+      weight += 1 + (module.lessons() != null ? module.lessons().size() : 0);
+    }
+    return weight;
   }
 }
@@ -0,0 +1,42 @@
+package com.lms.course.infrastructure;
+
+import com.lms.common.events.EventEnvelope;
+import com.lms.course.application.CourseCatalogSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps this pod's catalog snapshot current. Every pod needs every event, so
+ * each one is assigned all partitions directly, with no consumer group, and
+ * starts from the latest offset; anything published before startup is covered
+ * by the initial rebuild. See {@link CourseCatalogKafkaConfig}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CourseCatalogEventConsumer {
+
+  private final CourseCatalogSnapshot catalogSnapshot;
+
+  @KafkaListener(containerFactory = "catalogBroadcastListenerFactory",
+      topicPartitions = @TopicPartition(topic = "course.events", partitions = "#{@coursePartitions.of('course.events')}"),
+      autoStartup = "${lms.course.catalog.enabled:true}")
+  public void handleCourseEvent(EventEnvelope<Map<String, Object>> event) {
+    try {
+      switch (event.eventType()) {
+        case "CourseCreated", "CourseUpdated" -> catalogSnapshot.refresh(UUID.fromString(event.aggregateId()));
+        case "CourseDeleted" -> catalogSnapshot.remove(UUID.fromString(event.aggregateId()));
+        default -> log.debug("Ignoring event type for catalog: {}", event.eventType());
+      }
+    } catch (Exception e) {
+      // The next poll picks the change up
+      log.warn("Failed to apply {} for course {} to catalog snapshot", event.eventType(), event.aggregateId(), e);
+    }
+  }
+}
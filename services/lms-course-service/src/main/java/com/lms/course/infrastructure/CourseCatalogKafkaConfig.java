@@ -0,0 +1,70 @@
+package com.lms.course.infrastructure;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Consumers for {@link CourseCatalogEventConsumer}: every pod reads every
+ * partition itself, outside any consumer group. Nothing is committed, so
+ * restarts and scale-downs leave no groups or offsets behind on the brokers.
+ */
+@Configuration
+public class CourseCatalogKafkaConfig {
+
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<Object, Object> catalogBroadcastListenerFactory(
+      ConcurrentKafkaListenerContainerFactoryConfigurer configurer, KafkaProperties properties,
+      ObjectProvider<SslBundles> sslBundles) {
+    ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+    configurer.configure(factory, broadcastConsumerFactory(properties, sslBundles.getIfAvailable()));
+    return factory;
+  }
+
+  @Bean
+  public CoursePartitions coursePartitions(KafkaProperties properties, ObjectProvider<SslBundles> sslBundles) {
+    return new CoursePartitions(broadcastConsumerFactory(properties, sslBundles.getIfAvailable()));
+  }
+
+  // Without a group id the container neither joins a group nor commits offsets
+  private static ConsumerFactory<Object, Object> broadcastConsumerFactory(KafkaProperties properties,
+      SslBundles sslBundles) {
+    Map<String, Object> config = properties.buildConsumerProperties(sslBundles);
+    config.remove(ConsumerConfig.GROUP_ID_CONFIG);
+    config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+    config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+    return new DefaultKafkaConsumerFactory<>(config);
+  }
+
+  /**
+   * Looks up a topic's partitions for manual assignment. Partitions added to
+   * the topic later are picked up on the next restart.
+   */
+  public static class CoursePartitions {
+
+    private final ConsumerFactory<Object, Object> consumerFactory;
+
+    CoursePartitions(ConsumerFactory<Object, Object> consumerFactory) {
+      this.consumerFactory = consumerFactory;
+    }
+
+    public String[] of(String topic) {
+      try (Consumer<Object, Object> consumer = consumerFactory.createConsumer()) {
+        return consumer.partitionsFor(topic, Duration.ofSeconds(30)).stream()
+            .map(partition -> String.valueOf(partition.partition()))
+            .toArray(String[]::new);
+      }
+    }
+  }
+}
@@ -0,0 +1,357 @@
+package com.lms.course.infrastructure;
+
+import com.lms.course.api.CourseDetailResponse;
+import com.lms.course.api.LessonResponse;
+import com.lms.course.api.ModuleResponse;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Schema-aware binary codec for cached {@link CourseDetailResponse} trees.
+ *
+ * <p>
+ * Every entry starts with a magic byte and a format version so that readers
+ * can pick the matching decoder. Anything without the magic byte (e.g. entries
+ * written by older pods with the JSON serializer) is handed to the fallback
+ * serializer. Pods running this class read both formats, so the writer can be
+ * switched with {@code lms.course.cache.codec=binary} once every pod has been
+ * rolled.
+ */
+public class CourseDetailRedisSerializer implements RedisSerializer<Object> {
+
+  static final byte MAGIC = (byte) 0xC7;
+  static final byte VERSION_1 = 1;
+
+  private static final byte NULL = 0;
+  private static final byte PRESENT = 1;
+
+  private final RedisSerializer<Object> fallback;
+
+  public CourseDetailRedisSerializer(RedisSerializer<Object> fallback) {
+    this.fallback = fallback;
+  }
+
+  @Override
+  public byte[] serialize(Object value) throws SerializationException {
+    if (!(value instanceof CourseDetailResponse course)) {
+      return fallback.serialize(value);
+    }
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeByte(MAGIC);
+      out.writeByte(VERSION_1);
+      writeCourse(out, course);
+      out.flush();
+      return bytes.toByteArray();
+    } catch (IOException e) {
+      throw new SerializationException("Could not encode course " + course.id(), e);
+    }
+  }
+
+  @Override
+  public Object deserialize(byte[] bytes) throws SerializationException {
+    if (bytes == null || bytes.length == 0) {
+      return null;
+    }
+    if (bytes[0] != MAGIC) {
+      return fallback.deserialize(bytes);
+    }
+    try {
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 2, bytes.length - 2));
+      return switch (bytes[1]) {
+        case VERSION_1 -> readCourseV1(in);
+        default -> throw new SerializationException("Unsupported course codec version " + bytes[1]);
+      };
+    } catch (IOException e) {
+      throw new SerializationException("Could not decode cached course", e);
+    }
+  }
+
+  private static void writeCourse(DataOutputStream out, CourseDetailResponse c) throws IOException {
+    writeUuid(out, c.id());
+    writeString(out, c.title());
+    writeString(out, c.slug());
+    writeString(out, c.description());
+    writeString(out, c.category());
+    writeString(out, c.level());
+    writeDecimal(out, c.price());
+    writeString(out, c.currency());
+    writeBoolean(out, c.isFree());
+    writeString(out, c.thumbnailUrl());
+    writeString(out, c.status());
+    writeBoolean(out, c.isFeatured());
+    writeBoolean(out, c.isTrending());
+    writeDecimal(out, c.completionThreshold());
+    writeBoolean(out, c.requireAllAssignments());
+
+    if (c.tags() == null) {
+      out.writeInt(-1);
+    } else {
+      out.writeInt(c.tags().size());
+      for (String tag : c.tags()) {
+        writeString(out, tag);
+      }
+    }
+
+    if (c.modules() == null) {
+      out.writeInt(-1);
+    } else {
+      out.writeInt(c.modules().size());
+      for (ModuleResponse module : c.modules()) {
+        writeModule(out, module);
+      }
+    }
+
+    if (c.instructorIds() == null) {
+      out.writeInt(-1);
+    } else {
+      out.writeInt(c.instructorIds().size());
+      for (UUID instructorId : c.instructorIds()) {
+        writeUuid(out, instructorId);
+      }
+    }
+
+    writeInstant(out, c.createdAt());
+    writeInstant(out, c.updatedAt());
+  }
+
+  private static void writeModule(DataOutputStream out, ModuleResponse m) throws IOException {
+    if (m == null) {
+      out.writeByte(NULL);
+      return;
+    }
+    out.writeByte(PRESENT);
+    writeUuid(out, m.id());
+    writeString(out, m.title());
+    writeInteger(out, m.sortOrder());
+    if (m.lessons() == null) {
+      out.writeInt(-1);
+    } else {
+      out.writeInt(m.lessons().size());
+      for (LessonResponse lesson : m.lessons()) {
+        writeLesson(out, lesson);
+      }
+    }
+    writeInstant(out, m.createdAt());
+    writeInstant(out, m.updatedAt());
+  }
+
+  private static void writeLesson(DataOutputStream out, LessonResponse l) throws IOException {
+    if (l == null) {
+      out.writeByte(NULL);
+      return;
+    }
+    out.writeByte(PRESENT);
+    writeUuid(out, l.id());
+    writeString(out, l.title());
+    writeString(out, l.type());
+    writeInteger(out, l.durationMinutes());
+    writeInteger(out, l.sortOrder());
+    writeBoolean(out, l.isPreview());
+    writeBoolean(out, l.canWatch());
+    writeString(out, l.status());
+    writeInstant(out, l.availableAt());
+    writeInstant(out, l.createdAt());
+    writeInstant(out, l.updatedAt());
+  }
+
+  private static CourseDetailResponse readCourseV1(DataInputStream in) throws IOException {
+    UUID id = readUuid(in);
+    String title = readString(in);
+    String slug = readString(in);
+    String description = readString(in);
+    String category = readString(in);
+    String level = readString(in);
+    BigDecimal price = readDecimal(in);
+    String currency = readString(in);
+    Boolean isFree = readBoolean(in);
+    String thumbnailUrl = readString(in);
+    String status = readString(in);
+    Boolean isFeatured = readBoolean(in);
+    Boolean isTrending = readBoolean(in);
+    BigDecimal completionThreshold = readDecimal(in);
+    Boolean requireAllAssignments = readBoolean(in);
+
+    Set<String> tags = null;
+    int tagCount = in.readInt();
+    if (tagCount >= 0) {
+      tags = new LinkedHashSet<>(tagCount * 2);
+      for (int i = 0; i < tagCount; i++) {
+        tags.add(readString(in));
+      }
+    }
+
+    List<ModuleResponse> modules = null;
+    int moduleCount = in.readInt();
+    if (moduleCount >= 0) {
+      modules = new ArrayList<>(moduleCount);
+      for (int i = 0; i < moduleCount; i++) {
+        modules.add(readModuleV1(in));
+      }
+    }
+
+    List<UUID> instructorIds = null;
+    int instructorCount = in.readInt();
+    if (instructorCount >= 0) {
+      instructorIds = new ArrayList<>(instructorCount);
+      for (int i = 0; i < instructorCount; i++) {
+        instructorIds.add(readUuid(in));
+      }
+    }
+
+    return new CourseDetailResponse(id, title, slug, description, category, level, price, currency, isFree,
+        thumbnailUrl, status, isFeatured, isTrending, completionThreshold, requireAllAssignments, tags, modules,
+        instructorIds, readInstant(in), readInstant(in));
+  }
+
+  private static ModuleResponse readModuleV1(DataInputStream in) throws IOException {
+    if (in.readByte() == NULL) {
+      return null;
+    }
+    UUID id = readUuid(in);
+    String title = readString(in);
+    Integer sortOrder = readInteger(in);
+    List<LessonResponse> lessons = null;
+    int lessonCount = in.readInt();
+    if (lessonCount >= 0) {
+      lessons = new ArrayList<>(lessonCount);
+      for (int i = 0; i < lessonCount; i++) {
+        lessons.add(readLessonV1(in));
+      }
+    }
+    return new ModuleResponse(id, title, sortOrder, lessons, readInstant(in), readInstant(in));
+  }
+
+  private static LessonResponse readLessonV1(DataInputStream in) throws IOException {
+    if (in.readByte() == NULL) {
+      return null;
+    }
+    return new LessonResponse(
+        readUuid(in),
+        readString(in),
+        readString(in),
+        readInteger(in),
+        readInteger(in),
+        readBoolean(in),
+        readBoolean(in),
+        readString(in),
+        readInstant(in),
+        readInstant(in),
+        readInstant(in));
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(utf8.length);
+    out.write(utf8);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] utf8 = new byte[length];
+    in.readFully(utf8);
+    return new String(utf8, StandardCharsets.UTF_8);
+  }
+
+  private static void writeUuid(DataOutputStream out, UUID value) throws IOException {
+    if (value == null) {
+      out.writeByte(NULL);
+      return;
+    }
+    out.writeByte(PRESENT);
+    out.writeLong(value.getMostSignificantBits());
+    out.writeLong(value.getLeastSignificantBits());
+  }
+
+  private static UUID readUuid(DataInputStream in) throws IOException {
+    if (in.readByte() == NULL) {
+      return null;
+    }
+    return new UUID(in.readLong(), in.readLong());
+  }
+
+  private static void writeInstant(DataOutputStream out, Instant value) throws IOException {
+    if (value == null) {
+      out.writeByte(NULL);
+      return;
+    }
+    out.writeByte(PRESENT);
+    out.writeLong(value.getEpochSecond());
+    out.writeInt(value.getNano());
+  }
+
+  private static Instant readInstant(DataInputStream in) throws IOException {
+    if (in.readByte() == NULL) {
+      return null;
+    }
+    return Instant.ofEpochSecond(in.readLong(), in.readInt());
+  }
+
+  private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+    if (value == null) {
+      out.writeByte(NULL);
+      return;
+    }
+    out.writeByte(PRESENT);
+    byte[] unscaled = value.unscaledValue().toByteArray();
+    out.writeInt(value.scale());
+    out.writeShort(unscaled.length);
+    out.write(unscaled);
+  }
+
+  private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+    if (in.readByte() == NULL) {
+      return null;
+    }
+    int scale = in.readInt();
+    byte[] unscaled = new byte[in.readUnsignedShort()];
+    in.readFully(unscaled);
+    return new BigDecimal(new BigInteger(unscaled), scale);
+  }
+
+  private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+    if (value == null) {
+      out.writeByte(NULL);
+      return;
+    }
+    out.writeByte(PRESENT);
+    out.writeInt(value);
+  }
+
+  private static Integer readInteger(DataInputStream in) throws IOException {
+    return in.readByte() == NULL ? null : in.readInt();
+  }
+
+  // Tri-state: 0 = null, 1 = false, 2 = true
+  private static void writeBoolean(DataOutputStream out, Boolean value) throws IOException {
+    out.writeByte(value == null ? 0 : value ? 2 : 1);
+  }
+
+  private static Boolean readBoolean(DataInputStream in) throws IOException {
+    byte b = in.readByte();
+    return b == 0 ? null : b == 2;
+  }
+}
@@ -0,0 +1,56 @@
+package com.lms.course.infrastructure;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lms.common.events.EventEnvelope;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Writes events to {@code lms_course.event_outbox} as part of the caller's
+ * transaction, so an event exists if and only if its change committed.
+ * {@link CourseOutboxRelay} delivers them to Kafka.
+ */
+@Component
+@RequiredArgsConstructor
+public class CourseEventOutbox {
+
+  private static final String INSERT = "INSERT INTO lms_course.event_outbox "
+      + "(topic, message_key, payload, created_at) VALUES (?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+
+  public record Entry(String topic, String key, EventEnvelope<?> event) {
+  }
+
+  public void append(String topic, String key, EventEnvelope<?> event) {
+    appendAll(List.of(new Entry(topic, key, event)));
+  }
+
+  public void appendAll(List<Entry> entries) {
+    if (entries.isEmpty()) {
+      return;
+    }
+    Timestamp now = Timestamp.from(Instant.now());
+    jdbcTemplate.batchUpdate(INSERT, entries, entries.size(), (ps, entry) -> {
+      ps.setString(1, entry.topic());
+      ps.setString(2, entry.key());
+      ps.setString(3, toJson(entry.event()));
+      ps.setTimestamp(4, now);
+    });
+  }
+
+  private String toJson(EventEnvelope<?> event) {
+    try {
+      return objectMapper.writeValueAsString(event);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not serialise " + event.eventType() + " event", e);
+    }
+  }
+}
@@ -5,17 +5,22 @@ import com.lms.course.domain.Course;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Course domain events. They are recorded in the outbox within the caller's
+ * transaction and reach {@code course.events} only after it commits.
+ */
 @Component
 @RequiredArgsConstructor
 public class CourseEventPublisher {
   private static final Logger log = LoggerFactory.getLogger(CourseEventPublisher.class);
-  private final KafkaTemplate<String, Object> kafkaTemplate;
+  private final CourseEventOutbox outbox;
   private static final String TOPIC = "course.events";
 
   public void publishCourseCreated(Course course) {
@@ -26,21 +31,47 @@ public class CourseEventPublisher {
     publish(course, "CourseUpdated");
   }
 
+  /**
+   * Records one CourseUpdated per course with a single batched insert, logging
+   * once for the operation.
+   */
+  public void publishCoursesUpdated(List<Course> courses) {
+    outbox.appendAll(courses.stream()
+        .map(course -> new CourseEventOutbox.Entry(TOPIC, course.getId().toString(),
+            courseEvent(course, "CourseUpdated")))
+        .toList());
+    log.info("Published CourseUpdated events for {} courses", courses.size());
+  }
+
   public void publishCourseDeleted(String courseId) {
     EventEnvelope event = EventEnvelope.of("CourseDeleted", courseId, Map.of("id", courseId), null);
-    kafkaTemplate.send(TOPIC, courseId, event);
+    outbox.append(TOPIC, courseId, event);
   }
 
-  public void publishModuleDeleted(String courseId, String moduleId) {
+  /** Lists the lessons deleted with the module, so consumers that count lessons need not call back. */
+  public void publishModuleDeleted(String courseId, String moduleId, List<UUID> lessonIds) {
     EventEnvelope event = EventEnvelope.of("ModuleDeleted", moduleId,
-        Map.of("courseId", courseId, "moduleId", moduleId), null);
-    kafkaTemplate.send(TOPIC, courseId, event);
+        Map.of("courseId", courseId, "moduleId", moduleId, "lessonIds", lessonIds), null);
+    outbox.append(TOPIC, courseId, event);
   }
 
   public void publishLessonDeleted(String courseId, String lessonId) {
     EventEnvelope event = EventEnvelope.of("LessonDeleted", lessonId,
         Map.of("courseId", courseId, "lessonId", lessonId), null);
-    kafkaTemplate.send(TOPIC, courseId, event);
+    outbox.append(TOPIC, courseId, event);
+  }
+
+  /** A new lesson, published or not; lets consumers that count lessons keep up. */
+  public void publishLessonCreated(UUID courseId, UUID lessonId) {
+    EventEnvelope event = EventEnvelope.of(
+        "LessonCreated",
+        lessonId.toString(),
+        Map.of(
+            "courseId", courseId,
+            "lessonId", lessonId),
+        null);
+    outbox.append(TOPIC, courseId.toString(), event);
+    log.info("Published LessonCreated event for lesson: {}", lessonId);
   }
 
   public void publishLessonPublished(UUID courseId, UUID lessonId, String title) {
@@ -52,7 +83,7 @@ public class CourseEventPublisher {
             "lessonId", lessonId,
             "title", title),
         null);
-    kafkaTemplate.send(TOPIC, courseId.toString(), event);
+    outbox.append(TOPIC, courseId.toString(), event);
     log.info("Published LessonPublished event for lesson: {}", lessonId);
   }
 
@@ -65,12 +96,44 @@ public class CourseEventPublisher {
             "lessonId", lessonId,
             "title", title),
         null);
-    kafkaTemplate.send(TOPIC, courseId.toString(), event);
+    outbox.append(TOPIC, courseId.toString(), event);
     log.info("Published LessonUpdated event for lesson: {}", lessonId);
   }
 
-  private void publish(Course course, String eventType) {
+  /**
+   * One event for everything a curriculum sync changed, in place of an event
+   * per lesson. Lessons are listed with their titles so consumers need not
+   * call back; {@code addedLessons} only lists published ones, while
+   * {@code addedLessonIds} lists every new lesson for consumers that count
+   * them.
+   */
+  public void publishCurriculumChanged(Course course, long contentVersion, List<Map<String, Object>> addedLessons,
+      List<UUID> addedLessonIds, List<Map<String, Object>> renamedLessons, List<UUID> removedLessonIds,
+      List<UUID> removedModuleIds) {
     EventEnvelope event = EventEnvelope.of(
+        "CurriculumChanged",
+        course.getId().toString(),
+        Map.of(
+            "courseId", course.getId(),
+            "courseStatus", course.getStatus().name(),
+            "contentVersion", contentVersion,
+            "addedLessons", addedLessons,
+            "addedLessonIds", addedLessonIds,
+            "renamedLessons", renamedLessons,
+            "removedLessonIds", removedLessonIds,
+            "removedModuleIds", removedModuleIds),
+        null);
+    outbox.append(TOPIC, course.getId().toString(), event);
+    log.info("Published CurriculumChanged event for course: {} (version {})", course.getId(), contentVersion);
+  }
+
+  private void publish(Course course, String eventType) {
+    outbox.append(TOPIC, course.getId().toString(), courseEvent(course, eventType));
+    log.info("Published {} event for course: {}", eventType, course.getId());
+  }
+
+  private EventEnvelope courseEvent(Course course, String eventType) {
+    return EventEnvelope.of(
         eventType,
         course.getId().toString(),
         Map.of(
@@ -78,9 +141,11 @@ public class CourseEventPublisher {
             "title", course.getTitle(),
             "description", course.getDescription() != null ? course.getDescription() : "",
             "status", course.getStatus().name(),
-            "slug", course.getSlug()),
+            "slug", course.getSlug(),
+            "completionThreshold", course.getCompletionThreshold() != null
+                ? course.getCompletionThreshold()
+                : new BigDecimal("100.00"),
+            "requireAllAssignments", course.isRequireAllAssignments()),
         null);
-    kafkaTemplate.send(TOPIC, course.getId().toString(), event);
-    log.info("Published {} event for course: {}", eventType, course.getId());
   }
 }
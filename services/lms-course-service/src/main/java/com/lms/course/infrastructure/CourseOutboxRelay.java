@@ -0,0 +1,162 @@
+package com.lms.course.infrastructure;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lms.common.events.EventEnvelope;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains {@code lms_course.event_outbox} to Kafka. Every {@code linger} it
+ * sends up to {@code batch-size} rows in id order, waits for all acks, then
+ * deletes them in the same transaction; full batches are followed by another
+ * immediately. A Postgres advisory lock keeps a single relay active across
+ * pods, so events for a course reach its partition in the order they were
+ * written.
+ *
+ * <p>
+ * Delivery is at least once: a crash between the acks and the commit resends
+ * the batch, with the original {@code eventId}s for consumers to deduplicate.
+ */
+@Component
+public class CourseOutboxRelay {
+
+  private static final Logger log = LoggerFactory.getLogger(CourseOutboxRelay.class);
+  private static final long RELAY_LOCK = 0x6c6d735f6f7574L; // "lms_out"
+  private static final TypeReference<EventEnvelope<Object>> ENVELOPE = new TypeReference<>() {
+  };
+
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedJdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final KafkaTemplate<String, Object> kafkaTemplate;
+  private final ObjectMapper objectMapper;
+  private final Counter relayed;
+  private final Counter failures;
+  private final Timer batchTimer;
+
+  @Value("${lms.course.outbox.enabled:true}")
+  private boolean enabled;
+
+  @Value("${lms.course.outbox.batch-size:200}")
+  private int batchSize;
+
+  @Value("${lms.course.outbox.send-timeout:PT10S}")
+  private Duration sendTimeout;
+
+  /** Age of the oldest event still waiting when the last batch was read. */
+  private volatile double lagSeconds;
+
+  public CourseOutboxRelay(JdbcTemplate jdbcTemplate,
+      NamedParameterJdbcTemplate namedJdbcTemplate,
+      TransactionTemplate transactionTemplate,
+      KafkaTemplate<String, Object> kafkaTemplate,
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.namedJdbcTemplate = namedJdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.kafkaTemplate = kafkaTemplate;
+    this.objectMapper = objectMapper;
+    this.relayed = meterRegistry.counter("lms.course.outbox.relayed");
+    this.failures = meterRegistry.counter("lms.course.outbox.failures");
+    this.batchTimer = meterRegistry.timer("lms.course.outbox.batch");
+    Gauge.builder("lms.course.outbox.lag", this, r -> r.lagSeconds)
+        .baseUnit("seconds")
+        .register(meterRegistry);
+  }
+
+  @Scheduled(fixedDelayString = "${lms.course.outbox.linger:PT0.1S}")
+  public void drain() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      int sent;
+      do {
+        sent = batchTimer.record(() -> transactionTemplate.execute(tx -> relayBatch()));
+      } while (sent == batchSize);
+    } catch (Exception e) {
+      failures.increment();
+      log.error("Outbox relay failed; the batch stays queued", e);
+    }
+  }
+
+  private int relayBatch() {
+    Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, RELAY_LOCK);
+    if (!Boolean.TRUE.equals(locked)) {
+      // Another pod is relaying and reports the lag
+      lagSeconds = 0;
+      return 0;
+    }
+
+    List<Row> rows = jdbcTemplate.query(
+        "SELECT id, topic, message_key, payload, created_at FROM lms_course.event_outbox ORDER BY id LIMIT ?",
+        (rs, rowNum) -> new Row(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+            rs.getTimestamp(5).toInstant()),
+        batchSize);
+    lagSeconds = rows.isEmpty() ? 0 : Duration.between(rows.get(0).createdAt(), Instant.now()).toMillis() / 1000.0;
+    if (rows.isEmpty()) {
+      return 0;
+    }
+
+    List<CompletableFuture<?>> sends = new ArrayList<>(rows.size());
+    List<Long> ids = new ArrayList<>(rows.size());
+    for (Row row : rows) {
+      EventEnvelope<Object> event = envelope(row);
+      if (event != null) {
+        sends.add(kafkaTemplate.send(row.topic(), row.key(), event));
+      }
+      ids.add(row.id());
+    }
+    try {
+      CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+          .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while relaying outbox", e);
+    } catch (Exception e) {
+      throw new IllegalStateException("Kafka did not ack outbox batch", e);
+    }
+
+    namedJdbcTemplate.update("DELETE FROM lms_course.event_outbox WHERE id IN (:ids)", Map.of("ids", ids));
+    relayed.increment(rows.size());
+    return rows.size();
+  }
+
+  /**
+   * The stored envelope, or {@code null} if it cannot be read back; such a row
+   * would block the queue forever, so it is logged and dropped.
+   */
+  private EventEnvelope<Object> envelope(Row row) {
+    try {
+      return objectMapper.readValue(row.payload(), ENVELOPE);
+    } catch (Exception e) {
+      failures.increment();
+      log.error("Dropping unreadable outbox event {}: {}", row.id(), row.payload(), e);
+      return null;
+    }
+  }
+
+  private record Row(long id, String topic, String key, String payload, Instant createdAt) {
+  }
+}
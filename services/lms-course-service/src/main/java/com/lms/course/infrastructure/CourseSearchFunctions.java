@@ -0,0 +1,66 @@
+package com.lms.course.infrastructure;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Postgres full-text search for course listings, exposed to criteria queries
+ * as {@link #MATCHES}{@code (title, description, query)} and
+ * {@link #RANK}{@code (title, description, query)}, where {@code query} comes
+ * from {@link #prefixQuery}. The document expression is the one indexed by
+ * {@code idx_courses_search} (V12); keep the two in step.
+ *
+ * <p>
+ * Registered through {@code META-INF/services}; only Postgres can run these.
+ */
+public class CourseSearchFunctions implements FunctionContributor {
+
+  public static final String MATCHES = "course_search_matches";
+  public static final String RANK = "course_search_rank";
+
+  private static final String DOCUMENT = "setweight(to_tsvector('english', coalesce(?1, '')), 'A')"
+      + " || setweight(to_tsvector('english', coalesce(?2, '')), 'B')";
+  private static final String QUERY = "to_tsquery('english', ?3)";
+
+  private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+  private static final int MAX_TERMS = 8;
+
+  @Override
+  public void contributeFunctions(FunctionContributions contributions) {
+    BasicTypeRegistry types = contributions.getTypeConfiguration().getBasicTypeRegistry();
+    contributions.getFunctionRegistry().registerPattern(MATCHES,
+        "((" + DOCUMENT + ") @@ " + QUERY + ")", types.resolve(StandardBasicTypes.BOOLEAN));
+    contributions.getFunctionRegistry().registerPattern(RANK,
+        "ts_rank(" + DOCUMENT + ", " + QUERY + ")", types.resolve(StandardBasicTypes.DOUBLE));
+  }
+
+  /**
+   * Turns free text into a tsquery where every word must match, the last one
+   * as a prefix so results follow the user while they type. Anything but
+   * letters and digits is dropped, so the result is always valid syntax and
+   * safe for Hibernate to render as an inline literal.
+   *
+   * @return the query, or {@code null} if the text has no searchable words
+   */
+  public static String prefixQuery(String search) {
+    if (search == null) {
+      return null;
+    }
+    List<String> terms = new ArrayList<>();
+    Matcher words = WORD.matcher(search.toLowerCase());
+    while (words.find() && terms.size() < MAX_TERMS) {
+      terms.add(words.group());
+    }
+    if (terms.isEmpty()) {
+      return null;
+    }
+    return String.join(" & ", terms) + ":*";
+  }
+}
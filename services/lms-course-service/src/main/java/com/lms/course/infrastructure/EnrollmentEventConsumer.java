@@ -0,0 +1,44 @@
+package com.lms.course.infrastructure;
+
+import com.lms.common.events.EventEnvelope;
+import com.lms.course.application.CourseAccessService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps cached enrollment answers in step with the enrollment service, so a
+ * new enrollment is honoured without waiting for a cached "not enrolled" to
+ * expire.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class EnrollmentEventConsumer {
+
+  private static final Set<String> ENROLLED_STATUSES = Set.of("ENROLLED", "IN_PROGRESS", "COMPLETED");
+
+  private final CourseAccessService courseAccessService;
+
+  @KafkaListener(topics = "enrollment.events", groupId = "course-service-group")
+  public void handleEnrollmentEvent(EventEnvelope<Map<String, Object>> event) {
+    Map<String, Object> payload = event.payload();
+    if (payload == null || payload.get("userId") == null || payload.get("courseId") == null) {
+      return;
+    }
+    try {
+      UUID userId = UUID.fromString(payload.get("userId").toString());
+      UUID courseId = UUID.fromString(payload.get("courseId").toString());
+      courseAccessService.enrollmentChanged(userId, courseId,
+          ENROLLED_STATUSES.contains(String.valueOf(payload.get("status"))));
+    } catch (Exception e) {
+      // Cached answers still expire on their own
+      log.warn("Failed to apply {} to the access cache", event.eventType(), e);
+    }
+  }
+}
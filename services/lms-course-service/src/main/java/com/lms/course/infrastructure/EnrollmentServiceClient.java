@@ -3,9 +3,11 @@ package com.lms.course.infrastructure;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
+import java.time.Duration;
 import java.util.UUID;
 
 @Component
@@ -14,13 +16,23 @@ public class EnrollmentServiceClient {
   private static final Logger log = LoggerFactory.getLogger(EnrollmentServiceClient.class);
   private final RestClient restClient;
 
-  public EnrollmentServiceClient(@Value("${lms.enrollment-service.url}") String enrollmentServiceUrl) {
+  public EnrollmentServiceClient(@Value("${lms.enrollment-service.url}") String enrollmentServiceUrl,
+      @Value("${lms.course.detail.deadline:PT2S}") Duration timeout) {
+    // A detail request stops waiting at its deadline; the call should not outlive it
+    SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+    requestFactory.setConnectTimeout(timeout);
+    requestFactory.setReadTimeout(timeout);
     this.restClient = RestClient.builder()
         .baseUrl(enrollmentServiceUrl)
+        .requestFactory(requestFactory)
         .build();
   }
 
-  public boolean isUserEnrolled(UUID userId, UUID courseId) {
+  /**
+   * @return whether the user is enrolled, or {@code null} if the enrollment
+   *         service could not be asked
+   */
+  public Boolean isUserEnrolled(UUID userId, UUID courseId) {
     try {
       return Boolean.TRUE.equals(restClient.get()
           .uri(uriBuilder -> uriBuilder
@@ -32,7 +44,7 @@ public class EnrollmentServiceClient {
           .body(Boolean.class));
     } catch (Exception e) {
       log.error("Error validating enrollment for course {} and user {}: {}", courseId, userId, e.getMessage());
-      return false;
+      return null;
     }
   }
 }
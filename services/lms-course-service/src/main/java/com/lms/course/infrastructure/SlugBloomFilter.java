@@ -0,0 +1,196 @@
+package com.lms.course.infrastructure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bloom filter of every course slug, kept as a Redis bitmap so all pods share
+ * it. {@link #mightContain} answering {@code false} means the slug is
+ * certainly free and the database need not be asked.
+ *
+ * <p>
+ * The bit just past the filter marks it complete. A filter that is missing or
+ * evicted has that bit clear, and every lookup answers "maybe", so callers
+ * fall back to the database and never trust a partial filter. It is built
+ * under a separate key and renamed into place with the bit set. Added slugs
+ * go to both keys, so a slug whose insert the build's scan misses is still
+ * in the result. A discard while a build runs makes that build give up
+ * instead of installing a filter missing the discarded slug. Slugs are never
+ * removed; deleted courses only add false positives.
+ */
+@Component
+public class SlugBloomFilter {
+
+  private static final Logger log = LoggerFactory.getLogger(SlugBloomFilter.class);
+  private static final String KEY = "lms:course:slug-bloom";
+  private static final String BUILD_KEY = "lms:course:slug-bloom:next";
+  private static final String DISCARDED_KEY = "lms:course:slug-bloom:discarded";
+  private static final String BUILD_LOCK_KEY = "lms:course:slug-bloom:building";
+  private static final int BUILD_CHUNK = 1000;
+
+  /** Returns 1 unless the filter is complete and one of the bits is clear. */
+  private static final RedisScript<Long> MIGHT_CONTAIN = new DefaultRedisScript<>(
+      "if redis.call('GETBIT', KEYS[1], ARGV[1]) == 0 then return 1 end "
+          + "for i = 2, #ARGV do "
+          + "if redis.call('GETBIT', KEYS[1], ARGV[i]) == 0 then return 0 end "
+          + "end "
+          + "return 1",
+      Long.class);
+
+  /** Marks the built filter complete and installs it, unless it was discarded meanwhile. */
+  private static final RedisScript<Long> INSTALL = new DefaultRedisScript<>(
+      "if redis.call('EXISTS', KEYS[3]) == 1 then return 0 end "
+          + "redis.call('SETBIT', KEYS[2], ARGV[1], 1) "
+          + "redis.call('RENAME', KEYS[2], KEYS[1]) "
+          + "return 1",
+      Long.class);
+
+  private final StringRedisTemplate redisTemplate;
+  private final JdbcTemplate jdbcTemplate;
+  private final long bits;
+  private final int hashes;
+
+  public SlugBloomFilter(StringRedisTemplate redisTemplate, JdbcTemplate jdbcTemplate,
+      @Value("${lms.course.slug-filter.bits:16777216}") long bits,
+      @Value("${lms.course.slug-filter.hashes:7}") int hashes) {
+    this.redisTemplate = redisTemplate;
+    this.jdbcTemplate = jdbcTemplate;
+    this.bits = bits;
+    this.hashes = hashes;
+  }
+
+  public boolean mightContain(String slug) {
+    List<String> args = new ArrayList<>(hashes + 1);
+    args.add(String.valueOf(bits));
+    for (long offset : offsets(slug)) {
+      args.add(String.valueOf(offset));
+    }
+    try {
+      return !Long.valueOf(0).equals(redisTemplate.execute(MIGHT_CONTAIN, List.of(KEY), args.toArray()));
+    } catch (DataAccessException e) {
+      log.warn("Slug filter unavailable, deferring to the database", e);
+      return true;
+    }
+  }
+
+  /**
+   * Adds a slug. Safe to call before the slug commits: a slug that never
+   * commits only costs a false positive.
+   */
+  public void add(String slug) {
+    try {
+      setBits(List.of(slug), KEY, BUILD_KEY);
+    } catch (DataAccessException e) {
+      // A missing bit could hide this slug, so drop the filter and let it rebuild
+      log.warn("Could not add slug {} to the filter, discarding it", slug, e);
+      discard();
+    }
+  }
+
+  /**
+   * Builds the filter from the courses table if it is not complete. One pod
+   * builds at a time; the others keep deferring to the database meanwhile.
+   */
+  @Scheduled(initialDelayString = "${lms.course.slug-filter.initial-delay:PT10S}",
+      fixedDelayString = "${lms.course.slug-filter.check-interval:PT5M}")
+  public void ensureBuilt() {
+    try {
+      if (Boolean.TRUE.equals(redisTemplate.opsForValue().getBit(KEY, bits))
+          || !Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(BUILD_LOCK_KEY, "1", Duration.ofMinutes(10)))) {
+        return;
+      }
+      try {
+        redisTemplate.delete(DISCARDED_KEY);
+        long started = System.currentTimeMillis();
+        List<String> chunk = new ArrayList<>(BUILD_CHUNK);
+        long[] count = { 0 };
+        jdbcTemplate.query("SELECT slug FROM lms_course.courses", (RowCallbackHandler) rs -> {
+          chunk.add(rs.getString(1));
+          if (chunk.size() == BUILD_CHUNK) {
+            setBits(chunk, BUILD_KEY);
+            count[0] += chunk.size();
+            chunk.clear();
+          }
+        });
+        setBits(chunk, BUILD_KEY);
+        count[0] += chunk.size();
+        Long installed = redisTemplate.execute(INSTALL, List.of(KEY, BUILD_KEY, DISCARDED_KEY), String.valueOf(bits));
+        if (Long.valueOf(1).equals(installed)) {
+          log.info("Built slug filter from {} courses in {} ms", count[0], System.currentTimeMillis() - started);
+        } else {
+          log.info("Slug filter was discarded while being built; rebuilding on the next check");
+        }
+      } finally {
+        redisTemplate.delete(BUILD_LOCK_KEY);
+      }
+    } catch (RuntimeException e) {
+      log.warn("Could not build slug filter", e);
+    }
+  }
+
+  private void discard() {
+    try {
+      redisTemplate.opsForValue().set(DISCARDED_KEY, "1", Duration.ofDays(1));
+      redisTemplate.delete(KEY);
+    } catch (DataAccessException e) {
+      log.error("Could not discard slug filter; it may be missing slugs until it is rebuilt", e);
+    }
+  }
+
+  private void setBits(List<String> slugs, String... keys) {
+    if (slugs.isEmpty()) {
+      return;
+    }
+    redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+      RedisStringCommands commands = connection.stringCommands();
+      for (String key : keys) {
+        byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+        for (String slug : slugs) {
+          for (long offset : offsets(slug)) {
+            commands.setBit(rawKey, offset, true);
+          }
+        }
+      }
+      return null;
+    });
+  }
+
+  /** Kirsch-Mitzenmacher double hashing over the two halves of a SHA-256. */
+  private long[] offsets(String slug) {
+    ByteBuffer digest = ByteBuffer.wrap(sha256(slug));
+    long h1 = digest.getLong();
+    long h2 = digest.getLong();
+    long[] offsets = new long[hashes];
+    for (int i = 0; i < hashes; i++) {
+      offsets[i] = Math.floorMod(h1 + i * h2, bits);
+    }
+    return offsets;
+  }
+
+  private static byte[] sha256(String value) {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
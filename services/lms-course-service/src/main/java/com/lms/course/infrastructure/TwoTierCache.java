@@ -0,0 +1,270 @@
+package com.lms.course.infrastructure;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-through cache with an in-process Caffeine L1 in front of the shared
+ * Redis L2. Evictions are broadcast on a Redis channel so every pod drops its
+ * L1 copy; the L1 TTL bounds staleness if a broadcast is missed.
+ *
+ * <p>
+ * A miss on both tiers is loaded by one caller per pod, and, with a load lock
+ * configured, by one pod at a time: the others poll L2 for the value until the
+ * lock holder stores it or the lock expires, then load it themselves. Callers
+ * waiting on a load wait on its future, never inside Caffeine's compute, so a
+ * slow key does not hold up others that share its hash bin.
+ */
+public class TwoTierCache extends AbstractValueAdaptingCache {
+
+  public static final String CLEAR_ALL = "*";
+  private static final String LOAD_LOCK_PREFIX = "lms:cache:loading:";
+  private static final long LOAD_POLL_MILLIS = 25;
+
+  private final String name;
+  private final Cache<String, Object> local;
+  private final org.springframework.cache.Cache remote;
+  private final StringRedisTemplate redisTemplate;
+  private final String invalidationChannel;
+  private final Duration loadLockTtl;
+  private final Map<String, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+  private final Counter l1Hits;
+  private final Counter l1Misses;
+  private final Counter l2Hits;
+  private final Counter l2Misses;
+  private final Counter l2Evictions;
+  private final Counter loadsWaited;
+
+  public TwoTierCache(String name, Cache<String, Object> local, org.springframework.cache.Cache remote,
+      StringRedisTemplate redisTemplate, String invalidationChannel, MeterRegistry meterRegistry) {
+    this(name, local, remote, redisTemplate, invalidationChannel, Duration.ZERO, meterRegistry);
+  }
+
+  /**
+   * @param loadLockTtl how long a pod may hold the load lock for a key; zero
+   *                    disables cross-pod coalescing
+   */
+  public TwoTierCache(String name, Cache<String, Object> local, org.springframework.cache.Cache remote,
+      StringRedisTemplate redisTemplate, String invalidationChannel, Duration loadLockTtl,
+      MeterRegistry meterRegistry) {
+    super(false);
+    this.name = name;
+    this.local = local;
+    this.remote = remote;
+    this.redisTemplate = redisTemplate;
+    this.invalidationChannel = invalidationChannel;
+    this.loadLockTtl = loadLockTtl;
+    this.l1Hits = requests(meterRegistry, name, "l1", "hit");
+    this.l1Misses = requests(meterRegistry, name, "l1", "miss");
+    this.l2Hits = requests(meterRegistry, name, "l2", "hit");
+    this.l2Misses = requests(meterRegistry, name, "l2", "miss");
+    this.l2Evictions = Counter.builder("lms.cache.evictions")
+        .tag("cache", name)
+        .tag("tier", "l2")
+        .tag("cause", "EXPLICIT")
+        .register(meterRegistry);
+    this.loadsWaited = Counter.builder("lms.cache.loads.coalesced")
+        .description("Misses served by waiting for another pod's load")
+        .tag("cache", name)
+        .register(meterRegistry);
+  }
+
+  private static Counter requests(MeterRegistry registry, String cache, String tier, String result) {
+    return Counter.builder("lms.cache.requests")
+        .tag("cache", cache)
+        .tag("tier", tier)
+        .tag("result", result)
+        .register(registry);
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return local;
+  }
+
+  @Override
+  protected Object lookup(Object key) {
+    Object value = local.getIfPresent(key.toString());
+    if (value != null) {
+      l1Hits.increment();
+      return value;
+    }
+    l1Misses.increment();
+
+    ValueWrapper wrapper = remote.get(key);
+    if (wrapper == null || wrapper.get() == null) {
+      l2Misses.increment();
+      return null;
+    }
+    l2Hits.increment();
+    local.put(key.toString(), wrapper.get());
+    return wrapper.get();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    String localKey = key.toString();
+    Object value = local.getIfPresent(localKey);
+    if (value != null) {
+      l1Hits.increment();
+      return (T) value;
+    }
+    // At most one caller per key in this pod loads; concurrent misses for the
+    // same course wait for its result instead of making their own round trip
+    CompletableFuture<Object> load = new CompletableFuture<>();
+    CompletableFuture<Object> inProgress = loading.putIfAbsent(localKey, load);
+    if (inProgress != null) {
+      try {
+        return (T) inProgress.join();
+      } catch (CompletionException e) {
+        throw e.getCause() instanceof RuntimeException cause ? cause : e;
+      }
+    }
+    try {
+      Object loaded = load(key, valueLoader);
+      if (loaded != null) {
+        local.put(localKey, loaded);
+      }
+      load.complete(loaded);
+      return (T) loaded;
+    } catch (RuntimeException | Error e) {
+      load.completeExceptionally(e);
+      throw e;
+    } finally {
+      loading.remove(localKey, load);
+    }
+  }
+
+  private <T> Object load(Object key, Callable<T> valueLoader) {
+    Object cached = lookupRemote(key);
+    if (cached != null) {
+      return cached;
+    }
+    String lockKey = LOAD_LOCK_PREFIX + name + ":" + key;
+    Boolean locked = tryLoadLock(lockKey);
+    if (Boolean.FALSE.equals(locked)) {
+      cached = awaitRemote(key);
+      if (cached != null) {
+        loadsWaited.increment();
+        return cached;
+      }
+    }
+    try {
+      T loaded = valueLoader.call();
+      if (loaded != null) {
+        remote.put(key, loaded);
+      }
+      return loaded;
+    } catch (Exception e) {
+      throw new ValueRetrievalException(key, valueLoader, e);
+    } finally {
+      if (Boolean.TRUE.equals(locked)) {
+        releaseLoadLock(lockKey);
+      }
+    }
+  }
+
+  /**
+   * @return {@code true} if this pod took the lock, {@code false} if another
+   *         pod is loading, {@code null} if there is nothing to coordinate on
+   */
+  private Boolean tryLoadLock(String lockKey) {
+    if (loadLockTtl.isZero()) {
+      return null;
+    }
+    try {
+      return redisTemplate.opsForValue().setIfAbsent(lockKey, "1", loadLockTtl);
+    } catch (RuntimeException e) {
+      return null;
+    }
+  }
+
+  private Object awaitRemote(Object key) {
+    long deadline = System.nanoTime() + loadLockTtl.toNanos();
+    try {
+      while (System.nanoTime() < deadline) {
+        Thread.sleep(LOAD_POLL_MILLIS);
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+          return wrapper.get();
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (RuntimeException e) {
+      // L2 unavailable; fall through and load
+    }
+    return null;
+  }
+
+  private void releaseLoadLock(String lockKey) {
+    try {
+      redisTemplate.delete(lockKey);
+    } catch (RuntimeException e) {
+      // Expires on its own
+    }
+  }
+
+  private Object lookupRemote(Object key) {
+    l1Misses.increment();
+    ValueWrapper wrapper = remote.get(key);
+    if (wrapper == null || wrapper.get() == null) {
+      l2Misses.increment();
+      return null;
+    }
+    l2Hits.increment();
+    return wrapper.get();
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    if (value == null) {
+      return;
+    }
+    remote.put(key, value);
+    local.put(key.toString(), value);
+  }
+
+  @Override
+  public void evict(Object key) {
+    remote.evict(key);
+    l2Evictions.increment();
+    local.invalidate(key.toString());
+    redisTemplate.convertAndSend(invalidationChannel, key.toString());
+  }
+
+  @Override
+  public void clear() {
+    remote.clear();
+    local.invalidateAll();
+    redisTemplate.convertAndSend(invalidationChannel, CLEAR_ALL);
+  }
+
+  /**
+   * Drops the local copy only; invoked when another pod broadcasts an eviction.
+   */
+  public void evictLocal(String key) {
+    if (CLEAR_ALL.equals(key)) {
+      local.invalidateAll();
+      return;
+    }
+    local.invalidate(key);
+  }
+}
@@ -0,0 +1,61 @@
+package com.lms.course.infrastructure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves the registered {@link TwoTierCache}s and falls through to the Redis
+ * cache manager for every other cache name. Also receives the cross-pod
+ * invalidation broadcasts and applies them to the local tier.
+ */
+public class TwoTierCacheManager implements CacheManager, MessageListener {
+
+  private static final Logger log = LoggerFactory.getLogger(TwoTierCacheManager.class);
+  public static final String INVALIDATION_CHANNEL_PREFIX = "lms:cache:invalidate:";
+
+  private final CacheManager remoteCacheManager;
+  private final Map<String, TwoTierCache> twoTierCaches = new ConcurrentHashMap<>();
+
+  public TwoTierCacheManager(CacheManager remoteCacheManager) {
+    this.remoteCacheManager = remoteCacheManager;
+  }
+
+  public void register(TwoTierCache cache) {
+    twoTierCaches.put(cache.getName(), cache);
+  }
+
+  @Override
+  public Cache getCache(String name) {
+    TwoTierCache cache = twoTierCaches.get(name);
+    return cache != null ? cache : remoteCacheManager.getCache(name);
+  }
+
+  @Override
+  public Collection<String> getCacheNames() {
+    Set<String> names = new LinkedHashSet<>(twoTierCaches.keySet());
+    names.addAll(remoteCacheManager.getCacheNames());
+    return names;
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+    String key = new String(message.getBody(), StandardCharsets.UTF_8);
+    TwoTierCache cache = twoTierCaches.get(channel.substring(INVALIDATION_CHANNEL_PREFIX.length()));
+    if (cache != null) {
+      log.debug("Invalidating local entry {} in cache {}", key, cache.getName());
+      cache.evictLocal(key);
+    }
+  }
+}
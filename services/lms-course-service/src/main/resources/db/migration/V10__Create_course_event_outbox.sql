@@ -0,0 +1,9 @@
+-- Events written in the same transaction as the change that caused them and
+-- relayed to Kafka in id order by CourseOutboxRelay, which deletes them once acked.
+CREATE TABLE IF NOT EXISTS lms_course.event_outbox (
+  id BIGSERIAL PRIMARY KEY,
+  topic VARCHAR(255) NOT NULL,
+  message_key VARCHAR(255) NOT NULL,
+  payload TEXT NOT NULL,
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
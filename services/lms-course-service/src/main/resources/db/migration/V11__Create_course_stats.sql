@@ -0,0 +1,10 @@
+-- Single-row running total of courses, kept in step by CourseCounter in the
+-- same transaction as each insert or delete so quota checks need not COUNT(*).
+CREATE TABLE IF NOT EXISTS lms_course.course_stats (
+  id SMALLINT PRIMARY KEY CHECK (id = 1),
+  course_count BIGINT NOT NULL
+);
+
+INSERT INTO lms_course.course_stats (id, course_count)
+SELECT 1, COUNT(*) FROM lms_course.courses
+ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,6 @@
+-- Full-text search over title (weight A) and description (weight B), replacing
+-- LIKE '%term%' scans. The indexed expression must stay identical to the one
+-- CourseSearchFunctions renders, or the planner will not use the index.
+CREATE INDEX IF NOT EXISTS idx_courses_search ON lms_course.courses USING gin ((
+  setweight(to_tsvector('english', coalesce(title, '')), 'A')
+  || setweight(to_tsvector('english', coalesce(description, '')), 'B')));
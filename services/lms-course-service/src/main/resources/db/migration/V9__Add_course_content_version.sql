@@ -0,0 +1,4 @@
+-- Monotonic version of everything a course detail response contains,
+-- bumped by any course, module or lesson change. Drives ETags and cache keys.
+ALTER TABLE lms_course.courses
+  ADD COLUMN IF NOT EXISTS content_version BIGINT NOT NULL DEFAULT 0;
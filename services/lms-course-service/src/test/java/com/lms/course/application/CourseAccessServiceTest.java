@@ -0,0 +1,149 @@
+package com.lms.course.application;
+
+import com.lms.course.api.CourseDetailResponse;
+import com.lms.course.infrastructure.EnrollmentServiceClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseAccessServiceTest {
+
+  private static final Duration ENROLLED_TTL = Duration.ofMinutes(10);
+
+  private final UUID userId = UUID.randomUUID();
+  private final EnrollmentServiceClient enrollmentServiceClient = mock(EnrollmentServiceClient.class);
+  private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+  private final Map<String, Map<String, String>> redis = new HashMap<>();
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void backRedisWithAMap() {
+    HashOperations<String, Object, Object> hash = mock(HashOperations.class);
+    when(redisTemplate.opsForHash()).thenReturn(hash);
+    when(hash.get(anyString(), any())).thenAnswer(
+        invocation -> redis.getOrDefault(invocation.<String>getArgument(0), Map.of()).get(invocation.getArgument(1)));
+    doAnswer(invocation -> redis.computeIfAbsent(invocation.getArgument(0), k -> new HashMap<>())
+        .put(invocation.getArgument(1), invocation.getArgument(2)))
+        .when(hash).put(anyString(), any(), any());
+    when(hash.delete(anyString(), any())).thenAnswer(invocation -> {
+      Map<String, String> fields = redis.get(invocation.<String>getArgument(0));
+      return fields != null && fields.remove(invocation.getArgument(1)) != null ? 1L : 0L;
+    });
+    when(redisTemplate.delete(anyString())).thenAnswer(invocation -> redis.remove(invocation.getArgument(0)) != null);
+  }
+
+  @Test
+  void grantsFromTheCourseAloneBeforeAskingAboutEnrollment() {
+    CourseAccessService service = service(Duration.ofMinutes(1));
+    UUID instructor = UUID.randomUUID();
+
+    assertThat(service.decide(course(false, instructor), userId, Set.of("ADMIN"), this::unexpected))
+        .isEqualTo(CourseAccess.ADMIN);
+    assertThat(service.decide(course(false, instructor), instructor, Set.of(), this::unexpected))
+        .isEqualTo(CourseAccess.INSTRUCTOR);
+    assertThat(service.decide(course(true, instructor), userId, Set.of(), this::unexpected))
+        .isEqualTo(CourseAccess.FREE);
+    assertThat(service.decide(course(false, instructor), null, Set.of(), this::unexpected))
+        .isEqualTo(CourseAccess.NONE);
+  }
+
+  @Test
+  void eachCourseFieldExpiresOnItsOwn() {
+    CourseAccessService service = service(Duration.ofMillis(-1));
+    UUID enrolledCourse = UUID.randomUUID();
+    UUID otherCourse = UUID.randomUUID();
+    when(enrollmentServiceClient.isUserEnrolled(userId, enrolledCourse)).thenReturn(true);
+    when(enrollmentServiceClient.isUserEnrolled(userId, otherCourse)).thenReturn(false);
+
+    assertThat(service.isEnrolled(userId, enrolledCourse)).isTrue();
+    assertThat(service.isEnrolled(userId, otherCourse)).isFalse();
+    assertThat(service.isEnrolled(userId, enrolledCourse)).isTrue();
+    assertThat(service.isEnrolled(userId, otherCourse)).isFalse();
+
+    // Both answers share the user's hash; only the expired "not enrolled" is asked again
+    assertThat(redis.get("lms:course:access:" + userId)).containsOnlyKeys(enrolledCourse.toString(),
+        otherCourse.toString());
+    verify(enrollmentServiceClient, times(1)).isUserEnrolled(userId, enrolledCourse);
+    verify(enrollmentServiceClient, times(2)).isUserEnrolled(userId, otherCourse);
+    verify(redisTemplate, times(3)).expire("lms:course:access:" + userId, ENROLLED_TTL);
+  }
+
+  @Test
+  void anUnansweredLookupIsDeniedWithoutBeingCached() {
+    CourseAccessService service = service(Duration.ofMinutes(1));
+    UUID courseId = UUID.randomUUID();
+    when(enrollmentServiceClient.isUserEnrolled(userId, courseId)).thenReturn(null, true);
+
+    assertThat(service.isEnrolled(userId, courseId)).isFalse();
+    assertThat(service.isEnrolled(userId, courseId)).isTrue();
+  }
+
+  @Test
+  void enrollmentChangesReplaceOrDropCachedAnswers() {
+    CourseAccessService service = service(Duration.ofMinutes(1));
+    UUID courseId = UUID.randomUUID();
+    UUID otherCourse = UUID.randomUUID();
+    when(enrollmentServiceClient.isUserEnrolled(userId, courseId)).thenReturn(false);
+
+    assertThat(service.isEnrolled(userId, courseId)).isFalse();
+    service.enrollmentChanged(userId, courseId, true);
+    assertThat(service.isEnrolled(userId, courseId)).isTrue();
+
+    service.enrollmentChanged(userId, otherCourse, true);
+    service.enrollmentChanged(userId, courseId, false);
+    assertThat(redis.get("lms:course:access:" + userId)).containsOnlyKeys(otherCourse.toString());
+
+    service.forgetUser(userId);
+    assertThat(redis).doesNotContainKey("lms:course:access:" + userId);
+    verify(enrollmentServiceClient, times(1)).isUserEnrolled(userId, courseId);
+  }
+
+  @Test
+  void aRedisOutageFallsThroughToTheEnrollmentService() {
+    CourseAccessService service = service(Duration.ofMinutes(1));
+    UUID courseId = UUID.randomUUID();
+    HashOperations<String, Object, Object> hash = redisTemplate.opsForHash();
+    doThrow(new RedisConnectionFailureException("Redis is down")).when(hash).get(anyString(), any());
+    when(enrollmentServiceClient.isUserEnrolled(userId, courseId)).thenReturn(true);
+
+    assertThat(service.isEnrolled(userId, courseId)).isTrue();
+  }
+
+  private CourseAccessService service(Duration notEnrolledTtl) {
+    return new CourseAccessService(enrollmentServiceClient, redisTemplate, new SimpleMeterRegistry(), ENROLLED_TTL,
+        notEnrolledTtl);
+  }
+
+  private boolean unexpected() {
+    throw new AssertionError("Enrollment should not have been checked");
+  }
+
+  private static CourseDetailResponse course(boolean free, UUID instructorId) {
+    Instant now = Instant.now();
+    return new CourseDetailResponse(UUID.randomUUID(), "Course", "course", null, "DEV", "BEGINNER",
+        free ? BigDecimal.ZERO : new BigDecimal("19.99"), "USD", free, null, "PUBLISHED", false, false,
+        new BigDecimal("100.00"), false, Set.of(), List.of(), List.of(instructorId), now, now);
+  }
+}
@@ -0,0 +1,66 @@
+package com.lms.course.application;
+
+import com.lms.common.audit.AuditLogger;
+import com.lms.common.features.FeatureFlagService;
+import com.lms.course.domain.Course;
+import com.lms.course.domain.CourseInstructorRepository;
+import com.lms.course.domain.CourseModuleRepository;
+import com.lms.course.domain.CourseRepository;
+import com.lms.course.domain.CourseStatus;
+import com.lms.course.domain.LessonRepository;
+import com.lms.course.infrastructure.CourseEventPublisher;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseApplicationServiceTest {
+
+  private final UUID courseId = UUID.randomUUID();
+  private final UUID userId = UUID.randomUUID();
+  private final CourseRepository courseRepository = mock(CourseRepository.class);
+  private final CourseCounter courseCounter = mock(CourseCounter.class);
+  private final CourseApplicationService service = new CourseApplicationService(courseRepository,
+      mock(CourseModuleRepository.class), mock(LessonRepository.class), mock(CourseInstructorRepository.class),
+      mock(CourseCacheService.class), mock(CourseEventPublisher.class), mock(AuditLogger.class),
+      mock(FeatureFlagService.class), mock(CourseAccessService.class), mock(CourseCatalogSnapshot.class),
+      mock(CourseContentVersions.class), mock(CurriculumSyncEngine.class), courseCounter,
+      mock(CourseSlugAllocator.class), mock(CourseDetailAssembler.class));
+
+  @Test
+  void deletingACourseGivesBackItsCount() {
+    Course course = course();
+    when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
+    when(courseRepository.isUserInstructor(courseId, userId)).thenReturn(true);
+
+    service.deleteCourse(courseId, userId, Set.of());
+
+    InOrder inOrder = inOrder(courseRepository, courseCounter);
+    inOrder.verify(courseRepository).delete(course);
+    inOrder.verify(courseCounter).decrement();
+  }
+
+  @Test
+  void aRefusedDeleteKeepsTheCount() {
+    when(courseRepository.findById(courseId)).thenReturn(Optional.of(course()));
+
+    assertThatThrownBy(() -> service.deleteCourse(courseId, userId, Set.of()))
+        .isInstanceOf(CourseApplicationService.ForbiddenException.class);
+    verify(courseRepository, never()).delete(any(Course.class));
+    verify(courseCounter, never()).decrement();
+  }
+
+  private Course course() {
+    return Course.builder().id(courseId).title("Java").slug("java").status(CourseStatus.DRAFT).build();
+  }
+}
@@ -0,0 +1,65 @@
+package com.lms.course.application;
+
+import com.lms.common.config.database.DataSourceContextHolder;
+import com.lms.common.config.database.DataSourceType;
+import com.lms.course.domain.Course;
+import com.lms.course.domain.CourseRepository;
+import com.lms.course.domain.CourseStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CourseCacheServiceTest {
+
+  private final UUID courseId = UUID.randomUUID();
+  private final CourseRepository courseRepository = mock(CourseRepository.class);
+  private final CourseCacheService service = new CourseCacheService(courseRepository,
+      mock(PlatformTransactionManager.class));
+  private final List<DataSourceType> routes = new ArrayList<>();
+
+  @Test
+  void aCurrentReadIsNotRepeated() {
+    replicaThenPrimary(5, 5);
+
+    assertThat(service.getCourseDetail(courseId, 5).title()).isEqualTo("Version 5");
+    assertThat(routes).containsExactly((DataSourceType) null);
+  }
+
+  @Test
+  void aReplicaBehindTheRequestedVersionIsReadAgainOnThePrimary() {
+    replicaThenPrimary(4, 5);
+
+    assertThat(service.getCourseDetail(courseId, 5).title()).isEqualTo("Version 5");
+    assertThat(routes).containsExactly(null, DataSourceType.PRIMARY);
+    assertThat(DataSourceContextHolder.getDataSourceType()).isNull();
+  }
+
+  private void replicaThenPrimary(long replicaVersion, long primaryVersion) {
+    when(courseRepository.findCurriculumTreeById(courseId)).thenAnswer(invocation -> {
+      routes.add(DataSourceContextHolder.getDataSourceType());
+      return Optional.of(course(routes.size() == 1 ? replicaVersion : primaryVersion));
+    });
+  }
+
+  private Course course(long contentVersion) {
+    return Course.builder()
+        .id(courseId)
+        .title("Version " + contentVersion)
+        .slug("course")
+        .status(CourseStatus.PUBLISHED)
+        .contentVersion(contentVersion)
+        .tags(new HashSet<>())
+        .modules(new ArrayList<>())
+        .instructors(new ArrayList<>())
+        .build();
+  }
+}
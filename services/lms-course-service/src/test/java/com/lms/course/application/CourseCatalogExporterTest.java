@@ -0,0 +1,100 @@
+package com.lms.course.application;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lms.course.domain.Course;
+import com.lms.course.domain.CourseModule;
+import com.lms.course.domain.CourseStatus;
+import com.lms.course.domain.Lesson;
+import com.lms.course.domain.LessonType;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "lms.course.export.chunk-size=2"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(CourseCatalogExporter.class)
+class CourseCatalogExporterTest {
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private CourseCatalogExporter exporter;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Test
+  void exportsEveryCourseWithTwoStatementsPerChunk() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      persistCourse("Course " + i, 2, 3);
+    }
+    entityManager.clear();
+    Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    long exported = exporter.export(out, CourseCatalogExporter.Format.NDJSON, null);
+
+    List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+    assertThat(exported).isEqualTo(5);
+    assertThat(lines).hasSize(5);
+    JsonNode first = objectMapper.readTree(lines.get(0));
+    assertThat(first.get("tags")).hasSize(1);
+    assertThat(first.get("modules")).hasSize(2);
+    assertThat(first.get("modules").get(0).get("lessons")).hasSize(3);
+    // The cursor, then tags and curriculum for each of the three chunks
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1 + 3 * 2);
+  }
+
+  @Test
+  void csvHasOneRowPerLessonAndQuotesText() {
+    persistCourse("Intro, \"advanced\"", 1, 2);
+    persistCourse("Empty", 0, 0);
+    entityManager.clear();
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    exporter.export(out, CourseCatalogExporter.Format.CSV, CourseStatus.PUBLISHED);
+
+    List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+    assertThat(lines).hasSize(1 + 2 + 1);
+    assertThat(lines).anyMatch(l -> l.contains("\"Intro, \"\"advanced\"\"\""));
+    assertThat(lines).allMatch(l -> l.replaceAll("\"[^\"]*(\"\"[^\"]*)*\"", "").split(",", -1).length == 20);
+  }
+
+  private void persistCourse(String title, int modules, int lessonsPerModule) {
+    UUID courseId = UUID.randomUUID();
+    Course course = new Course(courseId, title, "course-" + courseId, null, CourseStatus.PUBLISHED);
+    course.getTags().add("java");
+    for (int m = 0; m < modules; m++) {
+      CourseModule module = new CourseModule(UUID.randomUUID(), course, "Module " + m, m);
+      for (int l = 0; l < lessonsPerModule; l++) {
+        module.addLesson(new Lesson(UUID.randomUUID(), module, "Lesson " + l, LessonType.VIDEO, 10, l));
+      }
+      course.addModule(module);
+    }
+    entityManager.persist(course);
+    entityManager.flush();
+  }
+}
@@ -0,0 +1,104 @@
+package com.lms.course.application;
+
+import com.lms.common.audit.AuditLogger;
+import com.lms.course.domain.Course;
+import com.lms.course.domain.CourseInstructor;
+import com.lms.course.domain.CourseRepository;
+import com.lms.course.domain.CourseStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CourseDuplicationServiceTest {
+
+  private final UUID userId = UUID.randomUUID();
+  private final UUID sourceId = UUID.randomUUID();
+  private final CourseRepository courseRepository = mock(CourseRepository.class);
+  private final CourseCopyEngine copyEngine = mock(CourseCopyEngine.class);
+  private final CourseCounter courseCounter = mock(CourseCounter.class);
+  private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+  private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    Course source = Course.builder()
+        .id(sourceId)
+        .title("Java")
+        .slug("java")
+        .status(CourseStatus.PUBLISHED)
+        .tags(new HashSet<>())
+        .modules(new ArrayList<>())
+        .instructors(new ArrayList<>())
+        .build();
+    source.getInstructors().add(new CourseInstructor(source, userId, "INSTRUCTOR"));
+    when(courseRepository.findById(sourceId)).thenReturn(Optional.of(source));
+    when(courseRepository.saveAndFlush(any(Course.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    HashOperations<String, Object, Object> hash = mock(HashOperations.class);
+    when(redisTemplate.opsForHash()).thenReturn(hash);
+    when(hash.entries(anyString())).thenReturn(Map.of("status", "FAILED", "sourceCourseId", sourceId.toString(),
+        "courseId", UUID.randomUUID().toString(), "requestedBy", userId.toString(), "totalModules", "1",
+        "copiedModules", "0", "totalLessons", "1", "copiedLessons", "0"));
+  }
+
+  @Test
+  void aRejectedJobRemovesTheCopyAndGivesBackItsCount() {
+    CourseDuplicationService service = service(task -> {
+      throw new TaskRejectedException("Copy queue is full");
+    });
+
+    assertThatThrownBy(() -> service.startDuplicateJob(sourceId, userId, Set.of()))
+        .isInstanceOf(TaskRejectedException.class);
+    assertDiscardedInOneTransaction();
+  }
+
+  @Test
+  void aFailedCopyRemovesTheCopyAndGivesBackItsCount() {
+    CourseCopyEngine.ModuleCopy module = new CourseCopyEngine.ModuleCopy(UUID.randomUUID(), UUID.randomUUID(),
+        List.of(new CourseCopyEngine.LessonCopy(UUID.randomUUID(), UUID.randomUUID())));
+    when(copyEngine.plan(sourceId)).thenReturn(List.of(module));
+    when(copyEngine.copy(any(), eq(List.of(module)))).thenThrow(new IllegalStateException("Copy failed"));
+
+    assertThat(service(Runnable::run).startDuplicateJob(sourceId, userId, Set.of()).status()).isEqualTo("FAILED");
+    assertDiscardedInOneTransaction();
+  }
+
+  private void assertDiscardedInOneTransaction() {
+    InOrder inOrder = inOrder(courseCounter, courseRepository, transactionManager);
+    inOrder.verify(courseCounter).increment();
+    inOrder.verify(transactionManager).commit(any());
+    inOrder.verify(transactionManager).getTransaction(any());
+    inOrder.verify(courseRepository).deleteById(any(UUID.class));
+    inOrder.verify(courseCounter).decrement();
+    inOrder.verify(transactionManager).commit(any());
+  }
+
+  private CourseDuplicationService service(TaskExecutor copyExecutor) {
+    return new CourseDuplicationService(courseRepository, copyEngine, mock(CourseContentVersions.class),
+        courseCounter, mock(CourseSlugAllocator.class), mock(CourseCacheService.class), mock(AuditLogger.class),
+        redisTemplate, new TransactionTemplate(transactionManager), copyExecutor);
+  }
+}
@@ -0,0 +1,72 @@
+package com.lms.course.application;
+
+import com.lms.course.application.CourseApplicationService.ConflictException;
+import com.lms.course.domain.CourseRepository;
+import com.lms.course.infrastructure.SlugBloomFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseSlugAllocatorTest {
+
+  private static final UUID COURSE_ID = UUID.fromString("1b2c3d4e-0000-0000-0000-000000000000");
+
+  private final CourseRepository courseRepository = mock(CourseRepository.class);
+  private final SlugBloomFilter slugFilter = mock(SlugBloomFilter.class);
+  private final CourseSlugAllocator allocator = new CourseSlugAllocator(courseRepository, slugFilter);
+
+  @Test
+  void aSlugTheFilterHasNeverSeenIsUsedWithoutAQuery() {
+    when(slugFilter.mightContain("intro-to-java")).thenReturn(false);
+
+    assertThat(allocator.allocate(null, "Intro to Java!", COURSE_ID)).isEqualTo("intro-to-java");
+    verify(courseRepository, never()).existsBySlug(anyString());
+    verify(slugFilter).add("intro-to-java");
+  }
+
+  @Test
+  void aFalsePositiveKeepsTheGeneratedSlug() {
+    when(slugFilter.mightContain("intro-to-java")).thenReturn(true);
+    when(courseRepository.existsBySlug("intro-to-java")).thenReturn(false);
+
+    assertThat(allocator.allocate(null, "Intro to Java", COURSE_ID)).isEqualTo("intro-to-java");
+    verify(slugFilter).add("intro-to-java");
+  }
+
+  @Test
+  void aTakenGeneratedSlugGetsTheCourseIdAsSuffix() {
+    when(slugFilter.mightContain("intro-to-java")).thenReturn(true);
+    when(courseRepository.existsBySlug("intro-to-java")).thenReturn(true);
+
+    assertThat(allocator.allocate("  ", "Intro to Java", COURSE_ID)).isEqualTo("intro-to-java-1b2c3d4e");
+    verify(slugFilter).add("intro-to-java-1b2c3d4e");
+  }
+
+  @Test
+  void aTakenRequestedSlugIsRefusedAndNotAdded() {
+    when(slugFilter.mightContain("java")).thenReturn(true);
+    when(courseRepository.existsBySlug("java")).thenReturn(true);
+
+    assertThatThrownBy(() -> allocator.allocate("java", "Intro to Java", COURSE_ID))
+        .isInstanceOf(ConflictException.class);
+    verify(slugFilter, never()).add(anyString());
+  }
+
+  @Test
+  void theSuffixFitsInTheSlugColumn() {
+    String base = "a".repeat(255);
+
+    assertThat(CourseSlugAllocator.withSuffix(base, COURSE_ID))
+        .hasSize(255)
+        .endsWith("-1b2c3d4e");
+    assertThat(CourseSlugAllocator.generateSlug("--- ?! ---")).isEqualTo("course");
+  }
+}
@@ -0,0 +1,137 @@
+package com.lms.course.application;
+
+import com.lms.course.api.SyncCurriculumRequest;
+import com.lms.course.api.SyncCurriculumRequest.LessonSyncRequest;
+import com.lms.course.api.SyncCurriculumRequest.ModuleSyncRequest;
+import com.lms.course.domain.Course;
+import com.lms.course.domain.CourseModule;
+import com.lms.course.domain.CourseRepository;
+import com.lms.course.domain.CourseStatus;
+import com.lms.course.domain.Lesson;
+import com.lms.course.domain.LessonType;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true"
+})
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+@Import(CurriculumSyncEngine.class)
+class CurriculumSyncEngineTest {
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private CourseRepository courseRepository;
+
+  @Autowired
+  private CurriculumSyncEngine engine;
+
+  @MockitoBean
+  private StringRedisTemplate redisTemplate;
+
+  private UUID courseId;
+  private UUID intro;
+  private UUID advanced;
+  private UUID welcome;
+  private UUID setup;
+  private UUID deepDive;
+
+  @BeforeEach
+  void setUp() {
+    courseId = UUID.randomUUID();
+    Course course = new Course(courseId, "Course", "course-" + courseId, null, CourseStatus.PUBLISHED);
+    CourseModule introModule = new CourseModule(UUID.randomUUID(), course, "Intro", 0);
+    CourseModule advancedModule = new CourseModule(UUID.randomUUID(), course, "Advanced", 1);
+    introModule.addLesson(new Lesson(UUID.randomUUID(), introModule, "Welcome", LessonType.VIDEO, 5, 0));
+    introModule.addLesson(new Lesson(UUID.randomUUID(), introModule, "Setup", LessonType.VIDEO, 10, 1));
+    advancedModule.addLesson(new Lesson(UUID.randomUUID(), advancedModule, "Deep dive", LessonType.VIDEO, 30, 0));
+    course.addModule(introModule);
+    course.addModule(advancedModule);
+    entityManager.persist(course);
+    entityManager.flush();
+    entityManager.clear();
+
+    intro = introModule.getId();
+    advanced = advancedModule.getId();
+    welcome = introModule.getLessons().get(0).getId();
+    setup = introModule.getLessons().get(1).getId();
+    deepDive = advancedModule.getLessons().get(0).getId();
+  }
+
+  @Test
+  void unchangedTreeProducesEmptyDiff() {
+    assertThat(engine.diff(courseId, currentTree()).isEmpty()).isTrue();
+  }
+
+  @Test
+  void diffContainsOnlyChangedRowsAndApplyKeepsMovedLessonIds() {
+    SyncCurriculumRequest request = new SyncCurriculumRequest(List.of(
+        new ModuleSyncRequest(intro, "Intro", 0, List.of(
+            lesson(welcome, "Welcome!", 5, 0),
+            lesson(deepDive, "Deep dive", 30, 1),
+            lesson(null, "Quiz", 3, 2)))));
+
+    CurriculumSyncEngine.Diff diff = engine.diff(courseId, request);
+
+    assertThat(diff.insertedModules()).isEmpty();
+    assertThat(diff.updatedModules()).isEmpty();
+    assertThat(diff.deletedModules()).containsExactly(advanced);
+    assertThat(diff.insertedLessons()).extracting(CurriculumSyncEngine.LessonRow::title).containsExactly("Quiz");
+    assertThat(diff.updatedLessons()).extracting(CurriculumSyncEngine.LessonRow::id)
+        .containsExactlyInAnyOrder(welcome, deepDive);
+    assertThat(diff.renamedLessons()).extracting(CurriculumSyncEngine.LessonRow::id).containsExactly(welcome);
+    assertThat(diff.deletedLessons()).containsExactly(setup);
+
+    engine.apply(courseId, diff);
+    entityManager.clear();
+
+    List<CourseModule> modules = courseRepository.fetchModuleLessons(courseId);
+    assertThat(modules).extracting(CourseModule::getId).containsExactly(intro);
+    assertThat(modules.get(0).getLessons()).extracting(Lesson::getTitle)
+        .containsExactly("Welcome!", "Deep dive", "Quiz");
+    assertThat(modules.get(0).getLessons().get(1).getId()).isEqualTo(deepDive);
+    assertThat(engine.diff(courseId, request).isEmpty()).isFalse(); // the new lesson has no id yet
+  }
+
+  @Test
+  void fingerprintIgnoresImplicitVersusExplicitPositions() {
+    SyncCurriculumRequest implicit = new SyncCurriculumRequest(List.of(
+        new ModuleSyncRequest(intro, "Intro", null, List.of(lesson(welcome, "Welcome", 5, null)))));
+    SyncCurriculumRequest explicit = new SyncCurriculumRequest(List.of(
+        new ModuleSyncRequest(intro, "Intro", 0, List.of(lesson(welcome, "Welcome", 5, 0)))));
+
+    assertThat(engine.fingerprint(implicit)).isEqualTo(engine.fingerprint(explicit));
+    assertThat(engine.fingerprint(currentTree())).isNotEqualTo(engine.fingerprint(explicit));
+  }
+
+  private SyncCurriculumRequest currentTree() {
+    return new SyncCurriculumRequest(List.of(
+        new ModuleSyncRequest(intro, "Intro", 0, List.of(
+            lesson(welcome, "Welcome", 5, 0),
+            lesson(setup, "Setup", 10, 1))),
+        new ModuleSyncRequest(advanced, "Advanced", 1, List.of(
+            lesson(deepDive, "Deep dive", 30, 0)))));
+  }
+
+  private static LessonSyncRequest lesson(UUID id, String title, int minutes, Integer sortOrder) {
+    return new LessonSyncRequest(id, title, "VIDEO", minutes, sortOrder, false);
+  }
+}
@@ -0,0 +1,52 @@
+package com.lms.course.application;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotCourseTrackerTest {
+
+  @Test
+  void reportsHeavyHittersAmongManyColdCourses() {
+    HotCourseTracker tracker = new HotCourseTracker(512, 4, 3);
+    List<UUID> hot = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+    List<UUID> cold = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      cold.add(UUID.randomUUID());
+    }
+
+    for (int round = 0; round < 200; round++) {
+      for (int i = 0; i < hot.size(); i++) {
+        for (int n = 0; n <= i; n++) {
+          tracker.record(hot.get(i));
+        }
+      }
+      for (int i = 0; i < 10; i++) {
+        tracker.record(cold.get((round * 10 + i) % cold.size()));
+      }
+    }
+
+    assertThat(tracker.top(3)).containsExactly(hot.get(2), hot.get(1), hot.get(0));
+  }
+
+  @Test
+  void decayForgetsCoursesThatStoppedBeingViewed() {
+    HotCourseTracker tracker = new HotCourseTracker(512, 4, 3);
+    UUID once = UUID.randomUUID();
+    UUID steady = UUID.randomUUID();
+    tracker.record(once);
+
+    for (int i = 0; i < 4; i++) {
+      tracker.record(steady);
+      tracker.record(steady);
+      tracker.decay();
+    }
+
+    assertThat(tracker.top(3)).containsExactly(steady);
+    assertThat(tracker.estimate(once)).isZero();
+  }
+}
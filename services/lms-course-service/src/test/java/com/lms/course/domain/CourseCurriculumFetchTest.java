@@ -0,0 +1,103 @@
+package com.lms.course.domain;
+
+import com.lms.course.api.CourseDetailResponse;
+import com.lms.course.application.CourseCacheService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(CourseCacheService.class)
+class CourseCurriculumFetchTest {
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private CourseCacheService courseCacheService;
+
+  @Autowired
+  private CourseRepository courseRepository;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @Test
+  void detailStatementCountIsIndependentOfCurriculumSize() {
+    UUID small = persistCourse(1, 1);
+    UUID large = persistCourse(30, 10);
+
+    long smallStatements = statementsToLoad(small, 1, 1);
+    long largeStatements = statementsToLoad(large, 30, 10);
+
+    assertThat(smallStatements).isEqualTo(largeStatements);
+    assertThat(largeStatements).isLessThanOrEqualTo(4);
+  }
+
+  @Test
+  void summariesForManyCoursesTakeOneStatement() {
+    UUID small = persistCourse(1, 1);
+    UUID large = persistCourse(30, 10);
+    entityManager.clear();
+    statistics.clear();
+
+    List<CourseSummary> summaries = courseRepository.findSummariesByIdIn(List.of(small, large, UUID.randomUUID()));
+
+    assertThat(summaries).extracting(CourseSummary::id, CourseSummary::lessonCount)
+        .containsExactlyInAnyOrder(tuple(small, 1L), tuple(large, 300L));
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  private long statementsToLoad(UUID courseId, int modules, int lessonsPerModule) {
+    entityManager.clear();
+    statistics.clear();
+
+    CourseDetailResponse detail = courseCacheService.getCourseDetail(courseId, 0);
+
+    assertThat(detail.modules()).hasSize(modules);
+    assertThat(detail.modules()).allSatisfy(m -> assertThat(m.lessons()).hasSize(lessonsPerModule));
+    assertThat(detail.instructorIds()).hasSize(2);
+    assertThat(detail.tags()).containsExactlyInAnyOrder("java", "spring");
+    return statistics.getPrepareStatementCount();
+  }
+
+  private UUID persistCourse(int modules, int lessonsPerModule) {
+    UUID courseId = UUID.randomUUID();
+    Course course = new Course(courseId, "Course " + courseId, "course-" + courseId, null, CourseStatus.PUBLISHED);
+    course.getTags().add("java");
+    course.getTags().add("spring");
+    course.addInstructor(new CourseInstructor(course, UUID.randomUUID(), "INSTRUCTOR"));
+    course.addInstructor(new CourseInstructor(course, UUID.randomUUID(), "INSTRUCTOR"));
+    for (int m = 0; m < modules; m++) {
+      CourseModule module = new CourseModule(UUID.randomUUID(), course, "Module " + m, m);
+      for (int l = 0; l < lessonsPerModule; l++) {
+        module.addLesson(new Lesson(UUID.randomUUID(), module, "Lesson " + l, LessonType.VIDEO, 10, l));
+      }
+      course.addModule(module);
+    }
+    entityManager.persist(course);
+    entityManager.flush();
+    return courseId;
+  }
+}
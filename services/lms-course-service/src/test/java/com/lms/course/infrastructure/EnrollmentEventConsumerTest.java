@@ -0,0 +1,66 @@
+package com.lms.course.infrastructure;
+
+import com.lms.common.events.EventEnvelope;
+import com.lms.course.application.CourseAccessService;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class EnrollmentEventConsumerTest {
+
+  private final CourseAccessService courseAccessService = mock(CourseAccessService.class);
+  private final EnrollmentEventConsumer consumer = new EnrollmentEventConsumer(courseAccessService);
+  private final UUID userId = UUID.randomUUID();
+  private final UUID courseId = UUID.randomUUID();
+
+  @Test
+  void activeEnrollmentsAreCachedAsEnrolled() {
+    consumer.handleEnrollmentEvent(event("ENROLLMENT_CREATED", "ENROLLED"));
+    consumer.handleEnrollmentEvent(event("ENROLLMENT_ACTIVATED", "ENROLLED"));
+
+    verify(courseAccessService, times(2)).enrollmentChanged(userId, courseId, true);
+  }
+
+  @Test
+  void unpaidOrDroppedEnrollmentsInvalidateTheCachedAnswer() {
+    consumer.handleEnrollmentEvent(event("ENROLLMENT_CREATED", "PENDING_PAYMENT"));
+    consumer.handleEnrollmentEvent(event("ENROLLMENT_UPDATED", "DROPPED"));
+
+    verify(courseAccessService, times(2)).enrollmentChanged(userId, courseId, false);
+  }
+
+  @Test
+  void eventsWithoutAUserOrCourseAreIgnored() {
+    Map<String, Object> payload = new HashMap<>();
+    payload.put("courseId", courseId.toString());
+    consumer.handleEnrollmentEvent(EventEnvelope.of("ENROLLMENT_CREATED", courseId.toString(), payload, null));
+
+    verify(courseAccessService, never()).enrollmentChanged(any(), any(), anyBoolean());
+  }
+
+  @Test
+  void aFailedInvalidationDoesNotFailTheListener() {
+    doThrow(new IllegalStateException("Redis is down"))
+        .when(courseAccessService).enrollmentChanged(userId, courseId, true);
+
+    consumer.handleEnrollmentEvent(event("ENROLLMENT_CREATED", "ENROLLED"));
+  }
+
+  private EventEnvelope<Map<String, Object>> event(String type, String status) {
+    Map<String, Object> payload = new HashMap<>();
+    payload.put("userId", userId.toString());
+    payload.put("courseId", courseId.toString());
+    payload.put("status", status);
+    return EventEnvelope.of(type, UUID.randomUUID().toString(), payload, null);
+  }
+}
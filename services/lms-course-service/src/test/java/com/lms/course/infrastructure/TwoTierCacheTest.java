@@ -0,0 +1,105 @@
+package com.lms.course.infrastructure;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TwoTierCacheTest {
+
+  private final ConcurrentMapCache remote = new ConcurrentMapCache("courses");
+  private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+  private final ValueOperations<String, String> locks = mockLocks();
+
+  @Test
+  void concurrentMissesForOneKeyLoadOnce() throws Exception {
+    TwoTierCache cache = cache(Duration.ZERO);
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get("a", () -> {
+      loads.incrementAndGet();
+      loading.countDown();
+      release.await();
+      return "loaded";
+    }));
+    loading.await();
+    CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> cache.get("a", () -> {
+      loads.incrementAndGet();
+      return "again";
+    }));
+    Thread.sleep(50);
+    release.countDown();
+
+    assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+    assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+    assertThat(loads).hasValue(1);
+    assertThat(remote.get("a").get()).isEqualTo("loaded");
+  }
+
+  @Test
+  void waitingForAnotherPodDoesNotHoldUpOtherKeys() throws Exception {
+    TwoTierCache cache = cache(Duration.ofSeconds(2));
+    // Another pod holds the lock for "a" and never stores it
+    when(locks.setIfAbsent(eq("lms:cache:loading:courses:a"), anyString(), any(Duration.class))).thenReturn(false);
+
+    CompletableFuture<String> waiting = CompletableFuture.supplyAsync(() -> cache.get("a", () -> "a"));
+    Thread.sleep(100);
+    long started = System.nanoTime();
+    assertThat(cache.get("b", () -> "b")).isEqualTo("b");
+
+    assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofMillis(500));
+    assertThat(waiting).isNotDone();
+    assertThat(waiting.get(5, TimeUnit.SECONDS)).isEqualTo("a");
+  }
+
+  @Test
+  void aFailedLoadReachesEveryWaiter() throws Exception {
+    TwoTierCache cache = cache(Duration.ZERO);
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get("a", () -> {
+      loading.countDown();
+      release.await();
+      throw new IllegalStateException("Database is down");
+    }));
+    loading.await();
+    CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> cache.get("a", () -> "unused"));
+    Thread.sleep(50);
+    release.countDown();
+
+    assertThat(first).failsWithin(Duration.ofSeconds(5));
+    assertThat(second).failsWithin(Duration.ofSeconds(5));
+    assertThat(cache.get("a", () -> "recovered")).isEqualTo("recovered");
+  }
+
+  private TwoTierCache cache(Duration loadLockTtl) {
+    return new TwoTierCache("courses", Caffeine.newBuilder().build(), remote, redisTemplate,
+        "lms:cache:invalidate:courses", loadLockTtl, new SimpleMeterRegistry());
+  }
+
+  @SuppressWarnings("unchecked")
+  private ValueOperations<String, String> mockLocks() {
+    ValueOperations<String, String> operations = mock(ValueOperations.class);
+    when(redisTemplate.opsForValue()).thenReturn(operations);
+    when(operations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+    return operations;
+  }
+}
@@ -18,6 +18,7 @@ public class EnrollmentController {
 
   private static final String HEADER_USER_ID = "X-User-Id";
   private static final String HEADER_ROLES = "X-Roles";
+  private static final String HEADER_IDEMPOTENCY_KEY = "Idempotency-Key";
 
   private final EnrollmentApplicationService enrollmentService;
 
@@ -28,10 +29,11 @@ public class EnrollmentController {
   @PostMapping
   public ResponseEntity<EnrollmentResponse> enroll(
       @Valid @RequestBody EnrollRequest request,
-      @RequestHeader(HEADER_USER_ID) String userIdHeader) {
+      @RequestHeader(HEADER_USER_ID) String userIdHeader,
+      @RequestHeader(value = HEADER_IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
 
     UUID userId = UUID.fromString(userIdHeader);
-    EnrollmentResponse response = enrollmentService.enroll(userId, request);
+    EnrollmentResponse response = enrollmentService.enroll(userId, request, idempotencyKey);
     return ResponseEntity.status(HttpStatus.CREATED).body(response);
   }
 
@@ -0,0 +1,170 @@
+package com.lms.enrollment.application;
+
+import com.lms.enrollment.client.AssignmentServiceClient;
+import com.lms.enrollment.client.CourseServiceClient;
+import com.lms.enrollment.domain.CourseRequirements;
+import com.lms.enrollment.domain.CourseRequirementsRepository;
+import com.lms.enrollment.domain.EnrollmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Completion requirements per course, held locally so recalculating progress
+ * needs no call to the course or assignment service. A course is loaded from
+ * both services the first time progress is recalculated for it; from then on
+ * it is kept fresh from {@code course.events} and {@code assignment.events}.
+ * Events for courses not yet loaded are ignored.
+ */
+@Service
+@Transactional
+public class CourseRequirementsProjection {
+
+  private static final Logger log = LoggerFactory.getLogger(CourseRequirementsProjection.class);
+
+  private final CourseRequirementsRepository repository;
+  private final EnrollmentRepository enrollmentRepository;
+  private final CourseServiceClient courseServiceClient;
+  private final AssignmentServiceClient assignmentServiceClient;
+  private final TransactionTemplate requiresNew;
+
+  public CourseRequirementsProjection(
+      CourseRequirementsRepository repository,
+      EnrollmentRepository enrollmentRepository,
+      CourseServiceClient courseServiceClient,
+      AssignmentServiceClient assignmentServiceClient,
+      PlatformTransactionManager transactionManager) {
+    this.repository = repository;
+    this.enrollmentRepository = enrollmentRepository;
+    this.courseServiceClient = courseServiceClient;
+    this.assignmentServiceClient = assignmentServiceClient;
+    this.requiresNew = new TransactionTemplate(transactionManager);
+    this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  public CourseRequirements get(UUID courseId) {
+    return repository.findById(courseId).orElseGet(() -> load(courseId));
+  }
+
+  public void updateSettings(UUID courseId, BigDecimal completionThreshold, boolean requireAllAssignments) {
+    repository.findById(courseId)
+        .ifPresent(requirements -> requirements.updateSettings(completionThreshold, requireAllAssignments));
+  }
+
+  public void lessonAdded(UUID courseId, UUID lessonId) {
+    repository.findById(courseId).ifPresent(requirements -> requirements.addLesson(lessonId));
+  }
+
+  public void lessonRemoved(UUID courseId, UUID lessonId) {
+    repository.findById(courseId).ifPresent(requirements -> requirements.removeLesson(lessonId));
+  }
+
+  public void lessonsChanged(UUID courseId, Set<UUID> added, Set<UUID> removed) {
+    repository.findById(courseId).ifPresent(requirements -> {
+      added.forEach(requirements::addLesson);
+      removed.forEach(requirements::removeLesson);
+    });
+  }
+
+  /**
+   * Re-reads the curriculum for changes whose events do not say which lessons
+   * were affected, such as those published before the events listed them.
+   */
+  public void refreshCurriculum(UUID courseId) {
+    repository.findById(courseId).ifPresent(requirements -> {
+      CourseServiceClient.CourseDetailResponse course = courseServiceClient.getCourseDetail(courseId);
+      if (course == null) {
+        log.warn("Could not refresh requirements for course {}; keeping the current ones", courseId);
+        return;
+      }
+      applyCourse(requirements, course);
+    });
+  }
+
+  /**
+   * Records whether an assignment is mandatory, moving the completed
+   * mandatory assignment counters of everyone who already completed it.
+   */
+  public void assignmentChanged(UUID courseId, UUID assignmentId, boolean mandatory) {
+    repository.findById(courseId).ifPresent(requirements -> {
+      if (requirements.markAssignment(assignmentId, mandatory)) {
+        enrollmentRepository.adjustCompletedMandatoryAssignments(assignmentId, mandatory ? 1 : -1);
+      }
+    });
+  }
+
+  public void refreshAssignments(UUID courseId) {
+    repository.findById(courseId).ifPresent(requirements -> {
+      requirements.replaceMandatoryAssignments(fetchMandatoryAssignments(courseId));
+      enrollmentRepository.recountCompletedMandatoryAssignments(courseId);
+    });
+  }
+
+  public void evict(UUID courseId) {
+    if (repository.existsById(courseId)) {
+      repository.deleteById(courseId);
+      log.info("Dropped requirements for deleted course {}", courseId);
+    }
+  }
+
+  /**
+   * Builds and stores the requirements in their own transaction, so a
+   * concurrent first load of the same course cannot fail the caller's, and
+   * recounts the course's completed mandatory assignments against them. Must
+   * not be reached while holding an enrollment lock: the recount would wait on
+   * it. If the course service is unavailable the defaults are returned and
+   * nothing is stored.
+   */
+  private CourseRequirements load(UUID courseId) {
+    CourseRequirements requirements = new CourseRequirements(courseId);
+    CourseServiceClient.CourseDetailResponse course = courseServiceClient.getCourseDetail(courseId);
+    if (course == null) {
+      log.warn("Course service unavailable; using default requirements for course {}", courseId);
+      return requirements;
+    }
+    applyCourse(requirements, course);
+    requirements.replaceMandatoryAssignments(fetchMandatoryAssignments(courseId));
+
+    try {
+      requiresNew.executeWithoutResult(status -> {
+        repository.saveAndFlush(requirements);
+        enrollmentRepository.recountCompletedMandatoryAssignments(courseId);
+      });
+      log.info("Loaded requirements for course {}: {} lessons, {} mandatory assignments", courseId,
+          requirements.getLessonCount(), requirements.getMandatoryAssignmentCount());
+    } catch (DataIntegrityViolationException e) {
+      log.debug("Requirements for course {} were loaded concurrently", courseId);
+    }
+    return requirements;
+  }
+
+  private static void applyCourse(CourseRequirements requirements, CourseServiceClient.CourseDetailResponse course) {
+    requirements.updateSettings(course.completionThreshold(), Boolean.TRUE.equals(course.requireAllAssignments()));
+    Set<UUID> lessonIds = course.modules() == null ? Set.of()
+        : course.modules().stream()
+            .filter(m -> m.lessons() != null)
+            .flatMap(m -> m.lessons().stream())
+            .map(CourseServiceClient.LessonResponse::id)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+    requirements.replaceLessons(lessonIds);
+  }
+
+  private Set<UUID> fetchMandatoryAssignments(UUID courseId) {
+    return assignmentServiceClient.getAssignmentsForCourse(courseId).stream()
+        .filter(AssignmentServiceClient.AssignmentSummary::isMandatory)
+        .map(AssignmentServiceClient.AssignmentSummary::id)
+        .collect(Collectors.toSet());
+  }
+}
@@ -1,7 +1,6 @@
 package com.lms.enrollment.application;
 
 import com.lms.enrollment.api.*;
-import com.lms.enrollment.client.AssignmentServiceClient;
 import com.lms.enrollment.client.CourseServiceClient;
 import com.lms.enrollment.domain.*;
 import com.lms.enrollment.infrastructure.EnrollmentEventPublisher;
@@ -20,7 +19,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
@@ -40,10 +38,11 @@ public class EnrollmentApplicationService {
   private final LessonProgressRepository lessonProgressRepository;
   private final AssignmentCompletionRepository assignmentCompletionRepository;
   private final CourseServiceClient courseServiceClient;
-  private final AssignmentServiceClient assignmentServiceClient;
   private final StringRedisTemplate redisTemplate;
   private final AuditLogger auditLogger;
   private final EnrollmentEventPublisher eventPublisher;
+  private final CourseRequirementsProjection courseRequirements;
+  private final PlaybackPositionBuffer positionBuffer;
 
   @Value("${lms.enrollment.max-per-user:10}")
   private int maxEnrollmentsPerUser;
@@ -53,69 +52,91 @@ public class EnrollmentApplicationService {
       LessonProgressRepository lessonProgressRepository,
       AssignmentCompletionRepository assignmentCompletionRepository,
       CourseServiceClient courseServiceClient,
-      AssignmentServiceClient assignmentServiceClient,
       StringRedisTemplate redisTemplate,
       AuditLogger auditLogger,
-      EnrollmentEventPublisher eventPublisher) {
+      EnrollmentEventPublisher eventPublisher,
+      CourseRequirementsProjection courseRequirements,
+      PlaybackPositionBuffer positionBuffer) {
     this.enrollmentRepository = enrollmentRepository;
     this.lessonProgressRepository = lessonProgressRepository;
     this.assignmentCompletionRepository = assignmentCompletionRepository;
     this.courseServiceClient = courseServiceClient;
-    this.assignmentServiceClient = assignmentServiceClient;
     this.redisTemplate = redisTemplate;
     this.auditLogger = auditLogger;
     this.eventPublisher = eventPublisher;
+    this.courseRequirements = courseRequirements;
+    this.positionBuffer = positionBuffer;
   }
 
-  public EnrollmentResponse enroll(UUID userId, EnrollRequest request) {
+  /**
+   * Enrolls the user, relying on the database rather than a lock: the insert
+   * is skipped on an existing (user, course) or (user, Idempotency-Key) row and
+   * the quota is a conditional increment of the user's enrollment count. A
+   * retry with the same idempotency key gets the original enrollment back.
+   */
+  public EnrollmentResponse enroll(UUID userId, EnrollRequest request, String idempotencyKey) {
     UUID courseId = request.courseId();
-    String lockKey = String.format("lock:enrollment:%s:%s", courseId, userId);
-
-    Boolean acquired = redisTemplate.opsForValue().setIfAbsent(lockKey, "locked", Duration.ofSeconds(10));
-    if (acquired == null || !acquired) {
-      throw new ConflictException("Enrollment in progress. Please wait.");
+    if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > 255)) {
+      throw new BadRequestException("Idempotency-Key must be 1 to 255 characters");
     }
 
-    try {
-      // Check enrollment quota
-      long currentCount = enrollmentRepository.countByUserId(userId);
-      if (currentCount >= maxEnrollmentsPerUser) {
-        log.warn("User {} exceeded enrollment quota ({} / {})", userId, currentCount, maxEnrollmentsPerUser);
-        throw new ForbiddenException("Enrollment quota exceeded. Max allowed: " + maxEnrollmentsPerUser);
+    if (idempotencyKey != null) {
+      Optional<Enrollment> previous = enrollmentRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey);
+      if (previous.isPresent()) {
+        return replay(previous.get(), courseId);
       }
+    }
 
-      // Check if already enrolled
-      if (enrollmentRepository.existsByUserIdAndCourseId(userId, courseId)) {
-        throw new ConflictException("User already enrolled in this course");
-      }
+    // Validate course exists and is published
+    CourseServiceClient.CourseResponse course = courseServiceClient.getCourse(courseId);
+    if (course == null || !"PUBLISHED".equalsIgnoreCase(course.status())) {
+      throw new BadRequestException("Course not found or not published");
+    }
 
-      // Validate course exists and is published
-      CourseServiceClient.CourseResponse course = courseServiceClient.getCourse(courseId);
-      if (course == null || !"PUBLISHED".equalsIgnoreCase(course.status())) {
-        throw new BadRequestException("Course not found or not published");
+    // Day 16: Handle Paid vs Free
+    EnrollmentStatus status = course.isFree() != null && !course.isFree()
+        ? EnrollmentStatus.PENDING_PAYMENT
+        : EnrollmentStatus.ENROLLED;
+
+    UUID enrollmentId = UUID.randomUUID();
+    if (enrollmentRepository.insertIfAbsent(enrollmentId, userId, courseId, status.name(), Instant.now(),
+        idempotencyKey) == 0) {
+      // A concurrent request with the same key may have just won the insert
+      if (idempotencyKey != null) {
+        Optional<Enrollment> previous = enrollmentRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey);
+        if (previous.isPresent()) {
+          return replay(previous.get(), courseId);
+        }
       }
+      throw new ConflictException("User already enrolled in this course");
+    }
 
-      UUID enrollmentId = UUID.randomUUID();
-      Enrollment enrollment = new Enrollment(enrollmentId, userId, courseId);
+    // Over quota rolls the insert back with the transaction
+    if (enrollmentRepository.incrementEnrollmentCount(userId, maxEnrollmentsPerUser) == 0) {
+      log.warn("User {} exceeded enrollment quota ({})", userId, maxEnrollmentsPerUser);
+      throw new ForbiddenException("Enrollment quota exceeded. Max allowed: " + maxEnrollmentsPerUser);
+    }
 
-      // Day 16: Handle Paid vs Free
-      if (course.isFree() != null && !course.isFree()) {
-        log.info("Creating pending enrollment for paid course: {}", courseId);
-        enrollment.setStatus(EnrollmentStatus.PENDING_PAYMENT);
-      } else {
-        enrollment.setStatus(EnrollmentStatus.ENROLLED);
-      }
+    Enrollment saved = enrollmentRepository.findById(enrollmentId)
+        .orElseThrow(() -> new IllegalStateException("Enrollment not found after insert: " + enrollmentId));
+    if (status == EnrollmentStatus.PENDING_PAYMENT) {
+      log.info("Created pending enrollment for paid course: {}", courseId);
+    }
+    log.info("User {} enrolled in course {}", userId, courseId);
+    auditLogger.logSuccess("COURSE_ENROLL", "ENROLLMENT", saved.getId().toString(), Map.of("courseId", courseId));
 
-      Enrollment saved = enrollmentRepository.save(enrollment);
-      log.info("User {} enrolled in course {}", userId, courseId);
-      auditLogger.logSuccess("COURSE_ENROLL", "ENROLLMENT", saved.getId().toString(), Map.of("courseId", courseId));
+    eventPublisher.publishEnrollmentCreated(saved.getId(), saved.getUserId(), saved.getCourseId(),
+        saved.getStatus());
 
-      eventPublisher.publishEnrollmentCreated(saved.getId(), saved.getUserId(), saved.getCourseId());
+    return mapToEnrollmentResponse(saved, List.of(), course.title(), course.thumbnailUrl());
+  }
 
-      return mapToEnrollmentResponse(saved);
-    } finally {
-      redisTemplate.delete(lockKey);
+  private EnrollmentResponse replay(Enrollment previous, UUID courseId) {
+    if (!previous.getCourseId().equals(courseId)) {
+      throw new ConflictException("Idempotency-Key was already used to enroll in a different course");
     }
+    log.info("Replaying enrollment {} for a repeated request", previous.getId());
+    return mapToEnrollmentResponse(previous);
   }
 
   @Transactional
@@ -127,6 +148,7 @@ public class EnrollmentApplicationService {
             enrollmentRepository.save(enrollment);
             log.info("Activated enrollment for user {} and course {}", userId, courseId);
             auditLogger.logSuccess("ENROLLMENT_ACTIVATE", "ENROLLMENT", enrollment.getId().toString());
+            eventPublisher.publishEnrollmentActivated(enrollment.getId(), userId, courseId);
           }
         });
   }
@@ -174,9 +196,7 @@ public class EnrollmentApplicationService {
     boolean hasNext = enrollments.size() > pageSize;
     List<Enrollment> resultList = hasNext ? enrollments.subList(0, pageSize) : enrollments;
 
-    List<EnrollmentResponse> content = resultList.stream()
-        .map(this::mapToEnrollmentResponse)
-        .collect(Collectors.toList());
+    List<EnrollmentResponse> content = mapToEnrollmentResponses(resultList);
 
     String nextCursor = hasNext ? resultList.get(resultList.size() - 1).getEnrolledAt().toString() : null;
     long totalElements = enrollmentRepository.countByUserId(userId);
@@ -197,6 +217,7 @@ public class EnrollmentApplicationService {
       lessonProgressRepository.deleteByEnrollmentId(enrollment.getId());
     }
     enrollmentRepository.deleteByUserId(userId);
+    enrollmentRepository.deleteEnrollmentCount(userId);
 
     // Cleanup Redis
     String cacheKey = "user:enrollments:" + userId;
@@ -225,9 +246,7 @@ public class EnrollmentApplicationService {
     boolean hasNext = enrollments.size() > pageSize;
     List<Enrollment> resultList = hasNext ? enrollments.subList(0, pageSize) : enrollments;
 
-    List<EnrollmentResponse> content = resultList.stream()
-        .map(this::mapToEnrollmentResponse)
-        .collect(Collectors.toList());
+    List<EnrollmentResponse> content = mapToEnrollmentResponses(resultList);
 
     String nextCursor = hasNext ? resultList.get(resultList.size() - 1).getEnrolledAt().toString() : null;
     long totalElements = enrollmentRepository.countByCourseId(courseId);
@@ -267,6 +286,13 @@ public class EnrollmentApplicationService {
   }
 
   public void updateProgress(UUID enrollmentId, UpdateProgressRequest request, UUID userId, Set<String> roles) {
+    // Position heartbeats from the owner's player are buffered; anything else is written now
+    if (!Boolean.TRUE.equals(request.completed()) && request.positionSecs() != null
+        && enrollmentRepository.existsByIdAndUserId(enrollmentId, userId)
+        && positionBuffer.offer(enrollmentId, request.lessonId(), request.positionSecs())) {
+      return;
+    }
+
     Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
         .orElseThrow(() -> new ResourceNotFoundException("Enrollment not found"));
 
@@ -279,21 +305,39 @@ public class EnrollmentApplicationService {
       throw new ForbiddenException("Not authorized to update this enrollment");
     }
 
+    Double bufferedPosition = positionBuffer.take(enrollmentId, request.lessonId());
+    boolean completing = Boolean.TRUE.equals(request.completed());
+    CourseRequirements requirements = null;
+    if (completing) {
+      // Requirements first: loading them may recount this course's enrollments, which needs our row unlocked
+      requirements = courseRequirements.get(enrollment.getCourseId());
+      enrollmentRepository.lockById(enrollmentId);
+    }
+
     LessonProgress progress = lessonProgressRepository
         .findByEnrollmentIdAndLessonId(enrollmentId, request.lessonId())
         .orElseGet(() -> new LessonProgress(UUID.randomUUID(), enrollment, request.lessonId()));
 
-    if (Boolean.TRUE.equals(request.completed())) {
+    boolean newlyCompleted = completing && !progress.isCompleted();
+    if (newlyCompleted) {
       progress.markCompleted();
     }
 
     if (request.positionSecs() != null) {
       progress.setLastPositionSecs(request.positionSecs());
+    } else if (bufferedPosition != null) {
+      progress.setLastPositionSecs(bufferedPosition);
     }
 
     lessonProgressRepository.save(progress);
 
-    recalculateProgress(enrollment, request.lessonId());
+    // Only a completion can move the course progress
+    if (newlyCompleted) {
+      enrollmentRepository.incrementCompletedLessons(enrollmentId);
+      recalculateProgress(enrollment, requirements, request.lessonId());
+    } else {
+      enrollment.setLastLessonId(request.lessonId());
+    }
   }
 
   @Transactional
@@ -301,6 +345,9 @@ public class EnrollmentApplicationService {
     Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
         .orElseThrow(() -> new ResourceNotFoundException("Enrollment not found"));
 
+    CourseRequirements requirements = courseRequirements.get(enrollment.getCourseId());
+    enrollmentRepository.lockById(enrollmentId);
+
     if (!assignmentCompletionRepository.existsByEnrollmentIdAndAssignmentId(enrollmentId, assignmentId)) {
       AssignmentCompletion completion = AssignmentCompletion.builder()
           .id(UUID.randomUUID())
@@ -310,46 +357,31 @@ public class EnrollmentApplicationService {
           .completedAt(Instant.now())
           .build();
       assignmentCompletionRepository.save(completion);
+      if (requirements.isMandatory(assignmentId)) {
+        enrollmentRepository.incrementCompletedMandatoryAssignments(enrollmentId);
+      }
       log.info("Recorded assignment completion for assignment {} in enrollment {}", assignmentId, enrollmentId);
+      recalculateProgress(enrollment, requirements, lessonId);
     }
-
-    recalculateProgress(enrollment, lessonId);
   }
 
-  private void recalculateProgress(Enrollment enrollment, UUID lastLessonId) {
+  /**
+   * Progress from the enrollment's running completion counters. Callers hold
+   * the enrollment lock and have already counted the completion that brought
+   * them here.
+   */
+  private void recalculateProgress(Enrollment enrollment, CourseRequirements requirements, UUID lastLessonId) {
     UUID enrollmentId = enrollment.getId();
-    UUID courseId = enrollment.getCourseId();
-
-    // Fetch course requirements
-    CourseServiceClient.CourseDetailResponse course = courseServiceClient.getCourseDetail(courseId);
-    int totalLessons = 0;
-    if (course != null && course.modules() != null) {
-      totalLessons = course.modules().stream()
-          .filter(m -> m.lessons() != null)
-          .mapToInt(m -> m.lessons().size())
-          .sum();
-    }
-
-    BigDecimal threshold = (course != null && course.completionThreshold() != null)
-        ? course.completionThreshold()
-        : new BigDecimal("100.00");
 
-    boolean requireAssignments = course != null && Boolean.TRUE.equals(course.requireAllAssignments());
-
-    // Fetch assignment requirements
-    List<AssignmentServiceClient.AssignmentSummary> assignments = assignmentServiceClient
-        .getAssignmentsForCourse(courseId);
-    long totalMandatory = assignments.stream().filter(AssignmentServiceClient.AssignmentSummary::isMandatory).count();
+    int totalLessons = requirements.getLessonCount();
+    BigDecimal threshold = requirements.getCompletionThreshold();
+    boolean requireAssignments = requirements.isRequireAllAssignments();
+    long totalMandatory = requirements.getMandatoryAssignmentCount();
 
     // Current status
-    long completedLessons = lessonProgressRepository.countByEnrollmentIdAndCompletedTrue(enrollmentId);
-    List<AssignmentCompletion> completedAssignments = assignmentCompletionRepository
-        .findAllByEnrollmentId(enrollmentId);
-
-    long completedMandatoryCount = assignments.stream()
-        .filter(AssignmentServiceClient.AssignmentSummary::isMandatory)
-        .filter(a -> completedAssignments.stream().anyMatch(ca -> ca.getAssignmentId().equals(a.id())))
-        .count();
+    EnrollmentRepository.ProgressCounters counters = enrollmentRepository.findProgressCounters(enrollmentId);
+    long completedLessons = counters.getCompletedLessons();
+    long completedMandatoryCount = counters.getCompletedMandatoryAssignments();
 
     if (lastLessonId != null) {
       enrollment.setLastLessonId(lastLessonId);
@@ -374,15 +406,44 @@ public class EnrollmentApplicationService {
             "assignmentsCompleted", completedMandatoryCount));
   }
 
+  /**
+   * Maps a page of enrollments with one batched course lookup and one lesson
+   * progress query instead of one of each per row.
+   */
+  private List<EnrollmentResponse> mapToEnrollmentResponses(List<Enrollment> enrollments) {
+    if (enrollments.isEmpty()) {
+      return List.of();
+    }
+    Map<UUID, CourseServiceClient.CourseSummary> courses = courseServiceClient.getCourseSummaries(
+        enrollments.stream().map(Enrollment::getCourseId).toList());
+    Map<UUID, List<LessonProgress>> progressByEnrollment = lessonProgressRepository
+        .findAllByEnrollmentIdIn(enrollments.stream().map(Enrollment::getId).toList()).stream()
+        .collect(Collectors.groupingBy(lp -> lp.getEnrollment().getId()));
+    return enrollments.stream()
+        .map(enrollment -> {
+          var course = courses.get(enrollment.getCourseId());
+          List<LessonProgress> progress = progressByEnrollment.getOrDefault(enrollment.getId(), List.of());
+          return course != null
+              ? mapToEnrollmentResponse(enrollment, progress, course.title(), course.thumbnailUrl())
+              : mapToEnrollmentResponse(enrollment, progress, "Untitled Course", null);
+        })
+        .collect(Collectors.toList());
+  }
+
   private EnrollmentResponse mapToEnrollmentResponse(Enrollment enrollment) {
     var course = courseServiceClient.getCourse(enrollment.getCourseId());
+    return mapToEnrollmentResponse(enrollment, enrollment.getLessonProgress(), course.title(),
+        course.thumbnailUrl());
+  }
 
-    List<UUID> completedLessonIds = enrollment.getLessonProgress().stream()
+  private EnrollmentResponse mapToEnrollmentResponse(Enrollment enrollment, List<LessonProgress> lessonProgress,
+      String courseTitle, String courseThumbnailUrl) {
+    List<UUID> completedLessonIds = lessonProgress.stream()
         .filter(LessonProgress::isCompleted)
         .map(LessonProgress::getLessonId)
         .collect(Collectors.toList());
 
-    Map<UUID, Integer> lessonPositions = enrollment.getLessonProgress().stream()
+    Map<UUID, Integer> lessonPositions = lessonProgress.stream()
         .filter(lp -> lp.getLastPositionSecs() != null)
         .collect(Collectors.toMap(
             LessonProgress::getLessonId,
@@ -393,8 +454,8 @@ public class EnrollmentApplicationService {
     return new EnrollmentResponse(
         enrollment.getId(),
         enrollment.getCourseId(),
-        course.title(),
-        course.thumbnailUrl(),
+        courseTitle,
+        courseThumbnailUrl,
         enrollment.getUserId(),
         enrollment.getStatus().name(),
         enrollment.getProgressPct(),
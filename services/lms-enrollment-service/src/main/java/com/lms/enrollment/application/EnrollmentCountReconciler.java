@@ -0,0 +1,68 @@
+package com.lms.enrollment.application;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repairs drift in the per-user enrollment counts behind the enrollment
+ * quota by recounting them from the enrollments. Drift comes from
+ * enrollments removed or added without going through enroll, and leaves
+ * users locked out of, or let past, their quota.
+ *
+ * <p>
+ * A drifted count is locked before it is recounted, and the recount is a
+ * separate statement. An enroll that inserted its enrollment but is still
+ * waiting to increment the count is then either counted here, or increments
+ * the repaired count after it; it is never lost.
+ */
+@Component
+public class EnrollmentCountReconciler {
+
+  private static final Logger log = LoggerFactory.getLogger(EnrollmentCountReconciler.class);
+
+  private static final String LOCK_DRIFTED = "SELECT c.user_id FROM lms_enrollment.user_enrollment_counts c "
+      + "WHERE c.enrollment_count <> (SELECT count(*) FROM lms_enrollment.enrollments e WHERE e.user_id = c.user_id) "
+      + "ORDER BY c.user_id FOR UPDATE";
+
+  private static final String RECOUNT = "UPDATE lms_enrollment.user_enrollment_counts "
+      + "SET enrollment_count = (SELECT count(*) FROM lms_enrollment.enrollments WHERE user_id = ?) "
+      + "WHERE user_id = ?";
+
+  // A count created meanwhile by an enroll is left alone; if it is short, the next run repairs it
+  private static final String INSERT_MISSING = "INSERT INTO lms_enrollment.user_enrollment_counts "
+      + "(user_id, enrollment_count) "
+      + "SELECT e.user_id, count(*) FROM lms_enrollment.enrollments e "
+      + "WHERE NOT EXISTS (SELECT 1 FROM lms_enrollment.user_enrollment_counts c WHERE c.user_id = e.user_id) "
+      + "GROUP BY e.user_id "
+      + "ON CONFLICT (user_id) DO NOTHING";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+
+  public EnrollmentCountReconciler(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  @Scheduled(fixedDelayString = "${lms.enrollment.count-reconcile-interval:PT1H}",
+      initialDelayString = "${lms.enrollment.count-reconcile-interval:PT1H}")
+  public void reconcile() {
+    List<UUID> drifted = transactionTemplate.execute(status -> {
+      List<UUID> userIds = jdbcTemplate.queryForList(LOCK_DRIFTED, UUID.class);
+      jdbcTemplate.batchUpdate(RECOUNT, userIds.stream().map(userId -> new Object[] { userId, userId }).toList());
+      return userIds;
+    });
+    int missing = jdbcTemplate.update(INSERT_MISSING);
+    if (!drifted.isEmpty() || missing > 0) {
+      log.warn("Repaired enrollment counts: {} drifted and {} missing", drifted.size(), missing);
+    }
+  }
+}
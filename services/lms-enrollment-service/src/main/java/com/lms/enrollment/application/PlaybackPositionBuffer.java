@@ -0,0 +1,135 @@
+package com.lms.enrollment.application;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for playback positions. Players report the position
+ * every few seconds while a video plays; only the latest one per enrollment
+ * and lesson is kept, and every {@code flush-interval} they are written in one
+ * batch together with each enrollment's last lesson.
+ *
+ * <p>
+ * Durability: positions live in this pod's memory until flushed, and are
+ * flushed on graceful shutdown. A pod killed outright loses at most one
+ * interval of positions, and a pod serving a read before the flush returns
+ * the previous position. Completions never go through the buffer. Setting
+ * {@code enabled: false} writes every position through.
+ */
+@Component
+public class PlaybackPositionBuffer {
+
+  private static final Logger log = LoggerFactory.getLogger(PlaybackPositionBuffer.class);
+  private static final int BATCH_SIZE = 500;
+
+  record Key(UUID enrollmentId, UUID lessonId) {
+  }
+
+  record Position(double positionSecs, Instant at) {
+  }
+
+  private final Map<Key, Position> pending = new ConcurrentHashMap<>();
+  private final JdbcTemplate jdbcTemplate;
+  private final boolean enabled;
+  private final int maxPending;
+
+  public PlaybackPositionBuffer(JdbcTemplate jdbcTemplate,
+      @Value("${lms.enrollment.progress.buffer.enabled:true}") boolean enabled,
+      @Value("${lms.enrollment.progress.buffer.max-pending:50000}") int maxPending) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.enabled = enabled;
+    this.maxPending = maxPending;
+  }
+
+  /**
+   * Holds the position for the next flush.
+   *
+   * @return {@code false} if the buffer is disabled or full, in which case
+   *         the caller writes the position itself
+   */
+  public boolean offer(UUID enrollmentId, UUID lessonId, double positionSecs) {
+    if (!enabled) {
+      return false;
+    }
+    Key key = new Key(enrollmentId, lessonId);
+    if (pending.size() >= maxPending && !pending.containsKey(key)) {
+      return false;
+    }
+    pending.put(key, new Position(positionSecs, Instant.now()));
+    return true;
+  }
+
+  /**
+   * Removes and returns the buffered position, for a direct write that is
+   * about to supersede it.
+   */
+  public Double take(UUID enrollmentId, UUID lessonId) {
+    Position position = pending.remove(new Key(enrollmentId, lessonId));
+    return position != null ? position.positionSecs() : null;
+  }
+
+  @Scheduled(fixedDelayString = "${lms.enrollment.progress.buffer.flush-interval:PT5S}")
+  @PreDestroy
+  public synchronized void flush() {
+    if (pending.isEmpty()) {
+      return;
+    }
+    List<Map.Entry<Key, Position>> batch = new ArrayList<>(pending.size());
+    Map<UUID, Map.Entry<Key, Position>> lastLessons = new LinkedHashMap<>();
+    for (Map.Entry<Key, Position> entry : pending.entrySet()) {
+      // Only take what is still current; a newer position stays for the next flush
+      if (pending.remove(entry.getKey(), entry.getValue())) {
+        batch.add(Map.entry(entry.getKey(), entry.getValue()));
+        lastLessons.merge(entry.getKey().enrollmentId(), Map.entry(entry.getKey(), entry.getValue()),
+            (a, b) -> a.getValue().at().isAfter(b.getValue().at()) ? a : b);
+      }
+    }
+
+    try {
+      // Enrollments deleted since the position was reported are skipped. Both statements only move forward
+      // in time, so a late flush or another pod's older position cannot overwrite a newer write.
+      jdbcTemplate.batchUpdate("INSERT INTO lms_enrollment.lesson_progress "
+          + "(id, enrollment_id, lesson_id, completed, last_position_secs, last_accessed_at) "
+          + "SELECT ?, ?, ?, false, ?, ? WHERE EXISTS (SELECT 1 FROM lms_enrollment.enrollments WHERE id = ?) "
+          + "ON CONFLICT (enrollment_id, lesson_id) DO UPDATE SET "
+          + "last_position_secs = EXCLUDED.last_position_secs, last_accessed_at = EXCLUDED.last_accessed_at "
+          + "WHERE lesson_progress.last_accessed_at <= EXCLUDED.last_accessed_at",
+          batch, BATCH_SIZE, (ps, e) -> {
+            ps.setObject(1, UUID.randomUUID());
+            ps.setObject(2, e.getKey().enrollmentId());
+            ps.setObject(3, e.getKey().lessonId());
+            ps.setDouble(4, e.getValue().positionSecs());
+            ps.setTimestamp(5, Timestamp.from(e.getValue().at()));
+            ps.setObject(6, e.getKey().enrollmentId());
+          });
+      jdbcTemplate.batchUpdate("UPDATE lms_enrollment.enrollments SET last_lesson_id = ?, updated_at = ? "
+          + "WHERE id = ? AND updated_at <= ?",
+          lastLessons.values(), BATCH_SIZE, (ps, e) -> {
+            Timestamp at = Timestamp.from(e.getValue().at());
+            ps.setObject(1, e.getKey().lessonId());
+            ps.setTimestamp(2, at);
+            ps.setObject(3, e.getKey().enrollmentId());
+            ps.setTimestamp(4, at);
+          });
+      log.debug("Flushed {} playback positions", batch.size());
+    } catch (DataAccessException e) {
+      log.error("Failed to flush {} playback positions; retrying next interval", batch.size(), e);
+      batch.forEach(entry -> pending.putIfAbsent(entry.getKey(), entry.getValue()));
+    }
+  }
+}
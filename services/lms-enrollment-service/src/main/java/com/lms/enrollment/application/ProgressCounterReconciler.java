@@ -0,0 +1,55 @@
+package com.lms.enrollment.application;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Repairs drift in the running completion counters on enrollments by
+ * recounting them from lesson progress and assignment completions. Drift can
+ * come from a mandatory-assignment recount racing a completion, or from rows
+ * changed outside the application. Only rows whose counters are wrong are
+ * written; their progress is recomputed on the next completion.
+ */
+@Component
+public class ProgressCounterReconciler {
+
+  private static final Logger log = LoggerFactory.getLogger(ProgressCounterReconciler.class);
+
+  private static final String RECONCILE_LESSONS = "UPDATE lms_enrollment.enrollments e "
+      + "SET completed_lessons = actual.n "
+      + "FROM (SELECT e2.id, (SELECT count(*) FROM lms_enrollment.lesson_progress lp "
+      + "      WHERE lp.enrollment_id = e2.id AND lp.completed) AS n "
+      + "      FROM lms_enrollment.enrollments e2) actual "
+      + "WHERE actual.id = e.id AND e.completed_lessons <> actual.n";
+
+  // Courses without loaded requirements have no known mandatory assignments; their counters are set on load
+  private static final String RECONCILE_MANDATORY_ASSIGNMENTS = "UPDATE lms_enrollment.enrollments e "
+      + "SET completed_mandatory_assignments = actual.n "
+      + "FROM (SELECT e2.id, (SELECT count(*) FROM lms_enrollment.assignment_completions ac "
+      + "      JOIN lms_enrollment.course_requirement_assignments cra "
+      + "      ON cra.course_id = e2.course_id AND cra.assignment_id = ac.assignment_id "
+      + "      WHERE ac.enrollment_id = e2.id) AS n "
+      + "      FROM lms_enrollment.enrollments e2 "
+      + "      JOIN lms_enrollment.course_requirements cr ON cr.course_id = e2.course_id) actual "
+      + "WHERE actual.id = e.id AND e.completed_mandatory_assignments <> actual.n";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public ProgressCounterReconciler(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Scheduled(fixedDelayString = "${lms.enrollment.progress.reconcile-interval:PT1H}",
+      initialDelayString = "${lms.enrollment.progress.reconcile-interval:PT1H}")
+  public void reconcile() {
+    int lessons = jdbcTemplate.update(RECONCILE_LESSONS);
+    int assignments = jdbcTemplate.update(RECONCILE_MANDATORY_ASSIGNMENTS);
+    if (lessons > 0 || assignments > 0) {
+      log.warn("Repaired progress counters: {} completed-lesson and {} mandatory-assignment counts", lessons,
+          assignments);
+    }
+  }
+}
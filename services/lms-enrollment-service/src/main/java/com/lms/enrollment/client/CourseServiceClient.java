@@ -5,10 +5,16 @@ import io.github.resilience4j.retry.annotation.Retry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Component
@@ -16,11 +22,14 @@ public class CourseServiceClient {
 
   private static final Logger log = LoggerFactory.getLogger(CourseServiceClient.class);
   private final RestClient restClient;
+  private final int batchSize;
 
-  public CourseServiceClient(@Value("${lms.course-service.url}") String courseServiceUrl) {
+  public CourseServiceClient(@Value("${lms.course-service.url}") String courseServiceUrl,
+      @Value("${lms.course-service.batch-size:100}") int batchSize) {
     this.restClient = RestClient.builder()
         .baseUrl(courseServiceUrl)
         .build();
+    this.batchSize = batchSize;
   }
 
   @CircuitBreaker(name = "courseService", fallbackMethod = "isCoursePublishedFallback")
@@ -62,6 +71,35 @@ public class CourseServiceClient {
     }
   }
 
+  /**
+   * Summaries for many courses at once, one request per {@code batch-size}
+   * ids. Courses the course service does not know are absent from the map;
+   * if the course service is unavailable the map is empty.
+   */
+  @CircuitBreaker(name = "courseService", fallbackMethod = "getCourseSummariesFallback")
+  @Retry(name = "courseService")
+  public Map<UUID, CourseSummary> getCourseSummaries(Collection<UUID> courseIds) {
+    List<UUID> ids = new ArrayList<>(new LinkedHashSet<>(courseIds));
+    Map<UUID, CourseSummary> summaries = new HashMap<>();
+    for (int from = 0; from < ids.size(); from += batchSize) {
+      List<CourseSummary> batch = restClient.post()
+          .uri("/api/v1/internal/courses/summaries")
+          .body(new CourseSummaryBatchRequest(ids.subList(from, Math.min(from + batchSize, ids.size()))))
+          .retrieve()
+          .body(new ParameterizedTypeReference<List<CourseSummary>>() {
+          });
+      if (batch != null) {
+        batch.forEach(summary -> summaries.put(summary.id(), summary));
+      }
+    }
+    return summaries;
+  }
+
+  public Map<UUID, CourseSummary> getCourseSummariesFallback(Collection<UUID> courseIds, Throwable t) {
+    log.error("Fallback for course summaries ({} ids)", courseIds.size(), t);
+    return Map.of();
+  }
+
   private CourseResponse getCourseResponse(UUID courseId) {
     return restClient.get()
         .uri("/api/v1/courses/{courseId}", courseId)
@@ -127,6 +165,22 @@ public class CourseServiceClient {
       Boolean isFree) {
   }
 
+  public record CourseSummary(
+      UUID id,
+      String title,
+      String thumbnailUrl,
+      String status,
+      Boolean isFree,
+      java.math.BigDecimal price,
+      String currency,
+      long lessonCount,
+      java.math.BigDecimal completionThreshold,
+      Boolean requireAllAssignments) {
+  }
+
+  private record CourseSummaryBatchRequest(List<UUID> ids) {
+  }
+
   public record CourseDetailResponse(UUID id, String title, String status, String thumbnailUrl,
       java.math.BigDecimal completionThreshold, Boolean requireAllAssignments, List<ModuleResponse> modules) {
   }
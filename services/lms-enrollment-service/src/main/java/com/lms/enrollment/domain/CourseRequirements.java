@@ -0,0 +1,121 @@
+package com.lms.enrollment.domain;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * What it takes to complete a course: its lessons, the completion threshold
+ * and the mandatory assignments. A local projection of course and assignment
+ * service state, so progress can be recalculated without calling either.
+ */
+@Entity
+@Table(name = "course_requirements", schema = "lms_enrollment")
+public class CourseRequirements {
+
+  public static final BigDecimal DEFAULT_THRESHOLD = new BigDecimal("100.00");
+
+  @Id
+  @Column(name = "course_id")
+  private UUID courseId;
+
+  @Column(name = "completion_threshold", nullable = false, precision = 5, scale = 2)
+  private BigDecimal completionThreshold = DEFAULT_THRESHOLD;
+
+  @Column(name = "require_all_assignments", nullable = false)
+  private boolean requireAllAssignments;
+
+  @ElementCollection
+  @CollectionTable(name = "course_requirement_lessons", schema = "lms_enrollment",
+      joinColumns = @JoinColumn(name = "course_id"))
+  @Column(name = "lesson_id", nullable = false)
+  private Set<UUID> lessonIds = new HashSet<>();
+
+  @ElementCollection
+  @CollectionTable(name = "course_requirement_assignments", schema = "lms_enrollment",
+      joinColumns = @JoinColumn(name = "course_id"))
+  @Column(name = "assignment_id", nullable = false)
+  private Set<UUID> mandatoryAssignmentIds = new HashSet<>();
+
+  @Column(name = "updated_at", nullable = false)
+  private Instant updatedAt;
+
+  protected CourseRequirements() {
+  }
+
+  public CourseRequirements(UUID courseId) {
+    this.courseId = courseId;
+    this.updatedAt = Instant.now();
+  }
+
+  public void updateSettings(BigDecimal completionThreshold, boolean requireAllAssignments) {
+    this.completionThreshold = completionThreshold != null ? completionThreshold : DEFAULT_THRESHOLD;
+    this.requireAllAssignments = requireAllAssignments;
+    this.updatedAt = Instant.now();
+  }
+
+  public void replaceLessons(Set<UUID> lessonIds) {
+    this.lessonIds.retainAll(lessonIds);
+    this.lessonIds.addAll(lessonIds);
+    this.updatedAt = Instant.now();
+  }
+
+  public void addLesson(UUID lessonId) {
+    if (lessonIds.add(lessonId)) {
+      this.updatedAt = Instant.now();
+    }
+  }
+
+  public void removeLesson(UUID lessonId) {
+    if (lessonIds.remove(lessonId)) {
+      this.updatedAt = Instant.now();
+    }
+  }
+
+  public void replaceMandatoryAssignments(Set<UUID> assignmentIds) {
+    this.mandatoryAssignmentIds.retainAll(assignmentIds);
+    this.mandatoryAssignmentIds.addAll(assignmentIds);
+    this.updatedAt = Instant.now();
+  }
+
+  /** @return whether the assignment's mandatory status changed */
+  public boolean markAssignment(UUID assignmentId, boolean mandatory) {
+    boolean changed = mandatory ? mandatoryAssignmentIds.add(assignmentId) : mandatoryAssignmentIds.remove(assignmentId);
+    if (changed) {
+      this.updatedAt = Instant.now();
+    }
+    return changed;
+  }
+
+  public boolean isMandatory(UUID assignmentId) {
+    return mandatoryAssignmentIds.contains(assignmentId);
+  }
+
+  public UUID getCourseId() {
+    return courseId;
+  }
+
+  public BigDecimal getCompletionThreshold() {
+    return completionThreshold;
+  }
+
+  public boolean isRequireAllAssignments() {
+    return requireAllAssignments;
+  }
+
+  public int getLessonCount() {
+    return lessonIds.size();
+  }
+
+  public int getMandatoryAssignmentCount() {
+    return mandatoryAssignmentIds.size();
+  }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+}
@@ -0,0 +1,10 @@
+package com.lms.enrollment.domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface CourseRequirementsRepository extends JpaRepository<CourseRequirements, UUID> {
+}
@@ -47,6 +47,9 @@ public class Enrollment {
   @Column(name = "last_lesson_id")
   private UUID lastLessonId;
 
+  @Column(name = "idempotency_key", updatable = false)
+  private String idempotencyKey;
+
   @OneToMany(mappedBy = "enrollment", cascade = CascadeType.ALL, orphanRemoval = true)
   private List<LessonProgress> lessonProgress = new ArrayList<>();
 
@@ -117,6 +120,10 @@ public class Enrollment {
     this.lastLessonId = lastLessonId;
   }
 
+  public String getIdempotencyKey() {
+    return idempotencyKey;
+  }
+
   public List<LessonProgress> getLessonProgress() {
     return lessonProgress;
   }
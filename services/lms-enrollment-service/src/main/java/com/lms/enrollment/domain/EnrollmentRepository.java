@@ -3,6 +3,9 @@ package com.lms.enrollment.domain;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
@@ -20,6 +23,40 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, UUID> {
 
   long countByUserId(UUID userId);
 
+  boolean existsByIdAndUserId(UUID id, UUID userId);
+
+  Optional<Enrollment> findByUserIdAndIdempotencyKey(UUID userId, String idempotencyKey);
+
+  /**
+   * Inserts the enrollment unless the user is already enrolled in the course
+   * or has already used the idempotency key.
+   *
+   * @return 1 if inserted, 0 otherwise
+   */
+  @Modifying
+  @Query(value = "INSERT INTO lms_enrollment.enrollments "
+      + "(id, user_id, course_id, status, progress_pct, enrolled_at, updated_at, idempotency_key) "
+      + "VALUES (:id, :userId, :courseId, :status, 0, :now, :now, CAST(:idempotencyKey AS varchar)) "
+      + "ON CONFLICT DO NOTHING", nativeQuery = true)
+  int insertIfAbsent(@Param("id") UUID id, @Param("userId") UUID userId, @Param("courseId") UUID courseId,
+      @Param("status") String status, @Param("now") Instant now, @Param("idempotencyKey") String idempotencyKey);
+
+  /**
+   * Counts one more enrollment for the user unless they already have
+   * {@code max}.
+   *
+   * @return 1 if counted, 0 if the quota is used up
+   */
+  @Modifying
+  @Query(value = "INSERT INTO lms_enrollment.user_enrollment_counts (user_id, enrollment_count) VALUES (:userId, 1) "
+      + "ON CONFLICT (user_id) DO UPDATE SET enrollment_count = user_enrollment_counts.enrollment_count + 1 "
+      + "WHERE user_enrollment_counts.enrollment_count < :max", nativeQuery = true)
+  int incrementEnrollmentCount(@Param("userId") UUID userId, @Param("max") int max);
+
+  @Modifying
+  @Query(value = "DELETE FROM lms_enrollment.user_enrollment_counts WHERE user_id = :userId", nativeQuery = true)
+  void deleteEnrollmentCount(@Param("userId") UUID userId);
+
   List<Enrollment> findByUserIdAndEnrolledAtLessThanOrderByEnrolledAtDesc(UUID userId, Instant enrolledAt,
       Pageable pageable);
 
@@ -33,4 +70,53 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, UUID> {
   boolean existsByUserIdAndCourseId(UUID userId, UUID courseId);
 
   void deleteByUserId(UUID userId);
+
+  /**
+   * Locks the enrollment row so completions for the same enrollment apply one
+   * at a time. Scalar on purpose: a managed {@link Enrollment} already in the
+   * session would not be re-read.
+   */
+  @Query(value = "SELECT 1 FROM lms_enrollment.enrollments WHERE id = :id FOR UPDATE", nativeQuery = true)
+  Optional<Integer> lockById(@Param("id") UUID id);
+
+  // The counters are not mapped on Enrollment; these statements are their only writers besides reconciliation
+
+  @Query(value = "SELECT completed_lessons AS \"completedLessons\", "
+      + "completed_mandatory_assignments AS \"completedMandatoryAssignments\" "
+      + "FROM lms_enrollment.enrollments WHERE id = :id", nativeQuery = true)
+  ProgressCounters findProgressCounters(@Param("id") UUID id);
+
+  @Modifying
+  @Query(value = "UPDATE lms_enrollment.enrollments SET completed_lessons = completed_lessons + 1 WHERE id = :id",
+      nativeQuery = true)
+  void incrementCompletedLessons(@Param("id") UUID id);
+
+  @Modifying
+  @Query(value = "UPDATE lms_enrollment.enrollments "
+      + "SET completed_mandatory_assignments = completed_mandatory_assignments + 1 WHERE id = :id",
+      nativeQuery = true)
+  void incrementCompletedMandatoryAssignments(@Param("id") UUID id);
+
+  /** Applies an assignment becoming mandatory (+1) or optional (-1) to everyone who completed it. */
+  @Modifying
+  @Query(value = "UPDATE lms_enrollment.enrollments "
+      + "SET completed_mandatory_assignments = GREATEST(completed_mandatory_assignments + :delta, 0) "
+      + "WHERE id IN (SELECT enrollment_id FROM lms_enrollment.assignment_completions "
+      + "WHERE assignment_id = :assignmentId)", nativeQuery = true)
+  int adjustCompletedMandatoryAssignments(@Param("assignmentId") UUID assignmentId, @Param("delta") int delta);
+
+  /** Recounts mandatory completions for a course whose mandatory assignments were just (re)loaded. */
+  @Modifying(flushAutomatically = true)
+  @Query(value = "UPDATE lms_enrollment.enrollments e SET completed_mandatory_assignments = ("
+      + "SELECT count(*) FROM lms_enrollment.assignment_completions ac "
+      + "JOIN lms_enrollment.course_requirement_assignments cra "
+      + "ON cra.course_id = e.course_id AND cra.assignment_id = ac.assignment_id "
+      + "WHERE ac.enrollment_id = e.id) WHERE e.course_id = :courseId", nativeQuery = true)
+  int recountCompletedMandatoryAssignments(@Param("courseId") UUID courseId);
+
+  interface ProgressCounters {
+    int getCompletedLessons();
+
+    int getCompletedMandatoryAssignments();
+  }
 }
@@ -3,6 +3,8 @@ package com.lms.enrollment.domain;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,5 +14,7 @@ public interface LessonProgressRepository extends JpaRepository<LessonProgress,
 
   long countByEnrollmentIdAndCompletedTrue(UUID enrollmentId);
 
+  List<LessonProgress> findAllByEnrollmentIdIn(Collection<UUID> enrollmentIds);
+
   void deleteByEnrollmentId(UUID enrollmentId);
 }
@@ -1,6 +1,7 @@
 package com.lms.enrollment.infrastructure;
 
 import com.lms.common.events.EventEnvelope;
+import com.lms.enrollment.application.CourseRequirementsProjection;
 import com.lms.enrollment.application.EnrollmentApplicationService;
 import com.lms.enrollment.domain.EnrollmentRepository;
 import lombok.RequiredArgsConstructor;
@@ -18,6 +19,7 @@ public class AssignmentEventConsumer {
 
   private final EnrollmentApplicationService enrollmentService;
   private final EnrollmentRepository enrollmentRepository;
+  private final CourseRequirementsProjection requirements;
 
   @KafkaListener(topics = "assignment.events", groupId = "enrollment-service-group")
   public void handleAssignmentEvent(EventEnvelope<Map<String, Object>> event) {
@@ -26,6 +28,20 @@ public class AssignmentEventConsumer {
 
     if ("AssignmentGraded".equals(eventType)) {
       handleAssignmentGraded(event.payload());
+    } else if ("AssignmentCreated".equals(eventType) || "AssignmentUpdated".equals(eventType)) {
+      handleAssignmentChanged(event.aggregateId(), event.payload());
+    }
+  }
+
+  private void handleAssignmentChanged(String assignmentId, Map<String, Object> payload) {
+    UUID courseId = UUID.fromString(payload.get("courseId").toString());
+    Object mandatory = payload.get("isMandatory");
+    if (mandatory == null) {
+      // Published before events carried the flag
+      requirements.refreshAssignments(courseId);
+    } else {
+      requirements.assignmentChanged(courseId, UUID.fromString(assignmentId),
+          Boolean.parseBoolean(mandatory.toString()));
     }
   }
 
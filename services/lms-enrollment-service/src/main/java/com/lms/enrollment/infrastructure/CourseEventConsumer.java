@@ -0,0 +1,70 @@
+package com.lms.enrollment.infrastructure;
+
+import com.lms.common.events.EventEnvelope;
+import com.lms.enrollment.application.CourseRequirementsProjection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps {@link CourseRequirementsProjection} in step with the course service.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CourseEventConsumer {
+
+  private final CourseRequirementsProjection requirements;
+
+  @KafkaListener(topics = "course.events", groupId = "enrollment-service-group")
+  public void handleCourseEvent(EventEnvelope<Map<String, Object>> event) {
+    String eventType = event.eventType();
+    Map<String, Object> payload = event.payload();
+    log.debug("Received course event: {}", eventType);
+
+    switch (eventType) {
+      case "CourseCreated", "CourseUpdated" -> requirements.updateSettings(uuid(payload, "id"),
+          new BigDecimal(payload.get("completionThreshold").toString()),
+          Boolean.parseBoolean(String.valueOf(payload.get("requireAllAssignments"))));
+      case "LessonCreated" -> requirements.lessonAdded(uuid(payload, "courseId"), uuid(payload, "lessonId"));
+      case "LessonDeleted" -> requirements.lessonRemoved(uuid(payload, "courseId"), uuid(payload, "lessonId"));
+      // Events published before the lesson ids were added have to be answered by asking the course service
+      case "ModuleDeleted" -> {
+        if (payload.containsKey("lessonIds")) {
+          requirements.lessonsChanged(uuid(payload, "courseId"), Set.of(), uuids(payload, "lessonIds"));
+        } else {
+          requirements.refreshCurriculum(uuid(payload, "courseId"));
+        }
+      }
+      case "CurriculumChanged" -> {
+        if (payload.containsKey("addedLessonIds")) {
+          requirements.lessonsChanged(uuid(payload, "courseId"), uuids(payload, "addedLessonIds"),
+              uuids(payload, "removedLessonIds"));
+        } else {
+          requirements.refreshCurriculum(uuid(payload, "courseId"));
+        }
+      }
+      case "CourseDeleted" -> requirements.evict(uuid(payload, "id"));
+      default -> {
+      }
+    }
+  }
+
+  private static UUID uuid(Map<String, Object> payload, String key) {
+    return UUID.fromString(payload.get(key).toString());
+  }
+
+  private static Set<UUID> uuids(Map<String, Object> payload, String key) {
+    return payload.get(key) instanceof Collection<?> values
+        ? values.stream().map(value -> UUID.fromString(value.toString())).collect(Collectors.toSet())
+        : Set.of();
+  }
+}
@@ -2,6 +2,7 @@ package com.lms.enrollment.infrastructure;
 
 import com.lms.common.events.EnrollmentEvent;
 import com.lms.common.events.EventEnvelope;
+import com.lms.enrollment.domain.EnrollmentStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -17,25 +18,34 @@ public class EnrollmentEventPublisher {
   private final KafkaTemplate<String, Object> kafkaTemplate;
   private static final String TOPIC = "enrollment.events";
 
-  public void publishEnrollmentCreated(UUID enrollmentId, UUID userId, UUID courseId) {
+  public void publishEnrollmentCreated(UUID enrollmentId, UUID userId, UUID courseId, EnrollmentStatus status) {
+    publish("ENROLLMENT_CREATED", enrollmentId, userId, courseId, status);
+    log.info("Published enrollment created event for enrollment: {}", enrollmentId);
+  }
+
+  public void publishEnrollmentActivated(UUID enrollmentId, UUID userId, UUID courseId) {
+    publish("ENROLLMENT_ACTIVATED", enrollmentId, userId, courseId, EnrollmentStatus.ENROLLED);
+    log.info("Published enrollment activated event for enrollment: {}", enrollmentId);
+  }
+
+  private void publish(String eventType, UUID enrollmentId, UUID userId, UUID courseId, EnrollmentStatus status) {
     EnrollmentEvent event = EnrollmentEvent.builder()
         .enrollmentId(enrollmentId)
         .userId(userId)
         .courseId(courseId)
-        .status("ACTIVE")
+        .status(status.name())
         .timestamp(System.currentTimeMillis())
         .build();
 
     EventEnvelope<EnrollmentEvent> envelope = EventEnvelope.<EnrollmentEvent>builder()
         .eventId(UUID.randomUUID())
         .aggregateId(enrollmentId.toString())
-        .eventType("ENROLLMENT_CREATED")
+        .eventType(eventType)
         .payload(event)
         .timestamp(java.time.Instant.now())
         .version(1)
         .build();
 
     kafkaTemplate.send(TOPIC, enrollmentId.toString(), envelope);
-    log.info("Published enrollment created event for enrollment: {}", enrollmentId);
   }
 }
@@ -0,0 +1,21 @@
+-- Local copy of what it takes to complete a course, kept fresh from course.events and assignment.events
+CREATE TABLE lms_enrollment.course_requirements (
+    course_id UUID PRIMARY KEY,
+    completion_threshold DECIMAL(5, 2) NOT NULL DEFAULT 100.00,
+    require_all_assignments BOOLEAN NOT NULL DEFAULT FALSE,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE lms_enrollment.course_requirement_lessons (
+    course_id UUID NOT NULL,
+    lesson_id UUID NOT NULL,
+    CONSTRAINT pk_course_requirement_lessons PRIMARY KEY (course_id, lesson_id),
+    CONSTRAINT fk_crl_course FOREIGN KEY (course_id) REFERENCES lms_enrollment.course_requirements(course_id) ON DELETE CASCADE
+);
+
+CREATE TABLE lms_enrollment.course_requirement_assignments (
+    course_id UUID NOT NULL,
+    assignment_id UUID NOT NULL,
+    CONSTRAINT pk_course_requirement_assignments PRIMARY KEY (course_id, assignment_id),
+    CONSTRAINT fk_cra_course FOREIGN KEY (course_id) REFERENCES lms_enrollment.course_requirements(course_id) ON DELETE CASCADE
+);
@@ -0,0 +1,18 @@
+-- Running totals behind progress_pct, kept up to date on each completion and repaired periodically
+ALTER TABLE lms_enrollment.enrollments
+  ADD COLUMN IF NOT EXISTS completed_lessons INTEGER NOT NULL DEFAULT 0,
+  ADD COLUMN IF NOT EXISTS completed_mandatory_assignments INTEGER NOT NULL DEFAULT 0;
+
+UPDATE lms_enrollment.enrollments e
+SET completed_lessons = (
+  SELECT count(*) FROM lms_enrollment.lesson_progress lp
+  WHERE lp.enrollment_id = e.id AND lp.completed
+);
+
+UPDATE lms_enrollment.enrollments e
+SET completed_mandatory_assignments = (
+  SELECT count(*) FROM lms_enrollment.assignment_completions ac
+  JOIN lms_enrollment.course_requirement_assignments cra
+    ON cra.course_id = e.course_id AND cra.assignment_id = ac.assignment_id
+  WHERE ac.enrollment_id = e.id
+);
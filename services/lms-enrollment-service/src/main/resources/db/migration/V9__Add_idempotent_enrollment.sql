@@ -0,0 +1,15 @@
+-- Idempotency-Key of the request that created the enrollment, so retries get the same enrollment back
+ALTER TABLE lms_enrollment.enrollments
+  ADD COLUMN IF NOT EXISTS idempotency_key VARCHAR(255);
+
+ALTER TABLE lms_enrollment.enrollments
+  ADD CONSTRAINT uk_enrollments_user_idempotency_key UNIQUE (user_id, idempotency_key);
+
+-- Per-user enrollment count for the quota, maintained on enroll instead of counted
+CREATE TABLE lms_enrollment.user_enrollment_counts (
+    user_id UUID PRIMARY KEY,
+    enrollment_count INTEGER NOT NULL DEFAULT 0
+);
+
+INSERT INTO lms_enrollment.user_enrollment_counts (user_id, enrollment_count)
+SELECT user_id, count(*) FROM lms_enrollment.enrollments GROUP BY user_id;
@@ -0,0 +1,125 @@
+package com.lms.enrollment.application;
+
+import com.lms.common.audit.AuditLogger;
+import com.lms.common.exception.ForbiddenException;
+import com.lms.enrollment.BasePostgresTest;
+import com.lms.enrollment.api.EnrollRequest;
+import com.lms.enrollment.api.EnrollmentResponse;
+import com.lms.enrollment.application.EnrollmentApplicationService.ConflictException;
+import com.lms.enrollment.client.AssignmentServiceClient;
+import com.lms.enrollment.client.CourseServiceClient;
+import com.lms.enrollment.infrastructure.EnrollmentEventPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@Import({ EnrollmentApplicationService.class, CourseRequirementsProjection.class, PlaybackPositionBuffer.class })
+@TestPropertySource(properties = {
+    "lms.enrollment.max-per-user=2",
+    "lms.enrollment.progress.buffer.flush-interval=PT1H" })
+class EnrollTest extends BasePostgresTest {
+
+  @MockitoBean
+  private CourseServiceClient courseServiceClient;
+
+  @MockitoBean
+  private AssignmentServiceClient assignmentServiceClient;
+
+  @MockitoBean
+  private StringRedisTemplate redisTemplate;
+
+  @MockitoBean
+  private AuditLogger auditLogger;
+
+  @MockitoBean
+  private EnrollmentEventPublisher eventPublisher;
+
+  @Autowired
+  private EnrollmentApplicationService enrollmentService;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private final UUID userId = UUID.randomUUID();
+  private final UUID courseId = UUID.randomUUID();
+
+  @BeforeEach
+  void publishedCourses() {
+    when(courseServiceClient.getCourse(any())).thenAnswer(invocation -> new CourseServiceClient.CourseResponse(
+        invocation.getArgument(0), "Course", "PUBLISHED", null, BigDecimal.ZERO, "USD", true));
+  }
+
+  @Test
+  void aReplayWithTheSameKeyReturnsTheOriginalEnrollment() {
+    EnrollmentResponse first = enrollmentService.enroll(userId, new EnrollRequest(courseId), "key-1");
+    EnrollmentResponse replayed = enrollmentService.enroll(userId, new EnrollRequest(courseId), "key-1");
+
+    assertThat(replayed.id()).isEqualTo(first.id());
+    assertThat(enrollments()).isEqualTo(1);
+    assertThat(enrollmentCount()).isEqualTo(1);
+  }
+
+  @Test
+  void aKeyReusedForAnotherCourseConflicts() {
+    enrollmentService.enroll(userId, new EnrollRequest(courseId), "key-1");
+
+    assertThatThrownBy(() -> enrollmentService.enroll(userId, new EnrollRequest(UUID.randomUUID()), "key-1"))
+        .isInstanceOf(ConflictException.class);
+    assertThat(enrollments()).isEqualTo(1);
+  }
+
+  @Test
+  void aSecondEnrollmentInTheSameCourseConflicts() {
+    enrollmentService.enroll(userId, new EnrollRequest(courseId), "key-1");
+
+    assertThatThrownBy(() -> enrollmentService.enroll(userId, new EnrollRequest(courseId), "key-2"))
+        .isInstanceOf(ConflictException.class);
+    assertThatThrownBy(() -> enrollmentService.enroll(userId, new EnrollRequest(courseId), null))
+        .isInstanceOf(ConflictException.class);
+    assertThat(enrollments()).isEqualTo(1);
+    assertThat(enrollmentCount()).isEqualTo(1);
+  }
+
+  @Test
+  // The rollback under test is the service's own, so nothing may run in a test transaction
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  void goingOverTheQuotaRollsTheInsertBack() {
+    try {
+      enrollmentService.enroll(userId, new EnrollRequest(UUID.randomUUID()), null);
+      enrollmentService.enroll(userId, new EnrollRequest(UUID.randomUUID()), null);
+
+      assertThatThrownBy(() -> enrollmentService.enroll(userId, new EnrollRequest(courseId), null))
+          .isInstanceOf(ForbiddenException.class);
+      assertThat(enrollments()).isEqualTo(2);
+      assertThat(enrollmentCount()).isEqualTo(2);
+    } finally {
+      jdbcTemplate.update("DELETE FROM lms_enrollment.enrollments WHERE user_id = ?", userId);
+      jdbcTemplate.update("DELETE FROM lms_enrollment.user_enrollment_counts WHERE user_id = ?", userId);
+    }
+  }
+
+  private Integer enrollments() {
+    return jdbcTemplate.queryForObject("SELECT count(*) FROM lms_enrollment.enrollments WHERE user_id = ?",
+        Integer.class, userId);
+  }
+
+  private Integer enrollmentCount() {
+    return jdbcTemplate.queryForObject("SELECT enrollment_count FROM lms_enrollment.user_enrollment_counts "
+        + "WHERE user_id = ?", Integer.class, userId);
+  }
+}
@@ -0,0 +1,77 @@
+package com.lms.enrollment.application;
+
+import com.lms.enrollment.BasePostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(EnrollmentCountReconciler.class)
+@TestPropertySource(properties = "lms.enrollment.count-reconcile-interval=PT1H")
+class EnrollmentCountReconcilerTest extends BasePostgresTest {
+
+  @Autowired
+  private EnrollmentCountReconciler reconciler;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void countsAreRepairedInBothDirections() {
+    UUID overcounted = enrolled(2);
+    setCount(overcounted, 5);
+    UUID undercounted = enrolled(2);
+    setCount(undercounted, 1);
+    UUID correct = enrolled(1);
+    setCount(correct, 1);
+
+    reconciler.reconcile();
+
+    assertThat(count(overcounted)).isEqualTo(2);
+    assertThat(count(undercounted)).isEqualTo(2);
+    assertThat(count(correct)).isEqualTo(1);
+  }
+
+  @Test
+  void aMissingCountIsCreated() {
+    UUID user = enrolled(3);
+
+    reconciler.reconcile();
+
+    assertThat(count(user)).isEqualTo(3);
+  }
+
+  @Test
+  void aUserWithoutEnrollmentsIsCountedAsZero() {
+    UUID user = UUID.randomUUID();
+    setCount(user, 2);
+
+    reconciler.reconcile();
+
+    assertThat(count(user)).isZero();
+  }
+
+  private UUID enrolled(int courses) {
+    UUID userId = UUID.randomUUID();
+    for (int i = 0; i < courses; i++) {
+      jdbcTemplate.update("INSERT INTO lms_enrollment.enrollments (id, user_id, course_id, status, enrolled_at, "
+          + "updated_at) VALUES (?, ?, ?, 'ENROLLED', now(), now())", UUID.randomUUID(), userId, UUID.randomUUID());
+    }
+    return userId;
+  }
+
+  private void setCount(UUID userId, int count) {
+    jdbcTemplate.update("INSERT INTO lms_enrollment.user_enrollment_counts (user_id, enrollment_count) "
+        + "VALUES (?, ?)", userId, count);
+  }
+
+  private Integer count(UUID userId) {
+    return jdbcTemplate.queryForObject("SELECT enrollment_count FROM lms_enrollment.user_enrollment_counts "
+        + "WHERE user_id = ?", Integer.class, userId);
+  }
+}
@@ -0,0 +1,81 @@
+package com.lms.enrollment.application;
+
+import com.lms.common.audit.AuditLogger;
+import com.lms.enrollment.api.UpdateProgressRequest;
+import com.lms.enrollment.client.CourseServiceClient;
+import com.lms.enrollment.domain.AssignmentCompletionRepository;
+import com.lms.enrollment.domain.Enrollment;
+import com.lms.enrollment.domain.EnrollmentRepository;
+import com.lms.enrollment.domain.LessonProgress;
+import com.lms.enrollment.domain.LessonProgressRepository;
+import com.lms.enrollment.infrastructure.EnrollmentEventPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EnrollmentProgressUpdateTest {
+
+  private final UUID userId = UUID.randomUUID();
+  private final UUID lessonId = UUID.randomUUID();
+  private final Enrollment enrollment = new Enrollment(UUID.randomUUID(), userId, UUID.randomUUID());
+  private final EnrollmentRepository enrollmentRepository = mock(EnrollmentRepository.class);
+  private final LessonProgressRepository lessonProgressRepository = mock(LessonProgressRepository.class);
+  private final PlaybackPositionBuffer buffer = new PlaybackPositionBuffer(mock(JdbcTemplate.class), true, 100);
+  private final EnrollmentApplicationService service = new EnrollmentApplicationService(enrollmentRepository,
+      lessonProgressRepository, mock(AssignmentCompletionRepository.class), mock(CourseServiceClient.class),
+      mock(StringRedisTemplate.class), mock(AuditLogger.class), mock(EnrollmentEventPublisher.class),
+      mock(CourseRequirementsProjection.class), buffer);
+
+  @BeforeEach
+  void setUp() {
+    when(enrollmentRepository.existsByIdAndUserId(enrollment.getId(), userId)).thenReturn(true);
+    when(enrollmentRepository.findById(enrollment.getId())).thenReturn(Optional.of(enrollment));
+    when(lessonProgressRepository.findByEnrollmentIdAndLessonId(enrollment.getId(), lessonId))
+        .thenReturn(Optional.empty());
+  }
+
+  @Test
+  void heartbeatsAreBuffered() {
+    service.updateProgress(enrollment.getId(), new UpdateProgressRequest(lessonId, false, 42.0), userId, Set.of());
+
+    assertThat(buffer.take(enrollment.getId(), lessonId)).isEqualTo(42.0);
+  }
+
+  @Test
+  void aDirectWriteCarriesTheBufferedPosition() {
+    buffer.offer(enrollment.getId(), lessonId, 42.0);
+
+    service.updateProgress(enrollment.getId(), new UpdateProgressRequest(lessonId, false, null), userId, Set.of());
+
+    assertThat(saved().getLastPositionSecs()).isEqualTo(42.0);
+    assertThat(buffer.take(enrollment.getId(), lessonId)).isNull();
+  }
+
+  @Test
+  void aDirectWritesOwnPositionSupersedesTheBufferedOne() {
+    buffer.offer(enrollment.getId(), lessonId, 42.0);
+    when(enrollmentRepository.existsByIdAndUserId(enrollment.getId(), userId)).thenReturn(false);
+
+    service.updateProgress(enrollment.getId(), new UpdateProgressRequest(lessonId, false, 50.0), userId, Set.of());
+
+    assertThat(saved().getLastPositionSecs()).isEqualTo(50.0);
+    assertThat(buffer.take(enrollment.getId(), lessonId)).isNull();
+  }
+
+  private LessonProgress saved() {
+    ArgumentCaptor<LessonProgress> progress = ArgumentCaptor.forClass(LessonProgress.class);
+    verify(lessonProgressRepository).save(progress.capture());
+    return progress.getValue();
+  }
+}
@@ -0,0 +1,106 @@
+package com.lms.enrollment.application;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+
+class PlaybackPositionBufferTest {
+
+  private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+  private final PlaybackPositionBuffer buffer = new PlaybackPositionBuffer(jdbcTemplate, true, 2);
+  private final UUID enrollmentId = UUID.randomUUID();
+  private final UUID lessonId = UUID.randomUUID();
+
+  @Test
+  void onlyTheNewestPositionPerLessonIsWritten() {
+    UUID otherLesson = UUID.randomUUID();
+    buffer.offer(enrollmentId, lessonId, 10);
+    buffer.offer(enrollmentId, lessonId, 20);
+    buffer.offer(enrollmentId, otherLesson, 5);
+
+    buffer.flush();
+
+    assertThat(positions(flushed())).containsOnly(
+        Map.entry(new PlaybackPositionBuffer.Key(enrollmentId, lessonId), 20.0),
+        Map.entry(new PlaybackPositionBuffer.Key(enrollmentId, otherLesson), 5.0));
+  }
+
+  @Test
+  void aFailedFlushKeepsItsPositionsForTheNext() {
+    doThrow(new DataAccessResourceFailureException("Database is down"))
+        .when(jdbcTemplate).batchUpdate(startsWith("INSERT"), anyCollection(), anyInt(), any());
+    buffer.offer(enrollmentId, lessonId, 10);
+
+    buffer.flush();
+    reset(jdbcTemplate);
+    buffer.flush();
+
+    assertThat(positions(flushed())).containsOnly(
+        Map.entry(new PlaybackPositionBuffer.Key(enrollmentId, lessonId), 10.0));
+  }
+
+  @Test
+  void aPositionReportedDuringAFailedFlushIsNotReplacedByTheOlderOne() {
+    doThrow(new DataAccessResourceFailureException("Database is down"))
+        .when(jdbcTemplate).batchUpdate(startsWith("INSERT"), anyCollection(), anyInt(), any());
+    buffer.offer(enrollmentId, lessonId, 10);
+    buffer.flush();
+    buffer.offer(enrollmentId, lessonId, 30);
+
+    assertThat(buffer.take(enrollmentId, lessonId)).isEqualTo(30.0);
+  }
+
+  @Test
+  void aTakenPositionIsNotFlushed() {
+    buffer.offer(enrollmentId, lessonId, 10);
+
+    assertThat(buffer.take(enrollmentId, lessonId)).isEqualTo(10.0);
+    assertThat(buffer.take(enrollmentId, lessonId)).isNull();
+    buffer.flush();
+    verify(jdbcTemplate, never()).batchUpdate(any(String.class), anyCollection(), anyInt(), any());
+  }
+
+  @Test
+  void aFullBufferHandsNewKeysBack() {
+    assertThat(buffer.offer(enrollmentId, lessonId, 1)).isTrue();
+    assertThat(buffer.offer(enrollmentId, UUID.randomUUID(), 1)).isTrue();
+
+    assertThat(buffer.offer(enrollmentId, UUID.randomUUID(), 1)).isFalse();
+    assertThat(buffer.offer(enrollmentId, lessonId, 2)).isTrue();
+    assertThat(new PlaybackPositionBuffer(jdbcTemplate, false, 2).offer(enrollmentId, lessonId, 1)).isFalse();
+  }
+
+  @SuppressWarnings("unchecked")
+  private Collection<Map.Entry<PlaybackPositionBuffer.Key, PlaybackPositionBuffer.Position>> flushed() {
+    ArgumentCaptor<Collection<Map.Entry<PlaybackPositionBuffer.Key, PlaybackPositionBuffer.Position>>> batch =
+        ArgumentCaptor.forClass(Collection.class);
+    verify(jdbcTemplate).batchUpdate(startsWith("INSERT"), batch.capture(), eq(500), any());
+    clearInvocations(jdbcTemplate);
+    return batch.getValue();
+  }
+
+  private static Map<PlaybackPositionBuffer.Key, Double> positions(
+      Collection<Map.Entry<PlaybackPositionBuffer.Key, PlaybackPositionBuffer.Position>> batch) {
+    return batch.stream().collect(Collectors.toMap(Map.Entry::getKey,
+        entry -> entry.getValue().positionSecs()));
+  }
+}
@@ -0,0 +1,88 @@
+package com.lms.enrollment.application;
+
+import com.lms.enrollment.BasePostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(PlaybackPositionBuffer.class)
+// Flushed by the tests only; a scheduled flush would not see their uncommitted enrollments
+@TestPropertySource(properties = "lms.enrollment.progress.buffer.flush-interval=PT1H")
+class PlaybackPositionFlushTest extends BasePostgresTest {
+
+  @Autowired
+  private PlaybackPositionBuffer buffer;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private final UUID enrollmentId = UUID.randomUUID();
+  private final UUID lessonId = UUID.randomUUID();
+
+  @BeforeEach
+  void enroll() {
+    Timestamp past = Timestamp.from(Instant.now().minus(Duration.ofHours(1)));
+    jdbcTemplate.update("INSERT INTO lms_enrollment.enrollments (id, user_id, course_id, status, enrolled_at, "
+        + "updated_at) VALUES (?, ?, ?, 'ENROLLED', ?, ?)", enrollmentId, UUID.randomUUID(), UUID.randomUUID(),
+        past, past);
+  }
+
+  @Test
+  void aFlushWritesThePositionAndTheLastLesson() {
+    buffer.offer(enrollmentId, lessonId, 42);
+    buffer.flush();
+
+    assertThat(position(lessonId)).containsExactly(42.0);
+    assertThat(lastLesson()).isEqualTo(lessonId);
+  }
+
+  @Test
+  void aFlushNeverOverwritesANewerWrite() {
+    buffer.offer(enrollmentId, lessonId, 42);
+    // Written directly, by this or another pod, after the buffered position was reported
+    Timestamp later = Timestamp.from(Instant.now().plus(Duration.ofMinutes(1)));
+    UUID newerLesson = UUID.randomUUID();
+    jdbcTemplate.update("INSERT INTO lms_enrollment.lesson_progress (id, enrollment_id, lesson_id, completed, "
+        + "last_position_secs, last_accessed_at) VALUES (?, ?, ?, false, 99, ?)", UUID.randomUUID(), enrollmentId,
+        lessonId, later);
+    jdbcTemplate.update("UPDATE lms_enrollment.enrollments SET last_lesson_id = ?, updated_at = ? WHERE id = ?",
+        newerLesson, later, enrollmentId);
+
+    buffer.flush();
+
+    assertThat(position(lessonId)).containsExactly(99.0);
+    assertThat(lastLesson()).isEqualTo(newerLesson);
+  }
+
+  @Test
+  void positionsForDeletedEnrollmentsAreDropped() {
+    UUID deleted = UUID.randomUUID();
+    buffer.offer(deleted, lessonId, 42);
+    buffer.flush();
+
+    assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM lms_enrollment.lesson_progress "
+        + "WHERE enrollment_id = ?", Integer.class, deleted)).isZero();
+    assertThat(buffer.take(deleted, lessonId)).isNull();
+  }
+
+  private List<Double> position(UUID lesson) {
+    return jdbcTemplate.queryForList("SELECT last_position_secs FROM lms_enrollment.lesson_progress "
+        + "WHERE enrollment_id = ? AND lesson_id = ?", Double.class, enrollmentId, lesson);
+  }
+
+  private UUID lastLesson() {
+    return jdbcTemplate.queryForObject("SELECT last_lesson_id FROM lms_enrollment.enrollments WHERE id = ?",
+        UUID.class, enrollmentId);
+  }
+}
@@ -0,0 +1,143 @@
+package com.lms.enrollment.application;
+
+import com.lms.common.audit.AuditLogger;
+import com.lms.enrollment.BasePostgresTest;
+import com.lms.enrollment.api.UpdateProgressRequest;
+import com.lms.enrollment.client.AssignmentServiceClient;
+import com.lms.enrollment.client.CourseServiceClient;
+import com.lms.enrollment.infrastructure.EnrollmentEventPublisher;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The running completion counters must always agree with a recount from the
+ * rows they summarize.
+ */
+@Import({ EnrollmentApplicationService.class, CourseRequirementsProjection.class, ProgressCounterReconciler.class,
+    PlaybackPositionBuffer.class })
+@TestPropertySource(properties = {
+    "lms.enrollment.progress.buffer.flush-interval=PT1H",
+    "lms.enrollment.progress.reconcile-interval=PT1H" })
+class ProgressCountersTest extends BasePostgresTest {
+
+  @MockitoBean
+  private CourseServiceClient courseServiceClient;
+
+  @MockitoBean
+  private AssignmentServiceClient assignmentServiceClient;
+
+  @MockitoBean
+  private StringRedisTemplate redisTemplate;
+
+  @MockitoBean
+  private AuditLogger auditLogger;
+
+  @MockitoBean
+  private EnrollmentEventPublisher eventPublisher;
+
+  @Autowired
+  private EnrollmentApplicationService enrollmentService;
+
+  @Autowired
+  private CourseRequirementsProjection requirements;
+
+  @Autowired
+  private ProgressCounterReconciler reconciler;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  private final UUID userId = UUID.randomUUID();
+  private final UUID courseId = UUID.randomUUID();
+  private final UUID enrollmentId = UUID.randomUUID();
+  private final UUID lesson = UUID.randomUUID();
+  private final UUID mandatoryAssignment = UUID.randomUUID();
+  private final UUID optionalAssignment = UUID.randomUUID();
+
+  @BeforeEach
+  void enroll() {
+    // Loaded requirements, so completions never call out to the other services
+    jdbcTemplate.update("INSERT INTO lms_enrollment.course_requirements (course_id, completion_threshold, "
+        + "require_all_assignments, updated_at) VALUES (?, 100.00, true, now())", courseId);
+    jdbcTemplate.update("INSERT INTO lms_enrollment.course_requirement_lessons (course_id, lesson_id) "
+        + "VALUES (?, ?), (?, ?)", courseId, lesson, courseId, UUID.randomUUID());
+    jdbcTemplate.update("INSERT INTO lms_enrollment.course_requirement_assignments (course_id, assignment_id) "
+        + "VALUES (?, ?)", courseId, mandatoryAssignment);
+    jdbcTemplate.update("INSERT INTO lms_enrollment.enrollments (id, user_id, course_id, status, enrolled_at, "
+        + "updated_at) VALUES (?, ?, ?, 'ENROLLED', now(), now())", enrollmentId, userId, courseId);
+  }
+
+  @Test
+  void aRepeatedCompletionIsCountedOnce() {
+    UpdateProgressRequest completion = new UpdateProgressRequest(lesson, true, null);
+    enrollmentService.updateProgress(enrollmentId, completion, userId, Set.of());
+    enrollmentService.updateProgress(enrollmentId, completion, userId, Set.of());
+
+    assertThat(counters()).containsExactly(1, 0);
+    assertCountersMatchRecount();
+  }
+
+  @Test
+  void flippingAnAssignmentMovesTheMandatoryCounter() {
+    enrollmentService.recordAssignmentCompletion(enrollmentId, mandatoryAssignment, lesson);
+    enrollmentService.recordAssignmentCompletion(enrollmentId, optionalAssignment, lesson);
+    assertThat(counters()).containsExactly(0, 1);
+    assertCountersMatchRecount();
+
+    requirements.assignmentChanged(courseId, optionalAssignment, true);
+    assertThat(counters()).containsExactly(0, 2);
+    assertCountersMatchRecount();
+
+    requirements.assignmentChanged(courseId, mandatoryAssignment, false);
+    requirements.assignmentChanged(courseId, optionalAssignment, false);
+    assertThat(counters()).containsExactly(0, 0);
+    assertCountersMatchRecount();
+  }
+
+  @Test
+  void aReconcileRunRepairsDriftedCounters() {
+    enrollmentService.updateProgress(enrollmentId, new UpdateProgressRequest(lesson, true, null), userId,
+        Set.of());
+    enrollmentService.recordAssignmentCompletion(enrollmentId, mandatoryAssignment, lesson);
+    entityManager.flush();
+    jdbcTemplate.update("UPDATE lms_enrollment.enrollments SET completed_lessons = 5, "
+        + "completed_mandatory_assignments = 0 WHERE id = ?", enrollmentId);
+
+    reconciler.reconcile();
+
+    assertThat(counters()).containsExactly(1, 1);
+    assertCountersMatchRecount();
+  }
+
+  private int[] counters() {
+    entityManager.flush();
+    return jdbcTemplate.queryForObject("SELECT completed_lessons, completed_mandatory_assignments "
+        + "FROM lms_enrollment.enrollments WHERE id = ?",
+        (rs, row) -> new int[] { rs.getInt(1), rs.getInt(2) }, enrollmentId);
+  }
+
+  private void assertCountersMatchRecount() {
+    Integer lessons = jdbcTemplate.queryForObject("SELECT count(*) FROM lms_enrollment.lesson_progress "
+        + "WHERE enrollment_id = ? AND completed", Integer.class, enrollmentId);
+    Integer mandatory = jdbcTemplate.queryForObject("SELECT count(*) FROM lms_enrollment.assignment_completions ac "
+        + "JOIN lms_enrollment.course_requirement_assignments cra "
+        + "ON cra.course_id = ? AND cra.assignment_id = ac.assignment_id "
+        + "WHERE ac.enrollment_id = ?", Integer.class, courseId, enrollmentId);
+    assertThat(counters()).containsExactly(lessons, mandatory);
+  }
+}
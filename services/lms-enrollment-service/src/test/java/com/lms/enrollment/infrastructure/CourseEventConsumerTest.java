@@ -0,0 +1,61 @@
+package com.lms.enrollment.infrastructure;
+
+import com.lms.common.events.EventEnvelope;
+import com.lms.enrollment.application.CourseRequirementsProjection;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class CourseEventConsumerTest {
+
+  private final CourseRequirementsProjection requirements = mock(CourseRequirementsProjection.class);
+  private final CourseEventConsumer consumer = new CourseEventConsumer(requirements);
+  private final UUID courseId = UUID.randomUUID();
+
+  @Test
+  void courseChangesUpdateTheSettings() {
+    consumer.handleCourseEvent(EventEnvelope.of("CourseUpdated", courseId.toString(),
+        Map.of("id", courseId.toString(), "completionThreshold", 80, "requireAllAssignments", true), null));
+
+    verify(requirements).updateSettings(courseId, new BigDecimal("80"), true);
+  }
+
+  @Test
+  void aCurriculumChangeIsAppliedFromItsOwnPayload() {
+    UUID added = UUID.randomUUID();
+    UUID removed = UUID.randomUUID();
+    consumer.handleCourseEvent(EventEnvelope.of("CurriculumChanged", courseId.toString(),
+        Map.of("courseId", courseId.toString(), "contentVersion", 7, "addedLessons", List.of(),
+            "addedLessonIds", List.of(added.toString()), "removedLessonIds", List.of(removed.toString())), null));
+
+    verify(requirements).lessonsChanged(courseId, Set.of(added), Set.of(removed));
+    verify(requirements, never()).refreshCurriculum(any());
+  }
+
+  @Test
+  void aDeletedModuleRemovesItsLessons() {
+    UUID lesson = UUID.randomUUID();
+    consumer.handleCourseEvent(EventEnvelope.of("ModuleDeleted", UUID.randomUUID().toString(),
+        Map.of("courseId", courseId.toString(), "lessonIds", List.of(lesson.toString())), null));
+
+    verify(requirements).lessonsChanged(courseId, Set.of(), Set.of(lesson));
+    verify(requirements, never()).refreshCurriculum(any());
+  }
+
+  @Test
+  void eventsThatDoNotListTheirLessonsReadTheCurriculumBack() {
+    consumer.handleCourseEvent(EventEnvelope.of("ModuleDeleted", UUID.randomUUID().toString(),
+        Map.of("courseId", courseId.toString()), null));
+
+    verify(requirements).refreshCurriculum(courseId);
+  }
+}
@@ -13,6 +13,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Slf4j
@@ -89,6 +90,10 @@ public class NotificationService {
       case "LESSONUPDATED":
         handleLessonUpdated(event);
         break;
+      case "CURRICULUM_CHANGED":
+      case "CURRICULUMCHANGED":
+        handleCurriculumChanged(event);
+        break;
       case "PAYMENT_COMPLETED":
       case "PAYMENTCOMPLETED":
         handlePaymentCompleted(event);
@@ -184,6 +189,45 @@ public class NotificationService {
     }
   }
 
+  /**
+   * A curriculum sync announces its new and renamed lessons in one event; each
+   * learner gets at most one notification per kind instead of one per lesson.
+   */
+  @SuppressWarnings("unchecked")
+  private void handleCurriculumChanged(DomainEvent event) {
+    if (!"PUBLISHED".equals(event.getPayload().get("courseStatus"))) {
+      return;
+    }
+    UUID courseId = UUID.fromString(String.valueOf(event.getPayload().get("courseId")));
+    List<Map<String, Object>> added = (List<Map<String, Object>>) event.getPayload()
+        .getOrDefault("addedLessons", List.of());
+    List<Map<String, Object>> renamed = (List<Map<String, Object>>) event.getPayload()
+        .getOrDefault("renamedLessons", List.of());
+    if (added.isEmpty() && renamed.isEmpty()) {
+      return;
+    }
+
+    List<UUID> userIds = enrollmentServiceClient.getEnrolledUserIds(courseId);
+    if (!added.isEmpty()) {
+      String message = added.size() == 1
+          ? String.format("New lesson available: %s", added.get(0).get("title"))
+          : String.format("%d new lessons available, starting with: %s", added.size(), added.get(0).get("title"));
+      String link = "/courses/" + courseId + "/lesson/" + added.get(0).get("lessonId");
+      for (UUID userId : userIds) {
+        notifyUser(userId, courseId, "LessonPublished", "LESSON_PUBLISHED", "New Lesson", message, link);
+      }
+    }
+    if (!renamed.isEmpty()) {
+      String message = renamed.size() == 1
+          ? String.format("Lesson updated: %s", renamed.get(0).get("title"))
+          : String.format("%d lessons updated, including: %s", renamed.size(), renamed.get(0).get("title"));
+      String link = "/courses/" + courseId + "/lesson/" + renamed.get(0).get("lessonId");
+      for (UUID userId : userIds) {
+        notifyUser(userId, courseId, "LessonUpdated", "LESSON_UPDATED", "Lesson Update", message, link);
+      }
+    }
+  }
+
   private void notifyUser(UUID userId, UUID courseId, String eventType, String category, String title, String message,
       String link) {
     // 1. In-App